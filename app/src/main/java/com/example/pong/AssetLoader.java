@@ -0,0 +1,116 @@
+package com.example.pong;
+
+import android.os.Process;
+import android.util.Log;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class loads assets on a background thread so nothing waits for them
+ * Each load gives back an Asset straight away which can be polled
+ * without blocking, and can call back on the loader thread when it is ready.
+ * The thread goes away on its own once there is nothing left to load
+ */
+public class AssetLoader {
+
+    /**
+     * Told when an asset has finished loading, on the loader thread
+     * @param <T> what was loaded
+     */
+    public interface Callback<T> {
+        /**
+         * @param asset what was loaded, or null if loading failed
+         */
+        void onLoaded(T asset);
+    }
+
+    /**
+     * An asset that may still be loading
+     * @param <T> what is being loaded
+     */
+    public static final class Asset<T> extends FutureTask<T> {
+
+        private final String mName;
+        private final Callback<T> mCallback;
+        private final long mQueuedTime = System.nanoTime();
+        private volatile long mLoadNanos;
+        private volatile T mValue;
+        // Set after mValue so anyone who sees it set also sees the value
+        private volatile boolean mReady;
+
+        private Asset(String name, Callable<T> task, Callback<T> callback){
+            super(task);
+            mName = name;
+            mCallback = callback;
+        }
+
+        @Override
+        protected void done(){
+            mLoadNanos = System.nanoTime() - mQueuedTime;
+            T value = null;
+            try {
+                value = get();
+            } catch (InterruptedException | ExecutionException | CancellationException e){
+                Log.e("Error", "failed to load " + mName, e);
+            }
+            mValue = value;
+            mReady = true;
+            Log.d("Debug", mName + " loaded in " + mLoadNanos / 1000000 + " ms");
+            if (mCallback != null){
+                mCallback.onLoaded(value);
+            }
+        }
+
+        /**
+         * This method gets the asset without waiting for it
+         * @return the asset, or null if it is still loading or failed to load
+         */
+        public T getNow(){
+            return mValue;
+        }
+
+        /**
+         * This method says whether loading has finished
+         * Use this rather than isDone, which is true before getNow has the asset
+         * @return true once getNow gives the asset, or null if loading failed
+         */
+        public boolean isReady(){ return mReady; }
+
+        /**
+         * @return how long the asset took from being asked for to being ready, 0 until it is done
+         */
+        public long getLoadNanos(){ return mLoadNanos; }
+    }
+
+    // Idle this long and the loader thread finishes
+    private static final long KEEP_ALIVE_SECONDS = 1;
+
+    // One thread, loads run in the order they were asked for
+    private final ThreadPoolExecutor mExecutor = new ThreadPoolExecutor(
+            0, 1, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            runnable -> new Thread(() -> {
+                // Keep out of the way of the UI and game threads
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                runnable.run();
+            }, "assets"));
+
+    /**
+     * This method starts loading an asset
+     * @param name what to call it in the log
+     * @param task does the loading, on the loader thread
+     * @param callback told when it is ready, or null
+     * @param <T> what is being loaded
+     * @return the asset, ready or not
+     */
+    public <T> Asset<T> load(String name, Callable<T> task, Callback<T> callback){
+        Asset<T> asset = new Asset<>(name, task, callback);
+        mExecutor.execute(asset);
+        return asset;
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.pong;
+
+import android.content.res.AssetFileDescriptor;
+import android.content.res.AssetManager;
+import android.media.AudioAttributes;
+import android.media.AudioManager;
+import android.media.SoundPool;
+import android.os.Build;
+import android.util.Log;
+
+import com.example.pong.core.IntRingBuffer;
+
+import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class plays the game sounds on a thread of its own
+ * The game thread posts the sounds of each tick into a lock-free queue
+ * and carries on, it never waits for SoundPool.
+ * The sounds are loaded by the AssetLoader, anything asked for before then is skipped
+ */
+public class AudioPlayer implements Runnable, SoundPool.OnLoadCompleteListener {
+
+    // The sounds, as bits so one tick can ask for several at once
+    public static final int SOUND_BEEP = 1;
+    public static final int SOUND_BOOP = 2;
+    private static final int SOUND_COUNT = 2;
+
+    // The file for each sound and how fast to play it
+    // boop falls back to a slowed down beep if it has no file of its own
+    private static final String[] FILES = {"beep.ogg", "boop.ogg"};
+    private static final float FALLBACK_RATE = 0.5f;
+
+    private AssetManager mAssets;
+
+    // Created on the loader thread, the audio thread only looks once it is ready
+    private AssetLoader.Asset<SoundPool> mSP;
+
+    // The sample each sound plays, written by the loader before mSP is ready
+    private int[] mSampleIDs = new int[SOUND_COUNT];
+    private float[] mRates = new float[SOUND_COUNT];
+
+    // Whether SoundPool has finished loading each sound, only touched on the audio thread
+    private boolean[] mLoaded = new boolean[SOUND_COUNT];
+
+    // Samples SoundPool has finished loading, written by its listener thread
+    private IntRingBuffer mLoadedSamples = new IntRingBuffer(16);
+
+    // One mask of sounds per tick, written by the game thread
+    private IntRingBuffer mQueue = new IntRingBuffer(64);
+
+    private volatile Thread mThread;
+    private volatile boolean mRunning;
+
+    /**
+     * This method prepares the player and starts loading the sounds
+     * @param assets where the sound files are
+     * @param loader where to load them
+     */
+    public AudioPlayer(AssetManager assets, AssetLoader loader){
+        mAssets = assets;
+        mSP = loader.load("sounds", this::load, null);
+    }
+
+    /**
+     * This method starts the audio thread
+     */
+    public void start(){
+        // The last thread was only asked to stop, let it finish
+        // so there is never more than one reading the queue
+        Thread last = mThread;
+        if (last != null){
+            try{
+                last.join();
+            } catch (InterruptedException e){
+                Log.e("Error: ", "joining audio thread");
+            }
+        }
+
+        mRunning = true;
+        mThread = new Thread(this, "audio");
+        mThread.start();
+    }
+
+    /**
+     * This method asks the audio thread to finish, without waiting for it
+     */
+    public void stop(){
+        mRunning = false;
+        Thread thread = mThread;
+        if (thread != null){
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * This method asks for sounds to be played, called by the game thread once per tick
+     * Sounds asked for while the queue is full are dropped
+     * @param sounds the SOUND_ bits to play
+     */
+    public void post(int sounds){
+        if (sounds != 0 && mQueue.offer(sounds)){
+            Thread thread = mThread;
+            if (thread != null){
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    /**
+     * @return true once the SoundPool is made and every sound has started decoding
+     */
+    public boolean isLoaded(){
+        return mSP.isReady();
+    }
+
+    /**
+     * This method is the audio thread
+     */
+    @Override
+    public void run(){
+        while (mRunning){
+            // Everything that piled up since we last looked is played once
+            int sounds = 0;
+            for (int next = mQueue.poll(); next != IntRingBuffer.EMPTY; next = mQueue.poll()){
+                sounds |= next;
+            }
+
+            if (sounds == 0){
+                LockSupport.park(this);
+                continue;
+            }
+
+            SoundPool pool = mSP.getNow();
+            if (pool == null){
+                // Still loading, skipped not delayed
+                continue;
+            }
+            markLoaded();
+            for (int i = 0; i < SOUND_COUNT; i++){
+                // Sounds that have not finished loading are skipped, not delayed
+                if ((sounds & (1 << i)) != 0 && mLoaded[i]){
+                    pool.play(mSampleIDs[i], 1, 1, 0, 0, mRates[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * This method creates the SoundPool and starts loading every sound, on the loader thread
+     * SoundPool decodes in the background and calls onLoadComplete for each one
+     * @return the pool the sounds are in
+     */
+    private SoundPool load(){
+        SoundPool pool;
+        // Prepare the SoundPool instance
+        // Depending on version of Android
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP){
+            AudioAttributes audioAttributes = new AudioAttributes.Builder().
+                    setUsage(AudioAttributes.USAGE_MEDIA)
+                    .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                    .build();
+            pool = new SoundPool.Builder()
+                    .setMaxStreams(5)
+                    .setAudioAttributes(audioAttributes)
+                    .build();
+        } else {
+            pool = new SoundPool(5, AudioManager.STREAM_MUSIC, 0);
+        }
+        pool.setOnLoadCompleteListener(this);
+
+        for (int i = 0; i < SOUND_COUNT; i++){
+            mSampleIDs[i] = -1;
+            mRates[i] = 1;
+            try{
+                AssetFileDescriptor descriptor = mAssets.openFd(FILES[i]);
+                mSampleIDs[i] = pool.load(descriptor, 0);
+            } catch (IOException e){
+                Log.d("Debug", "no sound file " + FILES[i]);
+            }
+        }
+
+        // Share the beep sample with any sound that has no file
+        for (int i = 1; i < SOUND_COUNT; i++){
+            if (mSampleIDs[i] == -1){
+                mSampleIDs[i] = mSampleIDs[0];
+                mRates[i] = FALLBACK_RATE;
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * This method picks up the samples that finished loading since last time
+     */
+    private void markLoaded(){
+        for (int sample = mLoadedSamples.poll(); sample != IntRingBuffer.EMPTY;
+             sample = mLoadedSamples.poll()){
+            for (int i = 0; i < SOUND_COUNT; i++){
+                if (mSampleIDs[i] == sample){
+                    mLoaded[i] = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * This method is called by SoundPool when a sample is ready to play
+     * @param soundPool the pool that loaded it
+     * @param sampleId the sample that finished
+     * @param status 0 if it loaded
+     */
+    @Override
+    public void onLoadComplete(SoundPool soundPool, int sampleId, int status){
+        if (status != 0){
+            Log.e("Error", "failed to load sound " + sampleId);
+            return;
+        }
+        // Hand it to the audio thread which owns the loaded flags
+        mLoadedSamples.offer(sampleId);
+    }
+}
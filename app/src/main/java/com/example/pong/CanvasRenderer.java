@@ -0,0 +1,74 @@
+package com.example.pong;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+import com.example.pong.core.FloatRect;
+import com.example.pong.core.Renderer;
+
+import java.util.ArrayList;
+
+/**
+ * This class draws frames onto an Android Canvas
+ * locked from the SurfaceView each frame
+ */
+public class CanvasRenderer implements Renderer {
+
+    private Canvas mCanvas;
+    private Paint mPaint = new Paint();
+
+    // The bitmaps behind each layer number
+    private ArrayList<HudLayer> mLayers = new ArrayList<>();
+
+    CanvasRenderer(){
+        // Points are drawn as squares the width of the stroke
+        mPaint.setStrokeCap(Paint.Cap.SQUARE);
+    }
+
+    /**
+     * This method sets the canvas for the next frame
+     * @param canvas the locked canvas, null once it has been posted
+     */
+    void setCanvas(Canvas canvas){
+        mCanvas = canvas;
+    }
+
+    /**
+     * This method connects a layer number to its bitmap
+     * @param layer the number SceneRenderer.addLayer returned
+     * @param hudLayer the bitmap to draw for it
+     */
+    void setLayer(int layer, HudLayer hudLayer){
+        while (mLayers.size() <= layer){
+            mLayers.add(null);
+        }
+        mLayers.set(layer, hudLayer);
+    }
+
+    @Override
+    public void clear(int color){
+        mCanvas.drawColor(color);
+    }
+
+    @Override
+    public void setColor(int color){
+        mPaint.setColor(color);
+    }
+
+    @Override
+    public void fillRect(float left, float top, float right, float bottom){
+        mCanvas.drawRect(left, top, right, bottom, mPaint);
+    }
+
+    @Override
+    public void fillSquares(float[] centers, int first, int count, float size){
+        // drawPoints counts floats, not points
+        mPaint.setStrokeWidth(size);
+        mCanvas.drawPoints(centers, first * 2, count * 2, mPaint);
+    }
+
+    @Override
+    public void drawLayer(int layer, FloatRect bounds){
+        mLayers.get(layer).draw(mCanvas);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.pong;
+
+import android.graphics.Rect;
+
+import com.example.pong.core.FloatRect;
+
+/**
+ * This class works out which part of the screen has to be drawn again
+ * It remembers where every object was drawn last frame and
+ * grows one rect to cover wherever something moved from or to
+ */
+public class DirtyRegion {
+
+    // Where each object was drawn last frame and where it is drawn this frame
+    // in the order they were added
+    private Rect[] mLast = new Rect[0];
+    private Rect[] mNow = new Rect[0];
+    private int mLastCount;
+    private int mCount;
+
+    // Everything that changed this frame
+    private Rect mDirty = new Rect();
+
+    /**
+     * This method starts a new frame
+     */
+    void begin(){
+        mCount = 0;
+        mDirty.setEmpty();
+    }
+
+    /**
+     * This method adds where an object is drawn this frame
+     * Objects must be added in the same order every frame
+     * @param bounds where the object is drawn
+     */
+    void add(FloatRect bounds){
+        if (mCount == mNow.length){
+            grow();
+        }
+        // Cover every pixel the object touches
+        Rect now = mNow[mCount];
+        now.set((int) Math.floor(bounds.left), (int) Math.floor(bounds.top),
+                (int) Math.ceil(bounds.right), (int) Math.ceil(bounds.bottom));
+
+        if (mCount >= mLastCount){
+            // A new object only dirties where it is now
+            mDirty.union(now);
+        } else if (!now.equals(mLast[mCount])){
+            // Clear where it was and draw where it is
+            mDirty.union(mLast[mCount]);
+            mDirty.union(now);
+        }
+        mCount++;
+    }
+
+    /**
+     * This method marks an area that changed this frame, like a line of HUD text
+     * @param area the area to draw again
+     */
+    void invalidate(Rect area){
+        mDirty.union(area);
+    }
+
+    /**
+     * This method marks where an object is drawn as changed even if it did not move,
+     * like when it changes colour
+     * @param bounds where the object is drawn
+     */
+    void invalidate(FloatRect bounds){
+        mDirty.union((int) Math.floor(bounds.left), (int) Math.floor(bounds.top),
+                (int) Math.ceil(bounds.right), (int) Math.ceil(bounds.bottom));
+    }
+
+    /**
+     * This method finishes the frame
+     * Objects that were not added this frame have their old bounds cleared
+     * @return the area that has to be drawn again, empty if nothing changed
+     */
+    Rect end(){
+        for (int i = mCount; i < mLastCount; i++){
+            mDirty.union(mLast[i]);
+        }
+
+        // This frame becomes last frame
+        Rect[] swap = mLast;
+        mLast = mNow;
+        mNow = swap;
+        mLastCount = mCount;
+        return mDirty;
+    }
+
+    /**
+     * This method doubles the room for objects
+     */
+    private void grow(){
+        int capacity = Math.max(8, mNow.length * 2);
+        mLast = copyOf(mLast, capacity);
+        mNow = copyOf(mNow, capacity);
+    }
+
+    private static Rect[] copyOf(Rect[] rects, int capacity){
+        Rect[] bigger = new Rect[capacity];
+        System.arraycopy(rects, 0, bigger, 0, rects.length);
+        for (int i = rects.length; i < capacity; i++){
+            bigger[i] = new Rect();
+        }
+        return bigger;
+    }
+}
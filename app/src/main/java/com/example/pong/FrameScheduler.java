@@ -0,0 +1,27 @@
+package com.example.pong;
+
+/**
+ * This interface decides how long the game thread waits between frames
+ */
+public interface FrameScheduler {
+
+    /**
+     * This method is called once the frame has been drawn and
+     * returns when it is time to start the next frame
+     * @param frameStartTime System.nanoTime() at the start of the frame just drawn
+     * @param paused whether the game is currently paused
+     */
+    void waitForNextFrame(long frameStartTime, boolean paused);
+
+    /**
+     * This method cuts the current or next wait short, called from another thread
+     * when the game thread is needed sooner, like when the game is paused
+     */
+    void wake();
+
+    /**
+     * This method returns the timings of the most recent frames
+     * @return reference to the timings object
+     */
+    FrameTimings getTimings();
+}
@@ -0,0 +1,77 @@
+package com.example.pong;
+
+/**
+ * This class keeps track of how long frames take and how much
+ * of that time the game thread spent working versus waiting
+ */
+public class FrameTimings {
+
+    // Time spent on the most recent frame
+    private long mWorkNanos;
+    private long mWaitNanos;
+
+    // Running totals since the last reset
+    private long mTotalWorkNanos;
+    private long mTotalWaitNanos;
+    private long mFrames;
+
+    /**
+     * This method records one finished frame
+     * @param workNanos time spent updating and drawing
+     * @param waitNanos time spent sleeping or spinning until the next frame
+     */
+    void record(long workNanos, long waitNanos){
+        mWorkNanos = workNanos;
+        mWaitNanos = waitNanos;
+        mTotalWorkNanos += workNanos;
+        mTotalWaitNanos += waitNanos;
+        mFrames++;
+    }
+
+    /**
+     * This method clears the running totals
+     */
+    public void reset(){
+        mTotalWorkNanos = 0;
+        mTotalWaitNanos = 0;
+        mFrames = 0;
+    }
+
+    /**
+     * @return time the last frame spent updating and drawing
+     */
+    public long getWorkNanos(){ return mWorkNanos; }
+
+    /**
+     * @return time the last frame spent waiting for the next one
+     */
+    public long getWaitNanos(){ return mWaitNanos; }
+
+    /**
+     * @return number of frames recorded since the last reset
+     */
+    public long getFrames(){ return mFrames; }
+
+    /**
+     * This method returns the fraction of time the game thread was busy
+     * @return 0 when it only waited, 1 when it never waited
+     */
+    public float getBusyFraction(){
+        long total = mTotalWorkNanos + mTotalWaitNanos;
+        if (total == 0){
+            return 0;
+        }
+        return (float) mTotalWorkNanos / total;
+    }
+
+    /**
+     * This method returns the average length of a frame
+     * @return average nanoseconds per frame since the last reset
+     */
+    public long getAverageFrameNanos(){
+        if (mFrames == 0){
+            return 0;
+        }
+        return (mTotalWorkNanos + mTotalWaitNanos) / mFrames;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.pong;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+
+/**
+ * This class keeps a line of HUD text drawn into an off-screen bitmap
+ * The text is only laid out again when it changes,
+ * every other frame just copies the bitmap onto the screen
+ */
+public class HudLayer {
+
+    // Where the layer goes on the screen
+    private Rect mBounds = new Rect();
+
+    private Bitmap mBitmap;
+    private Canvas mCanvas;
+
+    /**
+     * This method initializes an empty layer
+     * @param bounds the area of the screen the layer covers
+     */
+    public HudLayer(Rect bounds){
+        mBounds.set(bounds);
+        mBitmap = Bitmap.createBitmap(Math.max(1, bounds.width()), Math.max(1, bounds.height()),
+                Bitmap.Config.ARGB_8888);
+        mCanvas = new Canvas(mBitmap);
+    }
+
+    /**
+     * This method draws the text into the layer, replacing what was there
+     * @param text the line to draw
+     * @param x horizontal screen position of the start of the text
+     * @param y vertical screen position of the text baseline
+     * @param paint the paint to draw the text with, with its size set
+     */
+    void render(HudText text, float x, float y, Paint paint){
+        clear();
+        drawText(text, x, y, paint);
+    }
+
+    /**
+     * This method empties the layer
+     */
+    void clear(){
+        mCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+    }
+
+    /**
+     * This method adds a line of text to the layer, keeping what is there
+     * @param text the line to draw
+     * @param x horizontal screen position of the start of the text
+     * @param y vertical screen position of the text baseline
+     * @param paint the paint to draw the text with, with its size set
+     */
+    void drawText(HudText text, float x, float y, Paint paint){
+        text.draw(mCanvas, x - mBounds.left, y - mBounds.top, paint);
+    }
+
+    /**
+     * This method copies the layer onto the screen
+     * @param canvas the canvas to draw on
+     */
+    void draw(Canvas canvas){
+        canvas.drawBitmap(mBitmap, mBounds.left, mBounds.top, null);
+    }
+}
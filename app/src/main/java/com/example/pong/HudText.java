@@ -0,0 +1,100 @@
+package com.example.pong;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+/**
+ * This class holds one line of HUD text in a reusable char array
+ * Numbers are written straight into the array so building the
+ * line each frame does not create any Strings
+ */
+public class HudText {
+
+    private char[] mChars;
+    private int mLength;
+
+    /**
+     * This method initializes the text buffer
+     * @param capacity the most characters the line will ever hold
+     */
+    public HudText(int capacity){
+        mChars = new char[capacity];
+    }
+
+    /**
+     * This method empties the line ready to be built again
+     * @return this line so calls can be chained
+     */
+    HudText clear(){
+        mLength = 0;
+        return this;
+    }
+
+    /**
+     * This method adds fixed text to the end of the line
+     * @param text the text to add, should be a constant
+     * @return this line so calls can be chained
+     */
+    HudText append(String text){
+        int count = Math.min(text.length(), mChars.length - mLength);
+        text.getChars(0, count, mChars, mLength);
+        mLength += count;
+        return this;
+    }
+
+    /**
+     * This method adds a whole number to the end of the line
+     * @param value the number to add
+     * @return this line so calls can be chained
+     */
+    HudText append(long value){
+        // Work with negative numbers so Long.MIN_VALUE still fits
+        boolean negative = value < 0;
+        if (!negative){
+            value = -value;
+        }
+
+        // Count the digits first so they can be written from the right
+        int digits = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10){
+            digits++;
+        }
+        int size = negative ? digits + 1 : digits;
+        if (mLength + size > mChars.length){
+            return this;
+        }
+
+        if (negative){
+            mChars[mLength] = '-';
+        }
+        int position = mLength + size;
+        do {
+            mChars[--position] = (char) ('0' - (value % 10));
+            value /= 10;
+        } while (value != 0);
+
+        mLength += size;
+        return this;
+    }
+
+    /**
+     * @return the number of characters in the line
+     */
+    int length(){ return mLength; }
+
+    /**
+     * @return the character array backing the line
+     */
+    char[] chars(){ return mChars; }
+
+    /**
+     * This method draws the line without creating a String
+     * @param canvas the canvas to draw on
+     * @param x left edge of the text
+     * @param y baseline of the text
+     * @param paint the paint to draw the text with
+     */
+    void draw(Canvas canvas, float x, float y, Paint paint){
+        canvas.drawText(mChars, 0, mLength, x, y, paint);
+    }
+}
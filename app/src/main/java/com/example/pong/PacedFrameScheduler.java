@@ -0,0 +1,87 @@
+package com.example.pong;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class paces the game loop to a target frame rate
+ * It parks for most of the wait and spins for the last
+ * little bit because parking on its own is not accurate enough.
+ * While the game is paused it drops to a much lower rate to save power
+ */
+public class PacedFrameScheduler implements FrameScheduler {
+
+    private final long NANOS_IN_SECOND = 1000000000L;
+    private final long NANOS_IN_MILLI = 1000000L;
+
+    // Stop sleeping when the deadline is closer than this
+    // and spin the rest of the way
+    private final long SPIN_THRESHOLD_NANOS = 2 * NANOS_IN_MILLI;
+
+    private long mFrameNanos;
+    private long mPausedFrameNanos;
+
+    // When the next frame is due
+    private long mNextFrameTime;
+
+    private FrameTimings mTimings = new FrameTimings();
+
+    // The thread waiting, and whether it has been asked to stop waiting
+    private volatile Thread mWaiter;
+    private volatile boolean mWoken;
+
+    /**
+     * This method initializes the scheduler
+     * @param targetFps how many frames per second to aim for while playing
+     * @param pausedFps how many frames per second to draw while paused
+     */
+    public PacedFrameScheduler(int targetFps, int pausedFps){
+        mFrameNanos = NANOS_IN_SECOND / targetFps;
+        mPausedFrameNanos = NANOS_IN_SECOND / pausedFps;
+    }
+
+    @Override
+    public void waitForNextFrame(long frameStartTime, boolean paused){
+        long now = System.nanoTime();
+        long frameNanos = paused ? mPausedFrameNanos : mFrameNanos;
+
+        // Aim at a fixed deadline so small errors don't add up
+        // but start again if we fell more than a frame behind
+        mNextFrameTime += frameNanos;
+        if (mNextFrameTime < now - frameNanos || mNextFrameTime > now + frameNanos){
+            mNextFrameTime = frameStartTime + frameNanos;
+        }
+
+        long remaining = mNextFrameTime - now;
+
+        // Park while we have plenty of time left
+        // unpark from wake, or an interrupt, ends the wait early
+        mWaiter = Thread.currentThread();
+        while (remaining > SPIN_THRESHOLD_NANOS + NANOS_IN_MILLI && !mWoken
+                && !Thread.currentThread().isInterrupted()){
+            LockSupport.parkNanos(this, remaining - SPIN_THRESHOLD_NANOS);
+            remaining = mNextFrameTime - System.nanoTime();
+        }
+        mWaiter = null;
+
+        // Spin for the last moment
+        while (!mWoken && mNextFrameTime - System.nanoTime() > 0){
+            Thread.yield();
+        }
+        mWoken = false;
+
+        long end = System.nanoTime();
+        mTimings.record(now - frameStartTime, end - now);
+    }
+
+    @Override
+    public void wake(){
+        mWoken = true;
+        Thread waiter = mWaiter;
+        if (waiter != null){
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    @Override
+    public FrameTimings getTimings(){ return mTimings; }
+}
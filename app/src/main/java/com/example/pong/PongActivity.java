@@ -1,12 +1,18 @@
 package com.example.pong;
 
 import android.app.Activity;
+import android.util.Log;
 import android.view.Window;
 import android.view.WindowManager;
 import android.os.Bundle;
 import android.graphics.Point;
 import android.view.Display;
 
+import com.example.pong.core.GameSnapshot;
+
+import java.io.File;
+import java.io.IOException;
+
 /**
  * This class sets up the activity for the android game as a whole
  */
@@ -14,6 +20,12 @@ public class PongActivity extends Activity {
 
     private PongGame mPongGame;
 
+    // Where the game is kept between runs of the app
+    private final String SNAPSHOT_FILE = "game.snap";
+    private final String SNAPSHOT_KEY = "snapshot";
+    // Saved by the last pause that stopped the game thread, null if none has yet
+    private byte[] mLastSnapshot;
+
     /**
      * This method creates the initial state of the game
      * @param savedInstanceState current state of game should orientation change.
@@ -21,6 +33,8 @@ public class PongActivity extends Activity {
      */
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        // Time to the first frame counts from here
+        long launchTime = System.nanoTime();
         super.onCreate(savedInstanceState);
         requestWindowFeature(Window.FEATURE_NO_TITLE);
         getWindow().setFlags(
@@ -31,9 +45,39 @@ public class PongActivity extends Activity {
         Point size = new Point();
         display.getSize(size);
         mPongGame = new PongGame(this, size.x, size.y);
+        mPongGame.setLaunchTime(launchTime);
+
+        // Carry on the last game if there is one
+        // The bundle has it after a configuration change,
+        // the file has it after the process was killed
+        byte[] snapshot = null;
+        if (savedInstanceState != null){
+            snapshot = savedInstanceState.getByteArray(SNAPSHOT_KEY);
+        }
+        if (snapshot == null){
+            snapshot = readSnapshotFile();
+        }
+        if (snapshot != null){
+            mPongGame.restoreSnapshot(snapshot);
+        }
+
         setContentView(mPongGame);
     }
 
+    /**
+     * This method keeps the game in the bundle for a configuration change
+     * It uses what the last pause saved, as the game thread may still be running
+     * Without one onCreate falls back to the file
+     * @param outState the bundle Android hands back to onCreate
+     */
+    @Override
+    protected void onSaveInstanceState(Bundle outState){
+        super.onSaveInstanceState(outState);
+        if (mLastSnapshot != null){
+            outState.putByteArray(SNAPSHOT_KEY, mLastSnapshot);
+        }
+    }
+
     /**
      * This method is called when the game is resumed from a pause
      */
@@ -49,7 +93,51 @@ public class PongActivity extends Activity {
     @Override
     protected void onPause(){
         super.onPause();
-        mPongGame.pause();
+
+        // The game thread has parked so the state can't change under us
+        // If it didn't in time the last save is kept rather than one that might be torn
+        if (mPongGame.pause()){
+            mLastSnapshot = mPongGame.saveSnapshot();
+            writeSnapshotFile(mLastSnapshot);
+        }
+    }
+
+    /**
+     * This method lets the game thread finish when the activity goes away
+     */
+    @Override
+    protected void onDestroy(){
+        super.onDestroy();
+        mPongGame.release();
+    }
+
+    /**
+     * This method writes the game to app storage
+     * @param snapshot the snapshot bytes
+     */
+    private void writeSnapshotFile(byte[] snapshot){
+        try {
+            GameSnapshot.writeFile(snapshot, new File(getFilesDir(), SNAPSHOT_FILE));
+        } catch (IOException e){
+            Log.e("Error", "failed to write snapshot", e);
+        }
+    }
+
+    /**
+     * This method reads the game from app storage
+     * @return the snapshot bytes or null if there isn't one
+     */
+    private byte[] readSnapshotFile(){
+        File file = new File(getFilesDir(), SNAPSHOT_FILE);
+        if (!file.exists()){
+            return null;
+        }
+        try {
+            return GameSnapshot.readFile(file);
+        } catch (IOException e){
+            Log.e("Error", "failed to read snapshot", e);
+            return null;
+        }
     }
 
 }
\ No newline at end of file
@@ -6,22 +6,37 @@ import android.content.res.AssetManager;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
-import android.graphics.RectF;
-import android.media.AudioAttributes;
-import android.media.AudioManager;
-import android.media.SoundPool;
-import android.os.Build;
+import android.graphics.Rect;
+import android.os.SystemClock;
 import android.util.Log;
 import android.view.MotionEvent;
 import android.view.SurfaceHolder;
 import android.view.SurfaceView;
 
+import com.example.pong.core.Bat;
+import com.example.pong.core.BatController;
+import com.example.pong.core.FixedPongSimulation;
+import com.example.pong.core.FrameProfile;
+import com.example.pong.core.GameSession;
+import com.example.pong.core.LatencyHistogram;
+import com.example.pong.core.LevelPack;
+import com.example.pong.core.PongSimulation;
+import com.example.pong.core.SceneRenderer;
+import com.example.pong.core.SparkEmitter;
+import com.example.pong.core.TouchEvent;
+import com.example.pong.core.TouchInput;
+import com.example.pong.core.TouchQueue;
+
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * This class contains the macro workings of the pong game
  */
-public class PongGame extends SurfaceView implements Runnable{
+public class PongGame extends SurfaceView implements Runnable, SurfaceHolder.Callback {
 
     // Are we Debugging?
     private final boolean DEBUGGING = true;
@@ -36,8 +51,49 @@ public class PongGame extends SurfaceView implements Runnable{
     // How many frames per second did we get?
     private long mFPS;
 
-    // number of milliseconds in a second
-    private final int MILLIS_IN_SECOND = 1000;
+    // number of nanoseconds in a second
+    private final long NANOS_IN_SECOND = 1000000000L;
+
+    // Fixed timestep engine mode
+    // Physics ticks at the session's tick rate no matter how fast we draw
+    private boolean mFixedTimestep = true;
+    private final int DEFAULT_TICK_RATE = 120;
+    private long mTickNanos = NANOS_IN_SECOND / DEFAULT_TICK_RATE;
+    // Never simulate more than a quarter second in one frame
+    // otherwise a long hitch makes us fall further and further behind
+    private final long MAX_FRAME_NANOS = NANOS_IN_SECOND / 4;
+    private long mAccumulator;
+
+    // Lays out each frame between the last two ticks
+    // and draws it through the canvas renderer
+    private final int BACKGROUND = Color.argb(255, 26, 128, 182);
+    private SceneRenderer mScene = new SceneRenderer(BACKGROUND);
+    private CanvasRenderer mRenderer = new CanvasRenderer();
+
+    // Sparks thrown out by every hit, moved each tick and drawn over the objects
+    private final int MAX_SPARKS = 4096;
+    private SparkEmitter mSparks;
+
+    // Dirty rectangle rendering mode
+    // Only the part of the screen where something moved or changed is drawn again
+    private volatile boolean mDirtyRendering = true;
+    // Set when the whole screen has to be drawn, like the first frame
+    private volatile boolean mFullRedraw = true;
+    // Set when the ball and bat have to be drawn again in their new colours
+    private volatile boolean mColorChanged;
+    // Above this share of the screen drawing everything is no slower
+    private final float FULL_REDRAW_FRACTION = 0.5f;
+    private DirtyRegion mDirtyRegion = new DirtyRegion();
+    // Where the HUD lines are drawn
+    private Rect mHudBounds = new Rect();
+    private Rect mDebugBounds = new Rect();
+    private Rect mProfileBounds = new Rect();
+    // How many pixels the last frame drew
+    private volatile long mPixelsRedrawn;
+
+    // Decides how long to wait between frames
+    // 60 frames per second while playing and 10 while paused
+    private volatile FrameScheduler mScheduler = new PacedFrameScheduler(60, 10);
 
     // Holds screen resolution
     private int mScreenX;
@@ -47,27 +103,99 @@ public class PongGame extends SurfaceView implements Runnable{
     private int mFontSize;
     private int mFontMargin;
 
-    // The game objects
-    private Bat mBat;
-    private Ball mBall;
-    private Obstacle mObs;
-
-    // The current score and lives remaining
-    private int mScore;
-    private int mLives;
-
-    // Thread and two control variables
+    // The game being played, float or fixed point, and its recording
+    // Only changed by the game thread, or while it is stopped
+    private GameSession mSession;
+
+    // Touches go from the UI thread to the game thread through this queue
+    // and are applied at the start of the first tick after they happened
+    private final long NANOS_IN_MILLI = 1000000L;
+    private TouchQueue mTouchQueue = new TouchQueue(256);
+    private TouchInput mTouchInput;
+
+    // How the player wants the bat to move
+    // Only touched by the game thread, handed to the simulation at the start of each tick
+    private int mBatInput = Bat.STOPPED;
+
+    // Demo mode, the computer plays the bat and the game never waits for a touch
+    private volatile boolean mAutoplay;
+    private BatController mBatController = new BatController();
+
+    // How long touches waited between happening and reaching a tick
+    private long mInputLatencyTotal;
+    private long mInputLatencyCount;
+    private volatile long mInputLatencyMax;
+    private volatile float mInputLatency;
+
+    // Recording is started and stopped on the game thread at the start of a frame
+    private volatile File mPendingRecording;
+    private volatile boolean mStopRecording;
+
+    // The HUD lines and the values they were last built from
+    // so they are only rebuilt when something changes
+    private HudText mScoreText = new HudText(64);
+    private HudText mFpsText = new HudText(48);
+    private int mHudScore = -1;
+    private int mHudLives = -1;
+    private long mHudFPS = -1;
+    private long mHudPixels = -1;
+    private final int DEBUG_TEXT_TOP = 150;
+    // The HUD lines already drawn into bitmaps
+    // copied to the screen every frame and only drawn again when the text changes
+    private Paint mHudPaint;
+    private HudLayer mScoreLayer;
+    private HudLayer mDebugLayer;
+
+    // How long each phase of a frame takes, shown under the FPS
+    private FrameProfile mProfile = new FrameProfile();
+    private HudText[] mProfileText = new HudText[FrameProfile.PHASE_COUNT];
+    private HudLayer mProfileLayer;
+    // The debug lines are only rebuilt a couple of times a second, together,
+    // the strip they cover is full width so drawing it every frame would make
+    // every frame a full redraw
+    private final long DEBUG_REFRESH_NANOS = NANOS_IN_SECOND / 2;
+    private long mDebugShownTime;
+    // Pixels drawn and frames since the debug line was last rebuilt, it shows the average
+    private long mPixelsSinceShown;
+    private long mFramesSinceShown;
+    // Where to write the profile, picked up by the game thread
+    private volatile File mPendingProfileDump;
+
+    // Sounds and levels are loaded in the background so the first frame never waits for them
+    private AssetLoader mAssets = new AssetLoader();
+
+    // How long from launch to the first frame on screen, 0 until it is there
+    private long mLaunchTime = System.nanoTime();
+    private volatile long mFirstFrameNanos;
+
+    // The levels, mapped straight from the apk, null until loaded or if they could not be read
+    private AssetLoader.Asset<LevelPack> mLevels;
+    private static final String LEVELS_ASSET = "levels.pack";
+    // Which level to switch to, picked up by the game thread
+    private volatile int mPendingLevel = -1;
+
+    // One game thread for the life of the view, parked whenever it can't draw
+    // It plays while the activity is resumed and there is a surface to draw on
     private Thread mGameThread = null;
-    // Volatile variable can be accessed from inside and outside the thread
-    private volatile boolean mPlaying;
+    private volatile boolean mResumed;
+    private volatile boolean mHasSurface;
+    private volatile boolean mReleased;
+    // Set by the game thread while it is parked, guarded by mLoopLock
+    private final Object mLoopLock = new Object();
+    private boolean mIdle = true;
+    // The longest pause or surfaceDestroyed waits for the game thread to park
+    private final long STOP_TIMEOUT_MILLIS = 250;
+
+    // How long the last pause waited for the game thread
+    // and how long the last resume took to get a frame on screen
+    private volatile long mPauseNanos;
+    private volatile long mResumeNanos;
+    private volatile long mResumeStartTime;
+    // Only changed by the game thread, or while it is stopped
     private boolean mPaused = true;
 
-    // All of these are for playing sounds
-    private SoundPool mSP;
-    private int mBeepID = -1;
-    private int mBoopID = -1;
-    private int mBopID = -1;
-    private int mMissID = -1;
+    // Plays the sounds without holding up the game thread
+    private AudioPlayer mAudio;
 
     /**
      *  This is the constructor of the game state and initializes
@@ -91,306 +219,969 @@ public class PongGame extends SurfaceView implements Runnable{
         // Margin is 1.5% of screen width
         mFontMargin = mScreenX / 75;
 
+        // Leave room under each line of text for the descenders
+        mHudBounds.set(0, 0, mScreenX, mFontSize * 3 / 2);
+        mDebugBounds.set(0, DEBUG_TEXT_TOP, mScreenX, DEBUG_TEXT_TOP + (mFontSize / 2) * 3 / 2);
+        mScoreLayer = new HudLayer(mHudBounds);
+        mDebugLayer = new HudLayer(mDebugBounds);
+        mProfileBounds.set(0, mDebugBounds.bottom, mScreenX,
+                mDebugBounds.bottom + mDebugBounds.height() * FrameProfile.PHASE_COUNT);
+        mProfileLayer = new HudLayer(mProfileBounds);
+        for (int i = 0; i < mProfileText.length; i++){
+            mProfileText[i] = new HudText(96);
+        }
+        mRenderer.setLayer(addLayer(mHudBounds), mScoreLayer);
+        if (DEBUGGING){
+            mRenderer.setLayer(addLayer(mDebugBounds), mDebugLayer);
+            mRenderer.setLayer(addLayer(mProfileBounds), mProfileLayer);
+        }
+
         // Initialize the objects ready for drawing with
         // getHolder: method of SurfaceView
         mOurHolder = getHolder();
+        mOurHolder.addCallback(this);
         mPaint = new Paint();
 
         // Choose a color to paint with
         mPaint.setColor(Color.argb(255,255,255,255));
 
+        // The HUD text keeps its own paint as the others change colour
+        mHudPaint = new Paint();
+        mHudPaint.setColor(Color.argb(255,255,255,255));
+
         // Initialize random color variables
         mBatPaint = new Paint();
         mBallPaint = new Paint();
 
-        // Initialize the bat and ball
-        mBall = new Ball(mScreenX);
-        mBat = new Bat(mScreenX, mScreenY);
-        mObs = new Obstacle(mScreenX, mScreenY,
-                mScreenX / 2, mScreenY / 4, mScreenX / 3);
-
-        // Prepare the SoundPool instance
-        // Depending on version of Android
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP){
-            AudioAttributes audioAttributes = new AudioAttributes.Builder().
-                    setUsage(AudioAttributes.USAGE_MEDIA)
-                    .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
-                    .build();
-            mSP = new SoundPool.Builder()
-                    .setMaxStreams(5)
-                    .setAudioAttributes(audioAttributes)
-                    .build();
-        } else {
-            mSP = new SoundPool(5, AudioManager.STREAM_MUSIC, 0);
-        }
+        // Initialize the game with the bat and ball
+        mSparks = new SparkEmitter(mScreenX, mScreenY, MAX_SPARKS);
+        mScene.setParticles(mSparks.getParticles());
+        mSession = new GameSession(mScreenX, mScreenY, DEFAULT_TICK_RATE, System.nanoTime());
+        mSession.setProfile(mProfile);
+        mSession.setCollisionListener(mSparks);
+        mTouchInput = new TouchInput(mScreenX, 10);
 
-        // Open each of the sound files in turn and load into RAM
-        // Try-catch handles when this fails
-        try{
-            AssetManager assetManager = context.getAssets();
-            AssetFileDescriptor descriptor;
-            descriptor = assetManager.openFd("boop.ogg");
-            mBoopID = mSP.load(descriptor, 0);
-        } catch (IOException e){
-            Log.d("Error", "failed to load sound files");
-        }
+        // Sounds are loaded in the background and played on the audio thread
+        final AssetManager assets = context.getAssets();
+        mAudio = new AudioPlayer(assets, mAssets);
 
+        // Mapping only reads the header, levels are decoded as they are played
+        mLevels = mAssets.load("levels", () -> openLevels(assets), null);
 
-        // Start game
-        startNewGame();
+        // Start drawing from where the game starts
+        saveState();
 
     }
 
     /**
-     * This method sets the runtime behaviour of the game
+     * This method is the game thread, it plays whenever it can and parks when it can't
      */
     @Override
     public void run(){
-        // mPlaying gives finer control
-        // than just relying on calls to run
+        while (waitUntilPlaying()){
+            play();
+        }
+    }
 
-        // mPlaying must be true AND thread running for main loop execution
-        while (mPlaying){
+    /**
+     * This method parks the game thread until the game is resumed and has a surface
+     * @return false if the view has been released and the thread should finish
+     */
+    private boolean waitUntilPlaying(){
+        synchronized (mLoopLock){
+            mIdle = true;
+            mLoopLock.notifyAll();
+        }
+        while (true){
+            // Decided under the lock so pause never sees the thread idle as it starts again
+            synchronized (mLoopLock){
+                if (mReleased){
+                    return false;
+                }
+                if (canPlay()){
+                    mIdle = false;
+                    return true;
+                }
+            }
+            LockSupport.park(this);
+        }
+    }
+
+    private boolean canPlay(){
+        return mResumed && mHasSurface && !mReleased;
+    }
+
+    /**
+     * This method runs frames until the game is paused or the surface goes away
+     */
+    private void play(){
+        // Where the last frame started
+        long lastFrameTime = System.nanoTime();
+        mAccumulator = 0;
+
+        while (canPlay()){
             // What time is it at start
-            long frameStartTime = System.currentTimeMillis();
+            long frameStartTime = System.nanoTime();
+            // The same moment on the clock touch events use
+            long frameStartMillis = SystemClock.uptimeMillis();
+
+            // How much time passed since the last frame started
+            long elapsed = frameStartTime - lastFrameTime;
+            lastFrameTime = frameStartTime;
+
+            // Start or stop recording between ticks
+            handleRecordingRequests();
+            handleProfileRequests();
+            handleLevelRequests();
+
+            // How far between the last two ticks are we drawing
+            float alpha = 1;
+
+            // A fixed point game only knows how to take whole ticks
+            if (mFixedTimestep || mSession.isFixedPoint()){
+                if (elapsed > MAX_FRAME_NANOS){
+                    elapsed = MAX_FRAME_NANOS;
+                }
+                mAccumulator += elapsed;
+
+                // Run as many whole ticks as the time owed allows
+                while (mAccumulator >= mTickNanos){
+                    // Touches up to the moment this tick stands for
+                    // so catching up ticks see them in the right tick
+                    applyInput(frameStartMillis - (mAccumulator - mTickNanos) / NANOS_IN_MILLI);
+                    applyAutoplay();
+
+                    if (!mPaused){
+                        saveState();
+                        stepSimulation(1f / mSession.getTickRate());
+                    }
+                    mAccumulator -= mTickNanos;
+                }
+
+                alpha = (float) mAccumulator / mTickNanos;
+            } else {
+                applyInput(frameStartMillis);
+                applyAutoplay();
 
-            // Call update method if game is not paused
-            if (!mPaused){
-                update();
-                // Now bat and ball are in new positions, detect collisions
-                detectCollisions();
+                if (!mPaused && mFPS > 0){
+                    // Move the game on by the length of the last frame
+                    // if game is not paused
+                    stepSimulation(1f / mFPS);
+                }
             }
 
             // Movement and collisions have been handled so draw scene
-            draw();
+            draw(alpha);
+
+            long resumeStartTime = mResumeStartTime;
+            if (resumeStartTime != 0){
+                mResumeStartTime = 0;
+                mResumeNanos = System.nanoTime() - resumeStartTime;
+                Log.d("Debug", "resumed in " + mResumeNanos / NANOS_IN_MILLI + " ms");
+            }
+
+            mProfile.record(FrameProfile.FRAME, System.nanoTime() - frameStartTime);
+
+            // Wait until it is time for the next frame
+            mScheduler.waitForNextFrame(frameStartTime, mPaused);
 
             // How long did frame / loop take?
-            long timeThisFrame = System.currentTimeMillis() - frameStartTime;
+            long timeThisFrame = System.nanoTime() - frameStartTime;
 
-            // Make sure timeThisFrame is at least 1ms
+            // Make sure timeThisFrame is at least 1ns
             // Accidentally dividing by 0 crashes things
 
             if (timeThisFrame > 0){
                 // Store the current frame rate in mFPS
-                mFPS = MILLIS_IN_SECOND / timeThisFrame;
+                mFPS = NANOS_IN_SECOND / timeThisFrame;
             }
         }
     }
 
     /**
-     * This method controls what happens each time the game screen is touched
-     * @param motionEvent State of the player touch input
-     * @return whether the event has been processed, true if handled, false if not
+     * This method applies the touches that happened up to a moment in time
+     * Later touches stay queued for a later tick
+     * @param upToMillis the latest event time to apply, on the SystemClock.uptimeMillis clock
      */
-    @Override
-    public boolean onTouchEvent(MotionEvent motionEvent){
-        // This switch block replaces if statement from SubHunter
-        switch(motionEvent.getAction() & MotionEvent.ACTION_MASK){
-            // The player has put their finger on teh screen
-            case MotionEvent.ACTION_DOWN:
-                mPaused = false;
-
-                // Where did the touch happen
-                if (motionEvent.getX() > mScreenX / 2){
-                    // On right hand side
-                    mBat.setMovementState(mBat.RIGHT);
-                } else {
-                    // On the left hand side
-                    mBat.setMovementState(mBat.LEFT);
-                }
-                break;
+    private void applyInput(long upToMillis){
+        TouchEvent event = mTouchQueue.peek();
+        if (event == null){
+            return;
+        }
 
-            // The player has lifted their finger off the screen
-            // Multiple fingers can cause bugs
-            case MotionEvent.ACTION_UP:
-                // Stop the bat moving
-                mBat.setMovementState(mBat.STOPPED);
-                break;
+        long now = SystemClock.uptimeMillis();
+        while (event != null && event.eventTime <= upToMillis){
+            mTouchInput.apply(event);
+
+            long latency = now - event.eventTime;
+            mInputLatencyTotal += latency;
+            mInputLatencyCount++;
+            mInputLatency = (float) mInputLatencyTotal / mInputLatencyCount;
+            if (latency > mInputLatencyMax){
+                mInputLatencyMax = latency;
+            }
+
+            mTouchQueue.remove();
+            event = mTouchQueue.peek();
+        }
+
+        // A new finger on the screen starts the game
+        if (mTouchInput.takeTouched()){
+            mPaused = false;
+        }
+        mBatInput = mTouchInput.getMovement();
+    }
+
+    /**
+     * This method picks the bat movement for a tick in demo mode
+     */
+    private void applyAutoplay(){
+        if (mAutoplay){
+            mPaused = false;
+            mBatInput = mSession.isFixedPoint()
+                    ? mBatController.chooseMovement(mSession.getFixedSimulation())
+                    : mBatController.chooseMovement(mSession.getSimulation());
         }
+    }
 
+    /**
+     * This method switches demo mode on and off
+     * @param autoplay true for the computer to play the bat
+     */
+    public void setAutoplay(boolean autoplay){
+        mAutoplay = autoplay;
+    }
+
+    /**
+     * This method sets when the app was launched, so the time to the first frame counts from there
+     * Without it the time counts from when the game was made
+     * @param nanos the launch time on the System.nanoTime clock
+     */
+    public void setLaunchTime(long nanos){
+        mLaunchTime = nanos;
+    }
+
+    /**
+     * @return how long from launch until the first frame was on screen, 0 until it is
+     */
+    public long getTimeToFirstFrameMillis(){
+        return mFirstFrameNanos / NANOS_IN_MILLI;
+    }
+
+    /**
+     * @return the average time in milliseconds between a touch and the tick that used it
+     */
+    public float getInputLatencyMillis(){
+        return mInputLatency;
+    }
+
+    /**
+     * @return the longest time in milliseconds between a touch and the tick that used it
+     */
+    public long getMaxInputLatencyMillis(){
+        return mInputLatencyMax;
+    }
+
+    /**
+     * This method moves the game on by one tick
+     * @param dt how many seconds of game time to move forward
+     */
+    private void stepSimulation(float dt){
+        try {
+            mSession.setBatMovement(mBatInput);
+        } catch (IOException e){
+            Log.e("Error", "failed to write recording", e);
+        }
+
+        handleEvents(mSession.step(dt));
+        mSparks.getParticles().update(dt);
+    }
+
+    /**
+     * This method saves the whole game so it can be carried on later
+     * Call it while the game thread is stopped, after pause
+     * @return the snapshot bytes, of the fixed point game in fixed point mode
+     */
+    public byte[] saveSnapshot(){
+        return mSession.save();
+    }
+
+    /**
+     * This method carries on a game saved by saveSnapshot
+     * Call it while the game thread is stopped, before resume
+     * The game stays paused until the player touches the screen
+     * A fixed point snapshot switches to fixed point mode, a float one switches back
+     * @param snapshot the snapshot bytes
+     * @return false if the snapshot could not be used or a recording is running, the current game is kept
+     */
+    public boolean restoreSnapshot(byte[] snapshot){
+        try {
+            // A replay could not know about it, so it is refused while recording
+            if (!mSession.restore(snapshot)){
+                return false;
+            }
+        } catch (IOException e){
+            Log.e("Error", "failed to read snapshot", e);
+            return false;
+        }
+
+        // A fixed point game ticks at the rate it was saved with
+        mTickNanos = NANOS_IN_SECOND / mSession.getTickRate();
+        if (mSession.isFixedPoint()){
+            mFixedTimestep = true;
+        }
+        mPaused = true;
+        changeColor();
+        saveState();
         return true;
     }
 
     /**
-     * This method controls what happens each frame / loop in the game
+     * This method asks for the game to be recorded from a fresh start
+     * The current game is thrown away when recording starts
+     * @param file where to write the recording
      */
-    private void update(){
-        // update bat and ball
-        mBall.update(mFPS);
-        mBat.update(mFPS);
-        mObs.update(mFPS);
+    public void startRecording(File file){
+        mPendingRecording = file;
     }
 
     /**
-     * This method controls the randomization of colours in the game
+     * This method asks for the current recording to be finished
      */
-    private void changeColor(){
-        final int MAX_RGB = 256;
-        final int MIN_RGB = 0;
+    public void stopRecording(){
+        mStopRecording = true;
+    }
+
+    /**
+     * This method starts and stops recording on the game thread
+     */
+    private void handleRecordingRequests(){
+        File file = mPendingRecording;
+
+        // Starting a new recording finishes the old one first
+        if (mStopRecording || (file != null && mSession.isRecording())){
+            mStopRecording = false;
+            try {
+                mSession.stopRecording();
+            } catch (IOException e){
+                Log.e("Error", "failed to finish recording", e);
+            }
+        }
+
+        if (file != null){
+            mPendingRecording = null;
 
-        mBallPaint.setColor(Color.argb(255, (int)(Math.random() * (MAX_RGB - MIN_RGB + 1 ) + MIN_RGB),
-                (int)(Math.random() * (MAX_RGB - MIN_RGB + 1 ) + MIN_RGB),
-                (int)(Math.random() * (MAX_RGB - MIN_RGB + 1 ) + MIN_RGB) ));
+            // Replays need fixed ticks and a game that starts from its seed
+            mFixedTimestep = true;
+            mTickNanos = NANOS_IN_SECOND / mSession.getTickRate();
+            try {
+                mSession.startRecording(file, System.nanoTime());
+            } catch (IOException e){
+                Log.e("Error", "failed to start recording", e);
+            }
+            saveState();
+        }
+    }
 
-        mBatPaint.setColor(Color.argb(255, (int)(Math.random() * (MAX_RGB - MIN_RGB + 1 ) + MIN_RGB),
-                (int)(Math.random() * (MAX_RGB - MIN_RGB + 1 ) + MIN_RGB),
-                (int)(Math.random() * (MAX_RGB - MIN_RGB + 1 ) + MIN_RGB) ));
+    /**
+     * This method changes how the game loop is paced
+     * @param scheduler the scheduler to use from the next frame
+     */
+    public void setFrameScheduler(FrameScheduler scheduler){
+        mScheduler = scheduler;
+    }
 
+    /**
+     * This method returns how long recent frames took
+     * @return reference to the timings of the current scheduler
+     */
+    public FrameTimings getFrameTimings(){
+        return mScheduler.getTimings();
+    }
+
+    /**
+     * This method adds extra balls and obstacles for chaos mode
+     * Only the float game has more than one ball, so it does nothing in fixed point mode
+     * Call it while the game thread is stopped, before resume
+     * @param balls how many balls to add
+     * @param obstacles how many obstacles to add
+     * @return false if nothing was added, in fixed point mode or while recording
+     */
+    public boolean startChaosMode(int balls, int obstacles){
+        if (!mSession.addChaos(balls, obstacles)){
+            return false;
+        }
+        saveState();
+        return true;
+    }
+
+    /**
+     * This method switches between the fixed timestep and variable timestep engine
+     * Recordings need the fixed ticks they were started with, so it is refused while recording
+     * Call it while the game thread is stopped, before resume
+     * @param fixed true to tick physics at a fixed rate, false to tick once per frame
+     * @param tickRate how many physics ticks per second in fixed mode
+     * @return false while recording, nothing is changed
+     */
+    public boolean setFixedTimestep(boolean fixed, int tickRate){
+        // A fixed point game's speeds are per tick so it starts again at a new rate
+        FixedPongSimulation fixedSim = mSession.getFixedSimulation();
+        if (!mSession.setTickRate(tickRate)){
+            return false;
+        }
+        mFixedTimestep = fixed;
+        mTickNanos = NANOS_IN_SECOND / tickRate;
+        if (mSession.getFixedSimulation() != fixedSim){
+            saveState();
+        }
+        return true;
     }
 
     /**
-     * This method controls what happens when the ball collides with an object
-     * @param obj Rect object the ball collided with
+     * This method switches between the float game and the fixed point integer game
+     * The fixed point game plays the same rules in screen independent units, so the
+     * same seed and inputs give the same game on every device, and recordings made
+     * in this mode replay bit for bit. It always ticks at a fixed rate and has one ball.
+     * Either way a new game is started.
+     * Call it while the game thread is stopped, before resume
+     * @param fixedPoint true to play the fixed point game
+     * @return false while recording, the current game is kept
      */
-    private void collisionAction(RectF obj){
-        // Realistic-ish bounce
-        mBall.batBounce(obj);
-        mBall.increaseVelocity();
-        mScore++;
+    public boolean setFixedPoint(boolean fixedPoint){
+        if (!mSession.setFixedPoint(fixedPoint, System.nanoTime())){
+            return false;
+        }
+        mPaused = true;
         changeColor();
-        mSP.play(mBeepID, 1, 1, 0, 0, 1);
+        saveState();
+        return true;
     }
 
     /**
-     * This method detects if the ball collided with another object or wall
+     * This method switches between drawing only what changed and drawing the whole screen
+     * @param dirtyRendering true to draw only the changed part of the screen each frame
      */
-    private void detectCollisions(){
-        // Has bat hit ball?
+    public void setDirtyRendering(boolean dirtyRendering){
+        mDirtyRendering = dirtyRendering;
+        mFullRedraw = true;
+    }
 
-        if (RectF.intersects(mObs.getRect(), mBall.getRect())){
+    /**
+     * @return how many pixels the last frame drew, 0 if nothing changed
+     */
+    public long getPixelsRedrawn(){
+        return mPixelsRedrawn;
+    }
 
-            collisionAction(mObs.getRect());
+    /**
+     * This method controls what happens each time the game screen is touched
+     * @param motionEvent State of the player touch input
+     * @return whether the event has been processed, true if handled, false if not
+     */
+    @Override
+    public boolean onTouchEvent(MotionEvent motionEvent){
+        // Only queue the touch here, the game thread decides what it does
+        long time = motionEvent.getEventTime();
+        int index = motionEvent.getActionIndex();
+
+        switch(motionEvent.getActionMasked()){
+            // A finger has gone down on the screen
+            case MotionEvent.ACTION_DOWN:
+            case MotionEvent.ACTION_POINTER_DOWN:
+                mTouchQueue.offer(TouchEvent.DOWN, motionEvent.getPointerId(index),
+                        motionEvent.getX(index), motionEvent.getY(index), time);
+                break;
+
+            // One event carries every finger that is down
+            case MotionEvent.ACTION_MOVE:
+                for (int i = 0; i < motionEvent.getPointerCount(); i++){
+                    mTouchQueue.offer(TouchEvent.MOVE, motionEvent.getPointerId(i),
+                            motionEvent.getX(i), motionEvent.getY(i), time);
+                }
+                break;
+
+            // A finger has been lifted off the screen
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_POINTER_UP:
+                mTouchQueue.offer(TouchEvent.UP, motionEvent.getPointerId(index),
+                        motionEvent.getX(index), motionEvent.getY(index), time);
+                break;
+
+            case MotionEvent.ACTION_CANCEL:
+                mTouchQueue.offer(TouchEvent.CANCEL, 0, 0, 0, time);
+                break;
         }
 
+        return true;
+    }
 
-        if (RectF.intersects(mBat.getRect(), mBall.getRect())){
-            Log.d("Debug", "hit object");
-            collisionAction(mBat.getRect());
+    /**
+     * This method remembers where the objects were before the next tick
+     * so the frame can be drawn in between the two
+     */
+    private void saveState(){
+        if (mSession.isFixedPoint()){
+            mScene.saveState(mSession.getFixedSimulation(), mScreenX, mScreenY);
+        } else {
+            mScene.saveState(mSession.getSimulation());
         }
+    }
 
+    /**
+     * This method adds a HUD layer to the scene
+     * @param bounds the area of the screen the layer covers
+     * @return the layer number
+     */
+    private int addLayer(Rect bounds){
+        return mScene.addLayer(bounds.left, bounds.top, bounds.right, bounds.bottom);
+    }
 
-        // Has ball hit edge of screen?
+    /**
+     * This method picks up the colours the simulation chose for the ball and bat
+     */
+    private void changeColor(){
+        mBallPaint.setColor(mSession.getBallColor());
+        mBatPaint.setColor(mSession.getBatColor());
 
-        // Bottom
-        if (mBall.getRect().bottom > mScreenY){
-            mBall.reverseYVelocity();
-            mLives--;
-            changeColor();
-            mSP.play(mBoopID, 1, 1, 0, 0, 1);
-            if (mLives == 0) {
-                mPaused = true;
-                startNewGame();
-            }
+        // Objects that did not move still need their new colour
+        mColorChanged = true;
+    }
+
+    /**
+     * This method gives the player feedback for what happened in a step
+     * @param events the PongSimulation.EVENT_ flags returned by step
+     */
+    private void handleEvents(int events){
+        if (events == 0){
+            return;
         }
 
-        // Top
-        if (mBall.getRect().top < 0){
-            mBall.reverseYVelocity();
-            mSP.play(mBoopID, 1, 1, 0, 0, 1);
-            changeColor();
+        // Every collision changes the colours
+        changeColor();
+
+        // Every hit in the tick shares one sound of each kind
+        int sounds = 0;
+        if ((events & (PongSimulation.EVENT_HIT_OBSTACLE | PongSimulation.EVENT_HIT_BAT)) != 0){
+            if ((events & PongSimulation.EVENT_HIT_BAT) != 0){
+                Log.d("Debug", "hit object");
+            }
+            sounds |= AudioPlayer.SOUND_BEEP;
         }
 
-        // Left
-        if (mBall.getRect().left < 0){
-            mBall.reverseXVelocity();
-            mSP.play(mBoopID, 1, 1, 0, 0, 1);
-            changeColor();
+        if ((events & (PongSimulation.EVENT_HIT_WALL | PongSimulation.EVENT_MISS)) != 0){
+            sounds |= AudioPlayer.SOUND_BOOP;
         }
+        mAudio.post(sounds);
 
-        // Right
-        if (mBall.getRect().right > mScreenX){
-            mBall.reverseXVelocity();
-            mSP.play(mBoopID, 1, 1, 0, 0, 1);
-            changeColor();
+        if ((events & PongSimulation.EVENT_GAME_OVER) != 0){
+            // The simulation has already started a new game
+            mPaused = true;
+            // Don't blend from where the objects were in the last game
+            saveState();
         }
     }
 
     /**
      * This method controls what happens when the player pauses the game
+     * The game thread is asked to park and waited for, but never for long
+     * @return true if the game thread parked in time, so the game can't change until resume
      */
-    public void pause(){
-        // Set playing to false,
-        // Stopping thread isn't always instant
-        mPlaying = false;
+    public boolean pause(){
+        long start = System.nanoTime();
+        synchronized (mLoopLock){
+            mResumed = false;
+        }
+        mAudio.stop();
         mBallPaint = mPaint;
         mBallPaint = mPaint;
-        try{
-            // Stop thread
-            mGameThread.join();
-        } catch (InterruptedException e){
-            Log.e("Error: ", "joining thread");
+
+        boolean stopped = waitForIdle();
+        mPauseNanos = System.nanoTime() - start;
+        if (!stopped){
+            Log.e("Error", "game thread did not park within " + STOP_TIMEOUT_MILLIS + " ms");
         }
+        return stopped;
     }
 
     /**
      * This method controls what happens when the game is started or restarted
+     * The game thread is made the first time and unparked after that
      */
     public void resume(){
-
-        mPlaying = true;
+        mResumeStartTime = System.nanoTime();
         mBallPaint = mPaint;
         mBatPaint = mPaint;
-        // Initialize the instance of Thread
-        mGameThread = new Thread(this);
-        // Start the Thread
-        mGameThread.start();
+        // The surface may be new so nothing on it can be kept
+        mFullRedraw = true;
+        synchronized (mLoopLock){
+            mResumed = true;
+        }
+        if (mGameThread == null){
+            mGameThread = new Thread(this, "game");
+            mGameThread.start();
+        } else {
+            LockSupport.unpark(mGameThread);
+        }
+        mAudio.start();
+    }
+
+    /**
+     * This method lets the game thread finish, call it when the activity is destroyed
+     */
+    public void release(){
+        synchronized (mLoopLock){
+            mReleased = true;
+        }
+        wakeGameThread();
+        mAudio.stop();
+    }
+
+    @Override
+    public void surfaceCreated(SurfaceHolder holder){
+        synchronized (mLoopLock){
+            mHasSurface = true;
+        }
+        mFullRedraw = true;
+        wakeGameThread();
+    }
+
+    @Override
+    public void surfaceChanged(SurfaceHolder holder, int format, int width, int height){
+        // Whatever was on the surface before is gone
+        mFullRedraw = true;
+    }
+
+    @Override
+    public void surfaceDestroyed(SurfaceHolder holder){
+        synchronized (mLoopLock){
+            mHasSurface = false;
+        }
+        // The surface must not be drawn on once this returns
+        if (!waitForIdle()){
+            Log.e("Error", "game thread did not park before the surface went away");
+        }
     }
 
     /**
-     * This method resets the game state to the initial state
+     * This method gets the game thread's attention, whether it is parked or waiting for a frame
      */
-    private void startNewGame(){
-        // Put the ball back to the starting position
-        mBall.reset(mScreenX, mScreenY);
-        mObs.reset();
+    private void wakeGameThread(){
+        Thread thread = mGameThread;
+        if (thread != null){
+            LockSupport.unpark(thread);
+        }
+        mScheduler.wake();
+    }
 
-        // Reset the score and the player's chances
-        mScore = 0;
-        mLives = 3;
+    /**
+     * This method waits a bounded time for the game thread to park
+     * @return true if it is parked, or was never started
+     */
+    private boolean waitForIdle(){
+        wakeGameThread();
+        long deadline = System.nanoTime() + STOP_TIMEOUT_MILLIS * NANOS_IN_MILLI;
+        synchronized (mLoopLock){
+            long remaining;
+            while (!mIdle && (remaining = deadline - System.nanoTime()) > 0){
+                try {
+                    mLoopLock.wait(Math.max(1, remaining / NANOS_IN_MILLI));
+                } catch (InterruptedException e){
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            return mIdle;
+        }
+    }
+
+    /**
+     * @return how long the last pause waited for the game thread to park, in milliseconds
+     */
+    public long getPauseMillis(){
+        return mPauseNanos / NANOS_IN_MILLI;
+    }
+
+    /**
+     * @return how long the last resume took to get a frame drawn, in milliseconds
+     */
+    public long getResumeMillis(){
+        return mResumeNanos / NANOS_IN_MILLI;
     }
 
     /**
      * This method draws all the objects and information to the game screen
+     * In dirty rendering mode only the area where something changed is drawn
+     * @param alpha how far between the previous and current tick to draw, 0 to 1
      */
-    private void draw(){
+    private void draw(float alpha){
         if (mOurHolder.getSurface().isValid()){
-            // lock canvas ready to draw
-            mCanvas = mOurHolder.lockCanvas();
+            // Work out where everything goes before locking
+            // so we know how much of the screen to lock
+            if (mSession.isFixedPoint()){
+                mScene.layout(mSession.getFixedSimulation(), mScreenX, mScreenY, alpha);
+            } else {
+                mScene.layout(mSession.getSimulation(), alpha);
+            }
+            boolean hudChanged = updateHudText();
+            boolean debugChanged = false;
+            boolean profileChanged = false;
+            if (DEBUGGING){
+                long now = System.nanoTime();
+                if (now - mDebugShownTime >= DEBUG_REFRESH_NANOS){
+                    mDebugShownTime = now;
+                    debugChanged = updateDebuggingText();
+                    profileChanged = updateProfileText();
+                }
+            }
 
-            // Fill screen with solid color
-            mCanvas.drawColor(Color.argb(255, 26, 128, 182));
+            mDirtyRegion.begin();
+            for (int i = 0; i < mScene.getRectCount(); i++){
+                mDirtyRegion.add(mScene.getRect(i));
+            }
+            mDirtyRegion.add(mSparks.getParticles().getBounds());
+            if (mColorChanged){
+                // The balls and then the bat
+                mColorChanged = false;
+                for (int i = 0; i <= mScene.getBallCount(); i++){
+                    mDirtyRegion.invalidate(mScene.getRect(i));
+                }
+            }
+            if (hudChanged){
+                mDirtyRegion.invalidate(mHudBounds);
+            }
+            if (debugChanged){
+                mDirtyRegion.invalidate(mDebugBounds);
+            }
+            if (profileChanged){
+                mDirtyRegion.invalidate(mProfileBounds);
+            }
+            Rect dirty = mDirtyRegion.end();
+            if (!dirty.intersect(0, 0, mScreenX, mScreenY)){
+                dirty.setEmpty();
+            }
 
-            // Draw the bat and ball
-            mCanvas.drawRect(mBall.getRect(), mBallPaint);
-            mCanvas.drawRect(mBat.getRect(), mBatPaint);
-            mCanvas.drawRect(mObs.getRect(), mPaint);
+            long screenPixels = (long) mScreenX * mScreenY;
+            boolean full = !mDirtyRendering
+                    || (long) dirty.width() * dirty.height() > screenPixels * FULL_REDRAW_FRACTION;
+            if (mFullRedraw){
+                mFullRedraw = false;
+                full = true;
+            }
 
-            // Choose the font size
-            mPaint.setTextSize(mFontSize);
+            if (!full && dirty.isEmpty()){
+                // Nothing moved so the screen is already right
+                mPixelsRedrawn = 0;
+                mFramesSinceShown++;
+                return;
+            }
 
-            // Draw the HUD
-            mCanvas.drawText("Score: " + mScore + "    Lives: " + mLives,
-                    mFontMargin, mFontSize, mPaint);
+            long lockTime = System.nanoTime();
+            if (full){
+                // lock canvas ready to draw
+                mCanvas = mOurHolder.lockCanvas();
+            } else {
+                // Only what is inside dirty is drawn
+                // The surface may grow dirty if it cannot keep the rest
+                mCanvas = mOurHolder.lockCanvas(dirty);
+            }
+            long drawTime = System.nanoTime();
+            mProfile.record(FrameProfile.LOCK, drawTime - lockTime);
 
-            if (DEBUGGING){
-                printDebuggingText();
+            if (mCanvas == null){
+                // Try again with the whole screen next frame
+                mFullRedraw = true;
+                return;
             }
+            mPixelsRedrawn = full ? screenPixels : (long) dirty.width() * dirty.height();
+            mPixelsSinceShown += mPixelsRedrawn;
+            mFramesSinceShown++;
+
+            // Draw the background, the balls, bat and obstacles, then the HUD
+            // anything outside the locked area is clipped
+            mRenderer.setCanvas(mCanvas);
+            mScene.draw(mRenderer, mBallPaint.getColor(), mBatPaint.getColor(), mPaint.getColor());
+            mRenderer.setCanvas(null);
+            long unlockTime = System.nanoTime();
+            mProfile.record(FrameProfile.DRAW, unlockTime - drawTime);
 
             // Display the drawing on screen
 
             // unlockCanvasAndPost is a method of SurfaceView
             mOurHolder.unlockCanvasAndPost(mCanvas);
+            long postedTime = System.nanoTime();
+            mProfile.record(FrameProfile.UNLOCK, postedTime - unlockTime);
+
+            if (mFirstFrameNanos == 0){
+                mFirstFrameNanos = postedTime - mLaunchTime;
+                Log.i("Startup", "first frame after " + mFirstFrameNanos / NANOS_IN_MILLI + " ms"
+                        + ", sounds " + (mAudio.isLoaded() ? "ready" : "loading")
+                        + ", levels " + (mLevels.isReady() ? "ready" : "loading"));
+            }
         }
     }
 
     /**
-     * This method prints the debugging text to the screen
+     * This method rebuilds the score line and its layer if the score or lives changed
+     * @return true if the line changed and has to be drawn again
      */
-    public void printDebuggingText(){
+    private boolean updateHudText(){
+        int score = mSession.getScore();
+        int lives = mSession.getLives();
+        if (score == mHudScore && lives == mHudLives){
+            return false;
+        }
+        mHudScore = score;
+        mHudLives = lives;
+        mScoreText.clear().append("Score: ").append(score)
+                .append("    Lives: ").append(lives);
+
+        // Choose the font size
+        mHudPaint.setTextSize(mFontSize);
+        mScoreLayer.render(mScoreText, mFontMargin, mFontSize, mHudPaint);
+        return true;
+    }
+
+    /**
+     * This method rebuilds the debugging line and its layer if the frame rate or pixel count changed
+     * The pixel count is the average since the line was last rebuilt,
+     * so the one bigger frame that draws the line barely moves it
+     * @return true if the line changed and has to be drawn again
+     */
+    private boolean updateDebuggingText(){
+        long pixels = mFramesSinceShown == 0 ? 0 : mPixelsSinceShown / mFramesSinceShown;
+        mPixelsSinceShown = 0;
+        mFramesSinceShown = 0;
+        if (mFPS == mHudFPS && pixels == mHudPixels){
+            return false;
+        }
+        mHudFPS = mFPS;
+        mHudPixels = pixels;
+        mFpsText.clear().append("FPS: ").append(mFPS)
+                .append("    Pixels: ").append(pixels)
+                .append("    Start: ").append(mFirstFrameNanos / NANOS_IN_MILLI).append(" ms");
+
         int debugSize = mFontSize / 2;
-        int debugStart = 150;
-        mPaint.setTextSize(debugSize);
-        mCanvas.drawText("FPS: " + mFPS,
-                10, debugStart + debugSize, mPaint);
+        mHudPaint.setTextSize(debugSize);
+        mDebugLayer.render(mFpsText, 10, DEBUG_TEXT_TOP + debugSize, mHudPaint);
+        return true;
+    }
+
+    /**
+     * This method rebuilds the phase timings and their layer
+     * @return true if the lines changed and have to be drawn again
+     */
+    private boolean updateProfileText(){
+        int debugSize = mFontSize / 2;
+        mHudPaint.setTextSize(debugSize);
+        mProfileLayer.clear();
+        for (int i = 0; i < FrameProfile.PHASE_COUNT; i++){
+            // Microseconds are enough to see a slow frame
+            LatencyHistogram histogram = mProfile.getHistogram(i);
+            mProfileText[i].clear().append(FrameProfile.getName(i))
+                    .append("  p50 ").append(histogram.getValueAtPercentile(50) / 1000)
+                    .append("  p99 ").append(histogram.getValueAtPercentile(99) / 1000)
+                    .append("  p99.9 ").append(histogram.getValueAtPercentile(99.9) / 1000)
+                    .append("  max ").append(histogram.getMax() / 1000)
+                    .append(" us");
+            mProfileLayer.drawText(mProfileText[i], 10,
+                    mProfileBounds.top + mDebugBounds.height() * i + debugSize, mHudPaint);
+        }
+        return true;
+    }
+
+    /**
+     * This method asks for the phase timings to be written to a file
+     * The game thread writes it at the start of the next frame
+     * @param file where to write the timings
+     */
+    public void dumpProfile(File file){
+        mPendingProfileDump = file;
+    }
+
+    /**
+     * This method writes the phase timings if they were asked for
+     */
+    private void handleProfileRequests(){
+        File file = mPendingProfileDump;
+        if (file == null){
+            return;
+        }
+        mPendingProfileDump = null;
+        try {
+            mProfile.write(file);
+        } catch (IOException e){
+            Log.e("Error", "failed to write profile", e);
+        }
+    }
+
+    /**
+     * This method opens the level pack in the assets
+     * It is stored uncompressed so it can be memory mapped out of the apk,
+     * if it was compressed anyway it is read into memory instead
+     * @param assets where the pack is
+     * @return the levels, or null if there are none
+     */
+    private static LevelPack openLevels(AssetManager assets){
+        try {
+            // AssetFileDescriptor can't be used with try until API 19
+            AssetFileDescriptor fd = assets.openFd(LEVELS_ASSET);
+            try (FileInputStream in = fd.createInputStream()){
+                return LevelPack.map(in.getChannel(), fd.getStartOffset(), fd.getLength());
+            } finally {
+                fd.close();
+            }
+        } catch (IOException e){
+            // openFd fails on compressed assets
+        }
+        try (InputStream in = assets.open(LEVELS_ASSET)){
+            return LevelPack.read(in);
+        } catch (IOException e){
+            Log.e("Error", "failed to read levels", e);
+            return null;
+        }
+    }
+
+    /**
+     * @return how many levels there are to choose from
+     */
+    public int getLevelCount(){
+        LevelPack levels = mLevels.getNow();
+        return levels == null ? 0 : levels.getLevelCount();
+    }
+
+    /**
+     * This method asks for a level to be played from a new game
+     * The game thread switches level at the start of the next frame,
+     * or once the levels have loaded if they are still loading.
+     * While a recording is running the switch waits until it is stopped,
+     * a replay only has the inputs so it could not follow the change
+     * @param level which level, from 0 to getLevelCount() - 1
+     */
+    public void loadLevel(int level){
+        if (level < 0 || (mLevels.isReady() && level >= getLevelCount())){
+            throw new IllegalArgumentException("no level " + level);
+        }
+        mPendingLevel = level;
+    }
+
+    /**
+     * This method switches level if one was asked for
+     */
+    private void handleLevelRequests(){
+        int level = mPendingLevel;
+        // Kept for later rather than breaking the recording's checksum
+        if (level < 0 || mSession.isRecording() || !mLevels.isReady()){
+            return;
+        }
+        mPendingLevel = -1;
+        LevelPack levels = mLevels.getNow();
+        if (levels == null || level >= levels.getLevelCount()){
+            Log.e("Error", "no level " + level);
+            return;
+        }
+        mSession.loadLevel(levels, level);
+        mPaused = true;
+        mFullRedraw = true;
+        saveState();
     }
 }
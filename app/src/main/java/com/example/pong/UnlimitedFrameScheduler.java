@@ -0,0 +1,23 @@
+package com.example.pong;
+
+/**
+ * This class never waits and starts the next frame straight away
+ * It is how the game loop behaved before frame pacing was added
+ */
+public class UnlimitedFrameScheduler implements FrameScheduler {
+
+    private FrameTimings mTimings = new FrameTimings();
+
+    @Override
+    public void waitForNextFrame(long frameStartTime, boolean paused){
+        mTimings.record(System.nanoTime() - frameStartTime, 0);
+    }
+
+    @Override
+    public void wake(){
+        // Never waits
+    }
+
+    @Override
+    public FrameTimings getTimings(){ return mTimings; }
+}
@@ -0,0 +1,51 @@
+package com.example.pong;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HudTextTest {
+
+    private static String text(HudText line) {
+        return new String(line.chars(), 0, line.length());
+    }
+
+    @Test
+    public void numbers_areWrittenWithTheirSign() {
+        HudText line = new HudText(64);
+        line.append(0).append(" ").append(42).append(" ").append(-7).append(" ").append(-1200);
+        assertEquals("0 42 -7 -1200", text(line));
+    }
+
+    @Test
+    public void smallestValues_stillFit() {
+        HudText line = new HudText(64);
+        line.append(Integer.MIN_VALUE).append(" ").append(Long.MIN_VALUE);
+        assertEquals(Integer.MIN_VALUE + " " + Long.MIN_VALUE, text(line));
+    }
+
+    @Test
+    public void fullLine_dropsWhatDoesNotFit() {
+        HudText line = new HudText(8);
+        line.append("Score: ").append(12345);
+        // A number is never cut in half
+        assertEquals("Score: ", text(line));
+
+        line.append("more text");
+        assertEquals("Score: m", text(line));
+        assertEquals(8, line.length());
+    }
+
+    @Test
+    public void clear_letsTheLineBeBuiltAgainInTheSameArray() {
+        HudText line = new HudText(32);
+        char[] chars = line.chars();
+        line.append("Lives: ").append(-123456);
+        assertEquals("Lives: -123456", text(line));
+
+        // A shorter line the next frame leaves nothing of the old one behind
+        line.clear().append("Lives: ").append(3);
+        assertEquals("Lives: 3", text(line));
+        assertSame(chars, line.chars());
+    }
+}
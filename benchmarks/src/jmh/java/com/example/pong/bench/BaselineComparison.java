@@ -0,0 +1,137 @@
+package com.example.pong.bench;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files and fails when a benchmark regressed
+ * Only the primary score of each benchmark is compared, lower is better
+ * because the suite runs in average time mode.
+ * A benchmark whose score error is bigger than the tolerance in either file
+ * can't show a change that small, so it is flagged as noisy and not failed on
+ */
+public class BaselineComparison {
+
+    /**
+     * The primary score of a benchmark and its 99.9% confidence error
+     */
+    static final class Score {
+        final double mScore;
+        final double mError;
+
+        Score(double score, double error){
+            mScore = score;
+            mError = error;
+        }
+
+        /**
+         * @return the error as a percentage of the score
+         */
+        double errorPercent(){
+            return mScore == 0 ? 0 : mError / mScore * 100;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2){
+            System.err.println("usage: BaselineComparison baseline.json results.json [tolerancePercent]");
+            System.exit(2);
+        }
+        Map<String, Score> baseline = readScores(args[0]);
+        Map<String, Score> current = readScores(args[1]);
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+
+        int regressions = 0;
+        int noisy = 0;
+        for (Map.Entry<String, Score> entry : current.entrySet()){
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null){
+                System.out.printf("%-70s %12.3f  (new)%n", entry.getKey(), now.mScore);
+                continue;
+            }
+            double change = (now.mScore - before.mScore) / before.mScore * 100;
+            double error = Math.max(before.errorPercent(), now.errorPercent());
+            String verdict = "";
+            if (error > tolerance){
+                noisy++;
+                verdict = String.format("  NOISY (error %.0f%%)", error);
+            } else if (change > tolerance){
+                regressions++;
+                verdict = "  REGRESSION";
+            }
+            System.out.printf("%-70s %12.3f %12.3f %+8.1f%%%s%n", entry.getKey(),
+                    before.mScore, now.mScore, change, verdict);
+        }
+
+        if (noisy > 0){
+            System.out.println(noisy + " benchmark(s) not compared, their error is more than "
+                    + tolerance + "%, run with more forks or iterations");
+        }
+        if (regressions > 0){
+            System.err.println(regressions + " benchmark(s) slower than the baseline by more than "
+                    + tolerance + "%");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * This method pulls the benchmark name, parameters, primary score and its error
+     * out of a JMH JSON file without needing a JSON library
+     * @param path the result file to read
+     * @return the primary score of each benchmark keyed by name and parameters
+     */
+    static Map<String, Score> readScores(String path) throws IOException {
+        String json = new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8);
+        Map<String, Score> scores = new LinkedHashMap<>();
+
+        int at = 0;
+        while ((at = json.indexOf("\"benchmark\"", at)) >= 0){
+            String name = stringValue(json, at);
+            int metric = json.indexOf("\"primaryMetric\"", at);
+            if (metric < 0){
+                break;
+            }
+
+            // Parameters sit between the name and the primary metric
+            int params = json.indexOf("\"params\"", at);
+            if (params >= 0 && params < metric){
+                int end = json.indexOf('}', params);
+                name += json.substring(json.indexOf('{', params), end + 1)
+                        .replaceAll("[\\s\"]", "");
+            }
+
+            int score = json.indexOf("\"score\"", metric);
+            int error = json.indexOf("\"scoreError\"", metric);
+            // A single iteration has no error, JMH writes NaN
+            double errorValue = error < 0 ? 0 : parseOrZero(numberValue(json, error));
+            scores.put(name, new Score(Double.parseDouble(numberValue(json, score)), errorValue));
+            at = score;
+        }
+        return scores;
+    }
+
+    private static String stringValue(String json, int key){
+        int colon = json.indexOf(':', key);
+        int start = json.indexOf('"', colon) + 1;
+        return json.substring(start, json.indexOf('"', start));
+    }
+
+    private static double parseOrZero(String number){
+        String value = number.replace("\"", "");
+        return "NaN".equals(value) ? 0 : Double.parseDouble(value);
+    }
+
+    private static String numberValue(String json, int key){
+        int start = json.indexOf(':', key) + 1;
+        int end = start;
+        while (end < json.length() && ",}\n\r".indexOf(json.charAt(end)) < 0){
+            end++;
+        }
+        return json.substring(start, end).trim();
+    }
+}
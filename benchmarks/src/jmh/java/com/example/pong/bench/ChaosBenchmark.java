@@ -0,0 +1,57 @@
+package com.example.pong.bench;
+
+import com.example.pong.core.PongSimulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Frame time of chaos mode as the number of balls grows,
+ * with the spatial hash broadphase and with every ball tested against every obstacle
+ */
+@State(Scope.Thread)
+public class ChaosBenchmark {
+
+    private static final int SCREEN_X = 1080;
+    private static final int SCREEN_Y = 1920;
+    private static final float DT = 1f / 120;
+
+    @Param({"1", "10", "100", "1000"})
+    public int ballCount;
+
+    @Param({"32"})
+    public int obstacleCount;
+
+    @Param({"true", "false"})
+    public boolean broadphase;
+
+    private PongSimulation mSim;
+
+    @Setup
+    public void setUp(){
+        mSim = new PongSimulation(SCREEN_X, SCREEN_Y);
+        mSim.setBroadphase(broadphase);
+
+        // The same layout for every run
+        Random random = new Random(42);
+        for (int i = 1; i < obstacleCount; i++){
+            mSim.addObstacle(random.nextInt(SCREEN_X), random.nextInt(SCREEN_Y * 3 / 4),
+                    SCREEN_X / 8 + random.nextInt(SCREEN_X / 3));
+        }
+        for (int i = 1; i < ballCount; i++){
+            mSim.addBall(random.nextInt(SCREEN_X), random.nextInt(SCREEN_Y / 2),
+                    (random.nextFloat() - 0.5f) * SCREEN_X,
+                    (random.nextFloat() - 0.5f) * SCREEN_Y);
+        }
+    }
+
+    @Benchmark
+    public int step(){
+        return mSim.step(DT);
+    }
+}
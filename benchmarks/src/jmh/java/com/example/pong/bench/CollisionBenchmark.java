@@ -0,0 +1,89 @@
+package com.example.pong.bench;
+
+import com.example.pong.core.Ball;
+import com.example.pong.core.FloatRect;
+import com.example.pong.core.PongSimulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of a step in different collision situations
+ * Each benchmark starts a new game first, which clears the contacts and puts
+ * the obstacle back, then sets the ball up so the step sweeps it into its target.
+ * That way every call sees the same scenario, reset measures what that costs on its own
+ */
+@State(Scope.Thread)
+public class CollisionBenchmark {
+
+    private static final float DT = 1f / 120;
+
+    // Fast enough to cover the gap in one step
+    private static final float SPEED = 640;
+
+    // How far from its target the ball starts
+    private static final float GAP = 2;
+
+    private PongSimulation mSim;
+    private Ball mBall;
+
+    // Where the ball is placed for each scenario
+    private float mOpenX;
+    private float mOpenY;
+    private float mObstacleX;
+    private float mObstacleY;
+    private float mBatX;
+    private float mBatY;
+
+    @Setup
+    public void setUp(){
+        mSim = new PongSimulation(1080, 1920);
+        mBall = mSim.getBall();
+        float size = mBall.getRect().height();
+
+        // Somewhere in the middle of the screen touching nothing
+        mOpenX = 100;
+        mOpenY = 1000;
+
+        // Just above the top edge of the obstacle
+        FloatRect obs = mSim.getObstacle().getRect();
+        mObstacleX = obs.left + obs.width() / 3;
+        mObstacleY = obs.top - size - GAP;
+
+        // Just above the top edge of the bat
+        FloatRect bat = mSim.getBat().getRect();
+        mBatX = bat.left + bat.width() / 3;
+        mBatY = bat.top - size - GAP;
+    }
+
+    @Benchmark
+    public void reset(){
+        mSim.startNewGame();
+        mBall.setPosition(mOpenX, mOpenY);
+        mBall.setVelocity(SPEED, -SPEED);
+    }
+
+    @Benchmark
+    public int noContact(){
+        reset();
+        return mSim.step(DT);
+    }
+
+    @Benchmark
+    public int ballHitsObstacle(){
+        mSim.startNewGame();
+        mBall.setPosition(mObstacleX, mObstacleY);
+        mBall.setVelocity(0, SPEED);
+        return mSim.step(DT);
+    }
+
+    @Benchmark
+    public int ballHitsBat(){
+        mSim.startNewGame();
+        mBall.setPosition(mBatX, mBatY);
+        mBall.setVelocity(0, SPEED);
+        return mSim.step(DT);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.pong.bench;
+
+import com.example.pong.core.EntityStore;
+import com.example.pong.core.FloatRect;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Moving many entities stored as parallel float arrays
+ * against the old layout of one object and one rectangle per entity
+ */
+@State(Scope.Thread)
+public class EntityStoreBenchmark {
+
+    private static final float DT = 1f / 120;
+    private static final float SCREEN_X = 1080;
+
+    @Param({"1000", "10000", "100000"})
+    public int count;
+
+    private EntityStore mStore;
+    private Moving[] mObjects;
+
+    // Kept alive so the objects stay spread out
+    private Object[] mSpacers;
+
+    /**
+     * The layout Ball and Obstacle used before the entity store
+     */
+    static final class Moving {
+        final FloatRect mRect = new FloatRect();
+        float mXVelocity;
+        float mYVelocity;
+        float mWidth;
+        float mHeight;
+
+        void update(float dt){
+            mRect.left = mRect.left + (mXVelocity * dt);
+            mRect.top = mRect.top + (mYVelocity * dt);
+            mRect.right = mRect.left + mWidth;
+            mRect.bottom = mRect.top + mHeight;
+        }
+    }
+
+    @Setup
+    public void setUp(){
+        Random random = new Random(42);
+        mStore = new EntityStore(count);
+        mObjects = new Moving[count];
+        mSpacers = new Object[count];
+        for (int i = 0; i < count; i++){
+            float x = random.nextFloat() * SCREEN_X;
+            float y = random.nextFloat() * 1920;
+            float vx = (random.nextFloat() - 0.5f) * SCREEN_X;
+            float vy = (random.nextFloat() - 0.5f) * 1920;
+            mStore.add(x, y, 10, 10, vx, vy);
+
+            // Allocate some garbage in between so the objects
+            // are spread over the heap like a real game's would be
+            mSpacers[i] = new byte[random.nextInt(256)];
+            Moving moving = new Moving();
+            moving.mRect.set(x, y, x + 10, y + 10);
+            moving.mXVelocity = vx;
+            moving.mYVelocity = vy;
+            moving.mWidth = 10;
+            moving.mHeight = 10;
+            mObjects[i] = moving;
+        }
+    }
+
+    @Benchmark
+    public EntityStore storeIntegrate(){
+        mStore.integrate(DT);
+        mStore.bounceHorizontal(SCREEN_X);
+        return mStore;
+    }
+
+    @Benchmark
+    public Moving[] objectUpdate(){
+        Moving[] objects = mObjects;
+        for (int i = 0; i < objects.length; i++){
+            Moving moving = objects[i];
+            moving.update(DT);
+            if (moving.mRect.right > SCREEN_X || moving.mRect.left < 0){
+                moving.mXVelocity = -moving.mXVelocity;
+            }
+        }
+        return objects;
+    }
+}
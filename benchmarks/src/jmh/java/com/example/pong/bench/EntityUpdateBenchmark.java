@@ -0,0 +1,55 @@
+package com.example.pong.bench;
+
+import com.example.pong.core.Ball;
+import com.example.pong.core.Bat;
+import com.example.pong.core.Obstacle;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of moving a single game object forward by one tick
+ */
+@State(Scope.Thread)
+public class EntityUpdateBenchmark {
+
+    private static final int SCREEN_X = 1080;
+    private static final int SCREEN_Y = 1920;
+    private static final float DT = 1f / 120;
+
+    private Ball mBall;
+    private Bat mBat;
+    private Obstacle mObs;
+
+    @Setup
+    public void setUp(){
+        mBall = new Ball(SCREEN_X);
+        mBall.reset(SCREEN_X, SCREEN_Y);
+
+        mBat = new Bat(SCREEN_X, SCREEN_Y);
+        mBat.setMovementState(Bat.RIGHT);
+
+        mObs = new Obstacle(SCREEN_X, SCREEN_Y,
+                SCREEN_X / 2, SCREEN_Y / 4, SCREEN_X / 3);
+    }
+
+    @Benchmark
+    public float ballUpdate(){
+        mBall.update(DT);
+        return mBall.getRect().left;
+    }
+
+    @Benchmark
+    public float batUpdate(){
+        mBat.update(DT);
+        return mBat.getRect().left;
+    }
+
+    @Benchmark
+    public float obstacleUpdate(){
+        mObs.update(DT);
+        return mObs.getRect().left;
+    }
+}
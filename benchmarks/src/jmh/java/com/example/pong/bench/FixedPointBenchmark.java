@@ -0,0 +1,41 @@
+package com.example.pong.bench;
+
+import com.example.pong.core.Bat;
+import com.example.pong.core.FixedPongSimulation;
+import com.example.pong.core.PongSimulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of one tick of the default game, float pixels versus fixed point world units
+ */
+@State(Scope.Thread)
+public class FixedPointBenchmark {
+
+    private static final int TICK_RATE = 120;
+    private static final float DT = 1f / TICK_RATE;
+
+    private PongSimulation mFloat;
+    private FixedPongSimulation mFixed;
+
+    @Setup
+    public void setUp(){
+        mFloat = new PongSimulation(1080, 1920, 42);
+        mFloat.setBatMovement(Bat.RIGHT);
+        mFixed = new FixedPongSimulation(FixedPongSimulation.worldHeight(1080, 1920), TICK_RATE, 42);
+        mFixed.setBatMovement(Bat.RIGHT);
+    }
+
+    @Benchmark
+    public int floatTick(){
+        return mFloat.step(DT);
+    }
+
+    @Benchmark
+    public int fixedTick(){
+        return mFixed.step();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.pong.bench;
+
+import com.example.pong.core.ParticleSystem;
+import com.example.pong.core.RecordingRenderer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of a frame of particles, emitting, moving, recycling and drawing
+ * with a steady few thousand alive, run with -prof gc to see it allocates nothing
+ */
+@State(Scope.Thread)
+public class ParticleBenchmark {
+
+    private static final float DT = 1f / 60;
+
+    @Param({"1000", "4000"})
+    public int mAlive;
+
+    private ParticleSystem mParticles;
+    private RecordingRenderer mRecorder = new RecordingRenderer();
+    private int mSpark;
+    private int mPerFrame;
+
+    @Setup
+    public void setUp(){
+        mParticles = new ParticleSystem(mAlive * 4, 1920, 42);
+        mSpark = mParticles.addStyle(0xFFFFD040, 6);
+        mParticles.addStyle(0xFF40E0FF, 6);
+        // Sparks live half to one second so this many per frame keeps about mAlive going
+        mPerFrame = mAlive / 45;
+        for (int i = 0; i < 120; i++){
+            frame();
+        }
+    }
+
+    @Benchmark
+    public int frame(){
+        mParticles.emit(mSpark, 540, 960, mPerFrame, 900, 0.5f);
+        mParticles.update(DT);
+        mParticles.layout(0.5f);
+        mRecorder.beginFrame(0, 0, 1080, 1920);
+        mParticles.draw(mRecorder);
+        return mParticles.getCount();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.pong.bench;
+
+import com.example.pong.core.Ball;
+import com.example.pong.core.PongSimulation;
+import com.example.pong.core.TrajectoryPredictor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Cost of finding where the ball reaches the bat,
+ * folded analytically versus copying the game and stepping it there
+ */
+@State(Scope.Thread)
+public class PredictorBenchmark {
+
+    private static final float DT = 1f / 120;
+
+    private PongSimulation mSim;
+    private TrajectoryPredictor mPredictor = new TrajectoryPredictor();
+    private ByteBuffer mState;
+
+    @Setup
+    public void setUp(){
+        mSim = new PongSimulation(1080, 1920, 42);
+        // Heading up so it has to come back off the top wall
+        mSim.getBall().setPosition(300, 1200);
+        mSim.getBall().setVelocity(900, -700);
+
+        mState = ByteBuffer.allocate(mSim.stateSize());
+        mSim.writeState(mState);
+    }
+
+    @Benchmark
+    public float predict(){
+        mPredictor.predict(mSim, mSim.getBall());
+        return mPredictor.getInterceptX();
+    }
+
+    @Benchmark
+    public float simulate(){
+        mState.rewind();
+        PongSimulation copy = PongSimulation.readState(mState);
+        Ball ball = copy.getBall();
+        float batTop = copy.getBat().getRect().top;
+        int events = 0;
+        while (ball.getRect().bottom < batTop && (events & PongSimulation.EVENT_HIT_BAT) == 0){
+            events = copy.step(DT);
+        }
+        return ball.getRect().left;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.pong.bench;
+
+import com.example.pong.core.Bat;
+import com.example.pong.core.PongSimulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of one full game tick, update and collision detection together
+ */
+@State(Scope.Thread)
+public class TickBenchmark {
+
+    private static final float DT = 1f / 120;
+
+    private PongSimulation mSim;
+
+    @Setup
+    public void setUp(){
+        mSim = new PongSimulation(1080, 1920);
+        mSim.setBatMovement(Bat.RIGHT);
+    }
+
+    @Benchmark
+    public int fullTick(){
+        return mSim.step(DT);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.pong.bench;
+
+import com.example.pong.core.VectorEnv;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Environment steps per second for the batch training runner
+ * Each invocation steps 1024 games once, the score is per game step
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class VectorEnvBenchmark {
+
+    private static final int GAMES = 1024;
+
+    // Physics ticks per environment step
+    @Param({"1", "4"})
+    public int ticksPerStep;
+
+    private VectorEnv mEnv;
+    private int[] mActions = new int[GAMES];
+    private float[] mObservations = new float[GAMES * VectorEnv.OBSERVATION_SIZE];
+    private float[] mRewards = new float[GAMES];
+    private boolean[] mDones = new boolean[GAMES];
+
+    @Setup
+    public void setUp(){
+        mEnv = new VectorEnv(GAMES, 1080, 1920, 42, 120, ticksPerStep,
+                ForkJoinPool.commonPool());
+        mEnv.reset(mObservations);
+        for (int i = 0; i < GAMES; i++){
+            mActions[i] = i % 3;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public float[] step(){
+        mEnv.step(mActions, mObservations, mRewards, mDones);
+        return mObservations;
+    }
+}
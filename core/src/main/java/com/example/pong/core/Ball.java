@@ -0,0 +1,176 @@
+package com.example.pong.core;
+
+/**
+ * This class contains the control code for the ball object
+ * The position, size and velocity live in an EntityStore,
+ * the ball is a view onto its slot
+ */
+public class Ball {
+    // These are all member variables (fields)
+    // They all have the m prefix
+    // They are all private
+    // Direct access is not required
+    private EntityStore mStore;
+    private int mIndex;
+
+    // Filled from the store each time getRect is called
+    private FloatRect mRect = new FloatRect();
+
+    // Contact cache, what the ball is still touching after bouncing off it
+    // so it can't hit the same thing again until it moves clear
+    static final int NO_CONTACT = -1;
+    private boolean mBatContact;
+    private int mObstacleContact = NO_CONTACT;
+
+    /**
+     * This method initializes the data for a ball object with a store of its own
+     * @param screenX the horizontal width of the game screen
+     */
+    public Ball(int screenX){
+        this(new EntityStore(1), screenX);
+    }
+
+    /**
+     * This method initializes the data for a ball object in a shared store
+     * @param store the store to add the ball to
+     * @param screenX the horizontal width of the game screen
+     */
+    public Ball(EntityStore store, int screenX){
+        mStore = store;
+
+        // Make the ball square and 1% of screen width
+        // We will initialize the position at the start of each game
+        mIndex = store.add(0, 0, screenX / 100, screenX / 100, 0, 0);
+    }
+
+    /**
+     * This method returns the bounds of the ball
+     * @return A reference to a Rect refreshed from the store on every call
+     */
+    public FloatRect getRect(){
+        mStore.getRect(mIndex, mRect);
+        return mRect;
+    }
+
+    /**
+     * @return the slot of the ball in its store
+     */
+    public int getIndex(){ return mIndex; }
+
+    /**
+     * This method controls how the ball moves each time the method is called in run
+     * The simulation moves every ball at once with EntityStore.integrate instead
+     * @param dt how many seconds of game time to move forward
+     */
+    public void update(float dt){
+        // Move the ball based on the horizontal and vertical speed
+        // and the length of the step
+
+        // Move the top left corner
+        mStore.mX[mIndex] = mStore.mX[mIndex] + (mStore.mVX[mIndex] * dt);
+        mStore.mY[mIndex] = mStore.mY[mIndex] + (mStore.mVY[mIndex] * dt);
+    }
+
+    /**
+     * This method moves the ball so its top left corner is at x, y
+     * @param x horizontal position of the left edge
+     * @param y vertical position of the top edge
+     */
+    public void setPosition(float x, float y){
+        mStore.setPosition(mIndex, x, y);
+    }
+
+    /**
+     * This method sets how fast the ball travels
+     * @param xVelocity horizontal speed in pixels per second
+     * @param yVelocity vertical speed in pixels per second
+     */
+    public void setVelocity(float xVelocity, float yVelocity){
+        mStore.setVelocity(mIndex, xVelocity, yVelocity);
+    }
+
+    boolean isTouchingBat(){ return mBatContact; }
+
+    void setTouchingBat(boolean touching){ mBatContact = touching; }
+
+    int getObstacleContact(){ return mObstacleContact; }
+
+    void setObstacleContact(int obstacle){ mObstacleContact = obstacle; }
+
+    public float getXVelocity(){ return mStore.mVX[mIndex]; }
+
+    public float getYVelocity(){ return mStore.mVY[mIndex]; }
+
+    /**
+     * This method reverses the vertical velocity of travel
+     */
+    public void reverseYVelocity(){
+        mStore.mVY[mIndex] = -mStore.mVY[mIndex];
+    }
+
+    /**
+     * This method reverses the horizontal velocity of travel
+     */
+    public void reverseXVelocity(){
+        mStore.mVX[mIndex] = -mStore.mVX[mIndex];
+    }
+
+    /**
+     * This method resets the ball into its initial state of play
+     * @param x horizontal width of the game screen
+     * @param y vertical height of the screen
+     */
+    public void reset(int x, int y){
+        // Put the top left corner of the ball in the middle of the top edge
+        mStore.setPosition(mIndex, x / 2, 0);
+
+        // How fast will the ball travel
+        // Can be changed for difficulty
+        mStore.setVelocity(mIndex, (x / 2), -(y / 3));
+    }
+
+    /**
+     * This method increases the rate of travel for the ball
+     */
+    public void increaseVelocity(){
+        // Increase the speed by 10%
+        increaseVelocity(1.1f);
+    }
+
+    /**
+     * This method increases the rate of travel for the ball by a chosen amount
+     * @param factor what to multiply the speed by
+     */
+    public void increaseVelocity(float factor){
+        mStore.mVX[mIndex] = mStore.mVX[mIndex] * factor;
+        mStore.mVY[mIndex] = mStore.mVY[mIndex] * factor;
+    }
+
+    /**
+     * This method controls collision reaction based on where the ball hit the bat
+     * @param batPosition the current state of the rect object passed
+     */
+    public void batBounce(FloatRect batPosition){
+        // Detect the center of the bat
+        float batCenter = batPosition.left + (batPosition.width() / 2);
+
+        // Detect the center of the ball
+        float ballCenter = mStore.mX[mIndex] + (mStore.mW[mIndex] / 2);
+
+        // Where did the ball hit?
+        float relativeIntersect = (batCenter - ballCenter);
+
+        // Pick a bounce direction
+        if (relativeIntersect < 0){
+            // Go right
+            mStore.mVX[mIndex] = Math.abs(mStore.mVX[mIndex]);
+        } else {
+            // Go left
+            mStore.mVX[mIndex] = -Math.abs(mStore.mVX[mIndex]);
+        }
+
+        // reverse Y velocity to send ball back upwards
+        reverseYVelocity();
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.example.pong.core;
+
+/**
+ * This class contains the control information for the player controlled bat
+ * The position and size live in an EntityStore, the bat is a view onto its slot
+ */
+public class Bat {
+    // These are all member variables (fields)
+    // They all have the m prefix
+    // They are all private
+    // Direct access is not required
+    private EntityStore mStore;
+    private int mIndex;
+    private float mBatSpeed;
+    private int mScreenX;
+
+    // Filled from the store each time getRect is called
+    private FloatRect mRect = new FloatRect();
+
+    // These variables are public and final
+    // Can be directly accessed as they are not part of the game
+    public static final int STOPPED = 0;
+    public static final int LEFT = 1;
+    public static final int RIGHT = 2;
+
+    // Keeps track of if and how the bat is moving
+    // Starting with STOPPED condition
+    private int mBatMoving = STOPPED;
+
+    /**
+     * This method initializes the initial data for a bat object with a store of its own
+     * @param sx The width of the game screen
+     * @param sy The height of the game screen
+     */
+    public Bat(int sx, int sy){
+        this(new EntityStore(1), sx, sy);
+    }
+
+    /**
+     * This method initializes the initial data for a bat object in a shared store
+     * @param store the store to add the bat to
+     * @param sx The width of the game screen
+     * @param sy The height of the game screen
+     */
+    public Bat(EntityStore store, int sx, int sy){
+        mStore = store;
+        mScreenX = sx;
+
+        // Configure size of bat based on 1/8 of screen resolution
+        float length = mScreenX / 8;
+
+        // 1/40 screen height
+        float height = sy / 40;
+
+        // Configure starting location of bat roughly in the middle horizontally
+        float xCoord = mScreenX / 2;
+
+        // The height of the bat off the bottom of the screen
+        float yCoord = sy - height;
+
+        // Add the bat to the store based on the size and position
+        mIndex = store.add(xCoord, yCoord, length, height, 0, 0);
+
+        // Configure the speed of the bat
+        // Can cover the width of the screen in 1 second
+        mBatSpeed = mScreenX;
+    }
+
+    /**
+     * This method returns the bounds of the bat
+     * @return reference to a Rect refreshed from the store on every call
+     */
+    public FloatRect getRect(){
+        mStore.getRect(mIndex, mRect);
+        return mRect;
+    }
+
+    /**
+     * This method changes the movement state of the object
+     * Either stopped, left, or right
+     * @param state new movement state
+     */
+    public void setMovementState(int state){
+        mBatMoving = state;
+    }
+
+    /**
+     * This method returns the way the bat is currently moving
+     * @return STOPPED, LEFT or RIGHT
+     */
+    public int getMovementState(){
+        return mBatMoving;
+    }
+
+    /**
+     * This method puts the bat straight at a horizontal position
+     * @param x the left edge of the bat
+     */
+    void setX(float x){
+        mStore.mX[mIndex] = x;
+    }
+
+    /**
+     * This method changes the size of the bat, keeping it on the bottom of the screen
+     * @param length the new width of the bat
+     * @param height the new height of the bat
+     * @param screenY the height of the game screen
+     */
+    void setSize(float length, float height, int screenY){
+        mStore.mW[mIndex] = length;
+        mStore.mH[mIndex] = height;
+        mStore.mY[mIndex] = screenY - height;
+    }
+
+    /**
+     * This method controls what happens each frame or loop
+     * @param dt how many seconds of game time to move forward
+     */
+    public void update(float dt){
+        float xCoord = mStore.mX[mIndex];
+        float length = mStore.mW[mIndex];
+
+        // Move the bat based on mBatMoving and the length of the step
+        if (mBatMoving == LEFT){
+            xCoord = xCoord - mBatSpeed * dt;
+        }
+        if (mBatMoving == RIGHT){
+            xCoord = xCoord + mBatSpeed * dt;
+        }
+
+        // Stop the bat going off screen
+        if (xCoord < 0){
+            xCoord = 0;
+        } else if (xCoord + length > mScreenX){
+            xCoord = mScreenX - length;
+        }
+
+        // Update the store based on results from the previous code in update
+        mStore.mX[mIndex] = xCoord;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.pong.core;
+
+import java.util.List;
+
+/**
+ * This class plays the bat for the computer, for demo mode or a CPU opponent
+ * Each tick it predicts where the first ball will reach the bat
+ * and moves the bat to meet it
+ */
+public class BatController {
+
+    private TrajectoryPredictor mPredictor = new TrajectoryPredictor();
+
+    /**
+     * This method picks which way the bat should move this tick
+     * @param sim the game to play
+     * @return Bat.LEFT, Bat.RIGHT or Bat.STOPPED
+     */
+    public int chooseMovement(PongSimulation sim){
+        FloatRect bat = sim.getBat().getRect();
+        float batCenter = bat.left + bat.width() / 2;
+
+        // Head for whichever ball gets there first
+        // or wait in the middle if none are coming
+        float targetCenter = sim.getScreenX() / 2f;
+        float soonest = Float.MAX_VALUE;
+        List<Ball> balls = sim.getBalls();
+        for (int i = 0; i < balls.size(); i++){
+            Ball ball = balls.get(i);
+            if (mPredictor.predict(sim, ball) && mPredictor.getInterceptTime() < soonest){
+                soonest = mPredictor.getInterceptTime();
+                targetCenter = mPredictor.getInterceptX() + ball.getRect().width() / 2;
+            }
+        }
+
+        // Close enough, stop rather than twitch back and forth
+        float deadZone = bat.width() / 8;
+        if (targetCenter > batCenter + deadZone){
+            return Bat.RIGHT;
+        } else if (targetCenter < batCenter - deadZone){
+            return Bat.LEFT;
+        }
+        return Bat.STOPPED;
+    }
+
+    /**
+     * This method picks which way the bat should move this tick in a fixed point game
+     * There is no predictor for it so the bat simply follows the ball
+     * @param sim the game to play
+     * @return Bat.LEFT, Bat.RIGHT or Bat.STOPPED
+     */
+    public int chooseMovement(FixedPongSimulation sim){
+        int batCenter = sim.getBatX() + sim.getBatWidth() / 2;
+        int ballCenter = sim.getBallX() + sim.getBallSize() / 2;
+
+        int deadZone = sim.getBatWidth() / 8;
+        if (ballCenter > batCenter + deadZone){
+            return Bat.RIGHT;
+        } else if (ballCenter < batCenter - deadZone){
+            return Bat.LEFT;
+        }
+        return Bat.STOPPED;
+    }
+}
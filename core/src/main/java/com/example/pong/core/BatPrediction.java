@@ -0,0 +1,107 @@
+package com.example.pong.core;
+
+/**
+ * This class moves the player's own bat as soon as they touch the screen
+ * rather than a round trip later when the server says so
+ * Each input is numbered and kept until the server says it has used it.
+ * When a snapshot says where the bat really was after an input,
+ * the bat is put there and the inputs the server hasn't used yet are played again
+ */
+public class BatPrediction {
+
+    // Inputs sent but not yet used by the server
+    private final int[] mMovements;
+    private final float[] mTimes;
+    private final int mMask;
+    private int mNextInput;
+    private int mOldestInput;
+
+    private final float mScreenX;
+    private final float mWidth;
+    private final float mSpeed;
+    private float mX;
+    private float mLastCorrection;
+
+    /**
+     * This method creates a prediction for a bat like the one Bat makes
+     * @param screenX the width of the screen
+     * @param batWidth the width of the bat
+     * @param x where the bat starts
+     */
+    public BatPrediction(int screenX, float batWidth, float x){
+        int size = 256;
+        mMovements = new int[size];
+        mTimes = new float[size];
+        mMask = size - 1;
+        mScreenX = screenX;
+        mWidth = batWidth;
+        // Like Bat, it can cover the width of the screen in 1 second
+        mSpeed = screenX;
+        mX = x;
+    }
+
+    /**
+     * This method moves the bat for an input before it is sent
+     * @param movement Bat.STOPPED, Bat.LEFT or Bat.RIGHT
+     * @param dt how long the input lasts, the server's tick length
+     * @return the number to send the input with
+     */
+    public int apply(int movement, float dt){
+        if (mNextInput - mOldestInput == mMovements.length){
+            // The server has stopped answering, forget the oldest
+            mOldestInput++;
+        }
+        int input = mNextInput++;
+        mMovements[input & mMask] = movement;
+        mTimes[input & mMask] = dt;
+        mX = move(mX, movement, dt);
+        return input;
+    }
+
+    /**
+     * This method corrects the bat from the server
+     * @param inputAck the last input the server used, or -1 for none
+     * @param serverX where the server had the bat after using it
+     */
+    public void reconcile(int inputAck, float serverX){
+        if (inputAck < mOldestInput - 1 || inputAck >= mNextInput){
+            // Older than a correction already made, or not an input we sent
+            return;
+        }
+        mOldestInput = inputAck + 1;
+
+        float x = serverX;
+        for (int input = mOldestInput; input < mNextInput; input++){
+            x = move(x, mMovements[input & mMask], mTimes[input & mMask]);
+        }
+        mLastCorrection = x - mX;
+        mX = x;
+    }
+
+    /**
+     * This method moves a bat the same way Bat.update does
+     */
+    private float move(float x, int movement, float dt){
+        if (movement == Bat.LEFT){
+            x -= mSpeed * dt;
+        } else if (movement == Bat.RIGHT){
+            x += mSpeed * dt;
+        }
+        return Math.max(0, Math.min(mScreenX - mWidth, x));
+    }
+
+    /**
+     * @return where the bat is predicted to be, its left edge
+     */
+    public float getX(){ return mX; }
+
+    /**
+     * @return how far the last reconcile moved the bat, 0 when the prediction was right
+     */
+    public float getLastCorrection(){ return mLastCorrection; }
+
+    /**
+     * @return how many inputs the server hasn't used yet
+     */
+    public int getPendingInputs(){ return mNextInput - mOldestInput; }
+}
@@ -0,0 +1,48 @@
+package com.example.pong.core;
+
+/**
+ * This class reads back values packed by BitWriter
+ */
+public class BitReader {
+
+    private byte[] mBytes;
+    private int mBit;
+    private int mEnd;
+
+    /**
+     * This method points the reader at some packed bytes
+     * @param bytes the bytes
+     * @param offset where the first byte is
+     * @param length how many bytes there are
+     */
+    public void reset(byte[] bytes, int offset, int length){
+        mBytes = bytes;
+        mBit = offset * 8;
+        mEnd = (offset + length) * 8;
+    }
+
+    /**
+     * This method reads a value written by BitWriter.write
+     * @param count how many bits it was written with, 1 to 32
+     * @return the value, not sign extended
+     */
+    public int read(int count){
+        if (mBit + count > mEnd){
+            throw new IndexOutOfBoundsException("read past the end of the bits");
+        }
+        int value = 0;
+        for (int i = 0; i < count; i++){
+            int bit = (mBytes[mBit >>> 3] >>> (7 - (mBit & 7))) & 1;
+            value = (value << 1) | bit;
+            mBit++;
+        }
+        return value;
+    }
+
+    /**
+     * @return the next bit
+     */
+    public boolean readBoolean(){
+        return read(1) != 0;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.pong.core;
+
+/**
+ * This class packs values of any width from 1 to 32 bits into bytes
+ * The bits of each value go most significant first
+ */
+public class BitWriter {
+
+    private final byte[] mBytes;
+    private int mBit;
+
+    /**
+     * This method creates a writer with a fixed amount of room
+     * @param capacity how many bytes it can hold
+     */
+    public BitWriter(int capacity){
+        mBytes = new byte[capacity];
+    }
+
+    /**
+     * This method empties the writer to be filled again
+     */
+    public void clear(){
+        mBit = 0;
+    }
+
+    /**
+     * This method writes the lowest bits of a value
+     * @param value the value, bits above count are ignored
+     * @param count how many bits to write, 1 to 32
+     */
+    public void write(int value, int count){
+        if (mBit + count > mBytes.length * 8){
+            throw new IndexOutOfBoundsException("bit writer is full");
+        }
+        for (int i = count - 1; i >= 0; i--){
+            int at = mBit >>> 3;
+            if ((mBit & 7) == 0){
+                mBytes[at] = 0;
+            }
+            if (((value >>> i) & 1) != 0){
+                mBytes[at] |= (byte) (0x80 >>> (mBit & 7));
+            }
+            mBit++;
+        }
+    }
+
+    /**
+     * This method writes one bit
+     * @param value the bit
+     */
+    public void writeBoolean(boolean value){
+        write(value ? 1 : 0, 1);
+    }
+
+    /**
+     * @return the packed bytes, the last one padded with zeros, valid up to getByteCount
+     */
+    public byte[] getBytes(){ return mBytes; }
+
+    /**
+     * @return how many bytes the bits written so far take
+     */
+    public int getByteCount(){ return (mBit + 7) >>> 3; }
+}
@@ -0,0 +1,17 @@
+package com.example.pong.core;
+
+/**
+ * This interface is told about every collision as the simulation finds it
+ * It is for effects like sparks that need to know where a hit happened,
+ * a listener must not change the game or the replays stop matching
+ */
+public interface CollisionListener {
+
+    /**
+     * This method is called once for each hit, in the middle of the step
+     * @param event what was hit, one of the PongSimulation.EVENT_ flags
+     * @param x horizontal position of the middle of the ball
+     * @param y vertical position of the middle of the ball
+     */
+    void onCollision(int event, float x, float y);
+}
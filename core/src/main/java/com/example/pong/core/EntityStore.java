@@ -0,0 +1,160 @@
+package com.example.pong.core;
+
+/**
+ * This class stores game objects as parallel arrays of floats
+ * instead of one object and one rectangle each.
+ * Keeping every x next to the other xs lets the update loops stream
+ * through memory and lets the JIT turn them into vector instructions.
+ * Ball, Bat and Obstacle are views onto one slot of a store
+ */
+public class EntityStore {
+
+    // Left edge, top edge, size and velocity of each entity
+    // Package private so the simulation loops can use them directly
+    float[] mX;
+    float[] mY;
+    float[] mW;
+    float[] mH;
+    float[] mVX;
+    float[] mVY;
+
+    private int mCount;
+
+    /**
+     * This method creates an empty store
+     * @param capacity how many entities to make room for up front
+     */
+    public EntityStore(int capacity){
+        capacity = Math.max(1, capacity);
+        mX = new float[capacity];
+        mY = new float[capacity];
+        mW = new float[capacity];
+        mH = new float[capacity];
+        mVX = new float[capacity];
+        mVY = new float[capacity];
+    }
+
+    /**
+     * This method adds an entity, growing the arrays if they are full
+     * @param x left edge
+     * @param y top edge
+     * @param w width
+     * @param h height
+     * @param vx horizontal speed in pixels per second
+     * @param vy vertical speed in pixels per second
+     * @return the slot the entity was put in
+     */
+    public int add(float x, float y, float w, float h, float vx, float vy){
+        if (mCount == mX.length){
+            int capacity = mX.length * 2;
+            mX = grow(mX, capacity);
+            mY = grow(mY, capacity);
+            mW = grow(mW, capacity);
+            mH = grow(mH, capacity);
+            mVX = grow(mVX, capacity);
+            mVY = grow(mVY, capacity);
+        }
+        mX[mCount] = x;
+        mY[mCount] = y;
+        mW[mCount] = w;
+        mH[mCount] = h;
+        mVX[mCount] = vx;
+        mVY[mCount] = vy;
+        return mCount++;
+    }
+
+    private static float[] grow(float[] array, int capacity){
+        float[] bigger = new float[capacity];
+        System.arraycopy(array, 0, bigger, 0, array.length);
+        return bigger;
+    }
+
+    /**
+     * @return how many entities are in the store
+     */
+    public int size(){ return mCount; }
+
+    /**
+     * This method forgets every entity from a slot onwards
+     * The arrays keep their size so adding again reuses the same slots
+     * @param count how many entities to keep
+     */
+    public void truncate(int count){
+        mCount = Math.max(0, Math.min(count, mCount));
+    }
+
+    /**
+     * This method moves every entity by its velocity
+     * @param dt how many seconds of game time to move forward
+     */
+    public void integrate(float dt){
+        float[] x = mX;
+        float[] y = mY;
+        float[] vx = mVX;
+        float[] vy = mVY;
+        for (int i = 0; i < mCount; i++){
+            x[i] = x[i] + vx[i] * dt;
+            y[i] = y[i] + vy[i] * dt;
+        }
+    }
+
+    /**
+     * This method turns round every entity that has gone past
+     * either side, the same as Obstacle.update does for one
+     * @param maxX the right hand side, the left is 0
+     */
+    public void bounceHorizontal(float maxX){
+        float[] x = mX;
+        float[] w = mW;
+        float[] vx = mVX;
+        for (int i = 0; i < mCount; i++){
+            float left = x[i];
+            vx[i] = (left + w[i] > maxX || left < 0) ? -vx[i] : vx[i];
+        }
+    }
+
+    /**
+     * This method copies every position out, for example to
+     * remember where everything was at the start of a step
+     * @param outX array to copy the left edges into
+     * @param outY array to copy the top edges into
+     */
+    public void copyPositions(float[] outX, float[] outY){
+        System.arraycopy(mX, 0, outX, 0, mCount);
+        System.arraycopy(mY, 0, outY, 0, mCount);
+    }
+
+    /**
+     * This method writes the bounds of one entity into a rectangle
+     * @param i the slot of the entity
+     * @param out the rectangle to fill
+     */
+    public void getRect(int i, FloatRect out){
+        out.left = mX[i];
+        out.top = mY[i];
+        out.right = mX[i] + mW[i];
+        out.bottom = mY[i] + mH[i];
+    }
+
+    public float getX(int i){ return mX[i]; }
+
+    public float getY(int i){ return mY[i]; }
+
+    public float getWidth(int i){ return mW[i]; }
+
+    public float getHeight(int i){ return mH[i]; }
+
+    public float getXVelocity(int i){ return mVX[i]; }
+
+    public float getYVelocity(int i){ return mVY[i]; }
+
+    public void setPosition(int i, float x, float y){
+        mX[i] = x;
+        mY[i] = y;
+    }
+
+    public void setVelocity(int i, float vx, float vy){
+        mVX[i] = vx;
+        mVY[i] = vy;
+    }
+}
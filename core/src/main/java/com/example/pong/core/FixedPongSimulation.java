@@ -0,0 +1,703 @@
+package com.example.pong.core;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class is the pong game in fixed point integers
+ * Everything lives in a world WORLD_X units wide whatever the screen is,
+ * positions are whole units, velocities are units per tick, and fractions of a tick
+ * and speed ups are 16.16 fixed point. Only int and long arithmetic is used in a step,
+ * so the same seed and inputs give bit for bit the same game on any JVM or device,
+ * which is what lockstep play and verifiable replays need.
+ * Screens scale the world to pixels when they draw it, see SceneRenderer.
+ *
+ * The rules are the same as PongSimulation with one ball,
+ * the ball is swept against the moving bat and obstacles so it can't pass through them
+ */
+public class FixedPongSimulation {
+
+    // How wide the world is, the height is chosen to match the screen's shape
+    public static final int WORLD_X = 1 << 20;
+
+    // 1.0 in 16.16 fixed point, used for fractions of a tick and speed ups
+    public static final int ONE = 1 << 16;
+    private static final int FRACTION_BITS = 16;
+
+    // Returned by the sweep when nothing is hit
+    private static final int NO_HIT = Integer.MAX_VALUE;
+
+    // The most hits the ball can make in one step
+    private static final int MAX_IMPACTS = 4;
+    private static final int NO_CONTACT = -1;
+
+    private static final int OPAQUE_WHITE = 0xFFFFFFFF;
+
+    private final int mWorldY;
+    private final int mTickRate;
+
+    // The ball, a square
+    private final int mBallSize;
+    private int mBallX;
+    private int mBallY;
+    private int mBallVX;
+    private int mBallVY;
+    private boolean mBatContact;
+    private int mObstacleContact = NO_CONTACT;
+
+    // The bat, along the bottom
+    private int mBatX;
+    private int mBatY;
+    private int mBatWidth;
+    private int mBatHeight;
+    private final int mBatSpeed;
+    private int mBatMovement = Bat.STOPPED;
+    private int mBatStartX;
+
+    // The obstacles, the first mObsCount of each array
+    private int[] mObsX = new int[4];
+    private int[] mObsY = new int[4];
+    private int[] mObsW = new int[4];
+    private int[] mObsH = new int[4];
+    private int[] mObsVX = new int[4];
+    private int[] mObsSpawnX = new int[4];
+    private int[] mObsStartX = new int[4];
+    private int mObsCount;
+
+    // How much a ball speeds up each time it hits the bat or an obstacle, 16.16
+    private int mSpeedUp = Math.round(PongSimulation.DEFAULT_SPEED_UP * ONE);
+
+    private int mScore;
+    private int mLives;
+
+    private final GameRandom mRandom;
+    private int mBallColor = OPAQUE_WHITE;
+    private int mBatColor = OPAQUE_WHITE;
+
+    // Told where every hit happens when set, in world units
+    private CollisionListener mCollisionListener;
+
+    /**
+     * This method sets up a game
+     * @param worldY how tall the world is, from worldHeight for the screen everyone plays on
+     * @param tickRate how many steps make a second
+     * @param seed seed for this game's random numbers
+     */
+    public FixedPongSimulation(int worldY, int tickRate, long seed){
+        mWorldY = worldY;
+        mTickRate = tickRate;
+        mRandom = new GameRandom(seed);
+
+        // The same proportions as PongSimulation
+        mBallSize = WORLD_X / 100;
+        mBatWidth = WORLD_X / 8;
+        mBatHeight = worldY / 40;
+        mBatX = WORLD_X / 2;
+        mBatY = worldY - mBatHeight;
+        // Can cover the width of the world in 1 second
+        mBatSpeed = WORLD_X / tickRate;
+
+        addObstacle(WORLD_X / 2, worldY / 4, WORLD_X / 6, worldY / 40, WORLD_X / 3 / tickRate);
+        startNewGame();
+    }
+
+    /**
+     * This method works out how tall the world is for a screen shape
+     * Games that are meant to match have to agree on it
+     * @param screenX the width of the screen
+     * @param screenY the height of the screen
+     * @return the world height in units
+     */
+    public static int worldHeight(int screenX, int screenY){
+        return (int) ((long) WORLD_X * screenY / screenX);
+    }
+
+    /**
+     * This method adds another obstacle
+     * @param x left edge in units
+     * @param y top edge in units
+     * @param width width in units
+     * @param height height in units
+     * @param velocity horizontal speed in units per tick
+     */
+    public void addObstacle(int x, int y, int width, int height, int velocity){
+        if (mObsCount == mObsX.length){
+            int capacity = mObsCount * 2;
+            mObsX = copyOf(mObsX, capacity);
+            mObsY = copyOf(mObsY, capacity);
+            mObsW = copyOf(mObsW, capacity);
+            mObsH = copyOf(mObsH, capacity);
+            mObsVX = copyOf(mObsVX, capacity);
+            mObsSpawnX = copyOf(mObsSpawnX, capacity);
+            mObsStartX = copyOf(mObsStartX, capacity);
+        }
+        int i = mObsCount++;
+        mObsX[i] = x;
+        mObsY[i] = y;
+        mObsW[i] = width;
+        mObsH[i] = height;
+        mObsVX[i] = velocity;
+        mObsSpawnX[i] = x;
+    }
+
+    private static int[] copyOf(int[] array, int capacity){
+        int[] copy = new int[capacity];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+
+    /**
+     * This method removes every obstacle
+     */
+    public void clearObstacles(){
+        mObsCount = 0;
+    }
+
+    /**
+     * This method sets the game up for a level and starts a new game
+     * The pack's fractions are turned into units here, once, so the steps stay integer
+     * @param pack the levels
+     * @param level which level to play
+     */
+    public void loadLevel(LevelPack pack, int level){
+        mSpeedUp = Math.round(pack.getSpeedUp(level) * ONE);
+        mBatWidth = Math.round(pack.getBatWidth(level) * WORLD_X);
+        mBatHeight = Math.round(pack.getBatHeight(level) * mWorldY);
+        mBatY = mWorldY - mBatHeight;
+
+        clearObstacles();
+        int count = pack.getObstacleCount(level);
+        for (int i = 0; i < count; i++){
+            addObstacle(Math.round(pack.getObstacleX(level, i) * WORLD_X),
+                    Math.round(pack.getObstacleY(level, i) * mWorldY),
+                    Math.round(pack.getObstacleWidth(level, i) * WORLD_X),
+                    Math.round(pack.getObstacleHeight(level, i) * mWorldY),
+                    Math.round(pack.getObstacleVelocity(level, i) * WORLD_X / mTickRate));
+        }
+
+        startNewGame();
+    }
+
+    /**
+     * This method passes every hit to a listener as it is found
+     * @param listener who to tell, null to stop telling anyone
+     */
+    public void setCollisionListener(CollisionListener listener){
+        mCollisionListener = listener;
+    }
+
+    /**
+     * This method moves the game forward one tick
+     * @return the PongSimulation.EVENT_ flags for everything that happened during the step
+     */
+    public int step(){
+        // Move the bat, stopping at the sides
+        mBatStartX = mBatX;
+        if (mBatMovement == Bat.LEFT){
+            mBatX -= mBatSpeed;
+        } else if (mBatMovement == Bat.RIGHT){
+            mBatX += mBatSpeed;
+        }
+        if (mBatX < 0){
+            mBatX = 0;
+        } else if (mBatX + mBatWidth > WORLD_X){
+            mBatX = WORLD_X - mBatWidth;
+        }
+
+        // Move the obstacles, turning round any that went past a side
+        int[] x = mObsX;
+        int[] vx = mObsVX;
+        for (int i = 0; i < mObsCount; i++){
+            mObsStartX[i] = x[i];
+            x[i] += vx[i];
+            if (x[i] + mObsW[i] > WORLD_X || x[i] < 0){
+                vx[i] = -vx[i];
+            }
+        }
+
+        int events = moveBall();
+        events |= detectWallCollisions();
+        if ((events & PongSimulation.EVENT_GAME_OVER) == 0){
+            updateContacts();
+        }
+
+        if (events != 0){
+            // Every collision changes the colours
+            changeColor();
+        }
+        return events;
+    }
+
+    /**
+     * This method moves the ball through the tick, bouncing it off the bat
+     * and obstacles at the moment it reaches them
+     * @return the EVENT_ flags for the hits found
+     */
+    private int moveBall(){
+        int events = 0;
+        int size = mBallSize;
+
+        // How far through the tick the ball has got, 16.16
+        int elapsed = 0;
+        int x = mBallX;
+        int y = mBallY;
+
+        for (int impact = 0; impact < MAX_IMPACTS; impact++){
+            int remaining = ONE - elapsed;
+            int dx = (int) ((long) mBallVX * remaining >> FRACTION_BITS);
+            int dy = (int) ((long) mBallVY * remaining >> FRACTION_BITS);
+
+            int time = NO_HIT;
+            int hit = NO_CONTACT;
+            boolean hitBat = false;
+
+            if (!mBatContact){
+                int batMove = mBatX - mBatStartX;
+                time = timeOfImpact(x, y, size, size,
+                        dx - (int) ((long) batMove * remaining >> FRACTION_BITS), dy,
+                        lerp(mBatStartX, batMove, elapsed), mBatY, mBatWidth, mBatHeight);
+                hitBat = time != NO_HIT;
+            }
+
+            for (int i = 0; i < mObsCount; i++){
+                if (i == mObstacleContact){
+                    continue;
+                }
+                int move = mObsX[i] - mObsStartX[i];
+                int t = timeOfImpact(x, y, size, size,
+                        dx - (int) ((long) move * remaining >> FRACTION_BITS), dy,
+                        lerp(mObsStartX[i], move, elapsed), mObsY[i], mObsW[i], mObsH[i]);
+                if (t < time){
+                    time = t;
+                    hit = i;
+                    hitBat = false;
+                }
+            }
+
+            if (time == NO_HIT){
+                // Nothing else in the way, move the rest of the tick
+                x += dx;
+                y += dy;
+                break;
+            }
+
+            // Move to the point of contact and bounce from there
+            x += (int) ((long) dx * time >> FRACTION_BITS);
+            y += (int) ((long) dy * time >> FRACTION_BITS);
+            elapsed += (int) ((long) remaining * time >> FRACTION_BITS);
+            mBallX = x;
+            mBallY = y;
+
+            if (hitBat){
+                collisionAction(lerp(mBatStartX, mBatX - mBatStartX, elapsed), mBatWidth,
+                        PongSimulation.EVENT_HIT_BAT);
+                mBatContact = true;
+                events |= PongSimulation.EVENT_HIT_BAT;
+            } else {
+                collisionAction(lerp(mObsStartX[hit], mObsX[hit] - mObsStartX[hit], elapsed), mObsW[hit],
+                        PongSimulation.EVENT_HIT_OBSTACLE);
+                mObstacleContact = hit;
+                events |= PongSimulation.EVENT_HIT_OBSTACLE;
+            }
+        }
+
+        mBallX = x;
+        mBallY = y;
+        return events;
+    }
+
+    /**
+     * This method works out where something was part way through the tick
+     * @param start where it was at the start of the tick
+     * @param move how far it moved during the tick
+     * @param fraction how far through the tick, 16.16
+     * @return where it was
+     */
+    private static int lerp(int start, int move, int fraction){
+        return start + (int) ((long) move * fraction >> FRACTION_BITS);
+    }
+
+    /**
+     * This method finds when a moving rectangle first touches a still one, like Sweep.timeOfImpact
+     * Divisions round down so the ball stops just short of what it hits, never inside it
+     * @param ax left edge of the moving rectangle
+     * @param ay top edge of the moving rectangle
+     * @param aw width of the moving rectangle
+     * @param ah height of the moving rectangle
+     * @param dx how far it moves horizontally relative to the other
+     * @param dy how far it moves vertically relative to the other
+     * @param bx left edge of the other rectangle
+     * @param by top edge of the other rectangle
+     * @param bw width of the other rectangle
+     * @param bh height of the other rectangle
+     * @return how far through the move they first overlap, 0 to ONE, or NO_HIT
+     */
+    static int timeOfImpact(int ax, int ay, int aw, int ah, int dx, int dy,
+                            int bx, int by, int bw, int bh){
+        if (ax < bx + bw && ax + aw > bx && ay < by + bh && ay + ah > by){
+            return 0;
+        }
+
+        long entryX;
+        long exitX;
+        if (dx > 0){
+            entryX = divide((long) bx - ax - aw, dx);
+            exitX = divide((long) bx + bw - ax, dx);
+        } else if (dx < 0){
+            entryX = divide((long) ax - bx - bw, -dx);
+            exitX = divide((long) ax + aw - bx, -dx);
+        } else if (ax + aw > bx && ax < bx + bw){
+            entryX = Long.MIN_VALUE;
+            exitX = Long.MAX_VALUE;
+        } else {
+            return NO_HIT;
+        }
+
+        long entryY;
+        long exitY;
+        if (dy > 0){
+            entryY = divide((long) by - ay - ah, dy);
+            exitY = divide((long) by + bh - ay, dy);
+        } else if (dy < 0){
+            entryY = divide((long) ay - by - bh, -dy);
+            exitY = divide((long) ay + ah - by, -dy);
+        } else if (ay + ah > by && ay < by + bh){
+            entryY = Long.MIN_VALUE;
+            exitY = Long.MAX_VALUE;
+        } else {
+            return NO_HIT;
+        }
+
+        long entry = Math.max(entryX, entryY);
+        long exit = Math.min(exitX, exitY);
+        if (entry >= exit || entry < 0 || entry > ONE){
+            return NO_HIT;
+        }
+        return (int) entry;
+    }
+
+    /**
+     * This method divides a distance by a positive move, as a 16.16 fraction rounded down
+     */
+    private static long divide(long distance, int move){
+        long scaled = distance << FRACTION_BITS;
+        long quotient = scaled / move;
+        if (scaled % move != 0 && scaled < 0){
+            quotient--;
+        }
+        return quotient;
+    }
+
+    /**
+     * This method controls what happens when the ball hits the bat or an obstacle
+     * @param targetX left edge of what was hit at the moment it was hit
+     * @param targetWidth width of what was hit
+     * @param event EVENT_HIT_BAT or EVENT_HIT_OBSTACLE
+     */
+    private void collisionAction(int targetX, int targetWidth, int event){
+        // Bounce away from the middle of what was hit, like Ball.batBounce
+        long targetCenter = (long) targetX * 2 + targetWidth;
+        long ballCenter = (long) mBallX * 2 + mBallSize;
+        mBallVX = targetCenter - ballCenter < 0 ? Math.abs(mBallVX) : -Math.abs(mBallVX);
+        mBallVY = -mBallVY;
+
+        mBallVX = (int) ((long) mBallVX * mSpeedUp >> FRACTION_BITS);
+        mBallVY = (int) ((long) mBallVY * mSpeedUp >> FRACTION_BITS);
+        mScore++;
+        notifyCollision(event);
+    }
+
+    private void notifyCollision(int event){
+        CollisionListener listener = mCollisionListener;
+        if (listener != null){
+            float half = mBallSize / 2f;
+            listener.onCollision(event, mBallX + half, mBallY + half);
+        }
+    }
+
+    /**
+     * This method detects if the ball went past an edge of the world
+     * @return the EVENT_ flags for the walls hit
+     */
+    private int detectWallCollisions(){
+        int events = 0;
+
+        // Bottom
+        if (mBallY + mBallSize > mWorldY){
+            mBallVY = -mBallVY;
+            mLives--;
+            events |= PongSimulation.EVENT_MISS;
+            notifyCollision(PongSimulation.EVENT_MISS);
+            if (mLives == 0){
+                startNewGame();
+                return events | PongSimulation.EVENT_GAME_OVER;
+            }
+        }
+
+        // Top
+        if (mBallY < 0){
+            mBallVY = -mBallVY;
+            events |= PongSimulation.EVENT_HIT_WALL;
+            notifyCollision(PongSimulation.EVENT_HIT_WALL);
+        }
+
+        // Left and right
+        if (mBallX < 0 || mBallX + mBallSize > WORLD_X){
+            mBallVX = -mBallVX;
+            events |= PongSimulation.EVENT_HIT_WALL;
+            notifyCollision(PongSimulation.EVENT_HIT_WALL);
+        }
+
+        return events;
+    }
+
+    /**
+     * This method forgets the ball's contacts once it has moved clear
+     */
+    private void updateContacts(){
+        int i = mObstacleContact;
+        if (i != NO_CONTACT && !overlaps(mObsX[i], mObsY[i], mObsW[i], mObsH[i])){
+            mObstacleContact = NO_CONTACT;
+        }
+        if (mBatContact && !overlaps(mBatX, mBatY, mBatWidth, mBatHeight)){
+            mBatContact = false;
+        }
+    }
+
+    private boolean overlaps(int x, int y, int width, int height){
+        return mBallX < x + width && mBallX + mBallSize > x
+                && mBallY < y + height && mBallY + mBallSize > y;
+    }
+
+    /**
+     * This method controls the randomization of colours in the game
+     */
+    private void changeColor(){
+        final int MAX_RGB = 256;
+
+        mBallColor = 0xFF000000 | (mRandom.nextInt(MAX_RGB) << 16)
+                | (mRandom.nextInt(MAX_RGB) << 8) | mRandom.nextInt(MAX_RGB);
+
+        mBatColor = 0xFF000000 | (mRandom.nextInt(MAX_RGB) << 16)
+                | (mRandom.nextInt(MAX_RGB) << 8) | mRandom.nextInt(MAX_RGB);
+    }
+
+    /**
+     * This method resets the game state to the initial state
+     */
+    public void startNewGame(){
+        // The top left corner of the ball in the middle of the top edge
+        mBallX = WORLD_X / 2;
+        mBallY = 0;
+        mBallVX = WORLD_X / 2 / mTickRate;
+        mBallVY = -(mWorldY / 3 / mTickRate);
+        mBatContact = false;
+        mObstacleContact = NO_CONTACT;
+
+        for (int i = 0; i < mObsCount; i++){
+            mObsX[i] = mObsSpawnX[i];
+        }
+
+        mScore = 0;
+        mLives = PongSimulation.START_LIVES;
+    }
+
+    /**
+     * This method sums up the whole game state in one number
+     * Games on different devices match exactly when their checksums do
+     * @return a hash of every position, velocity, score, lives and random state
+     */
+    public long checksum(){
+        long hash = 17;
+        hash = hash * 31 + mBallX;
+        hash = hash * 31 + mBallY;
+        hash = hash * 31 + mBallVX;
+        hash = hash * 31 + mBallVY;
+        hash = hash * 31 + mBatX;
+        hash = hash * 31 + mBatMovement;
+        for (int i = 0; i < mObsCount; i++){
+            hash = hash * 31 + mObsX[i];
+            hash = hash * 31 + mObsY[i];
+            hash = hash * 31 + mObsVX[i];
+        }
+        hash = hash * 31 + mScore;
+        hash = hash * 31 + mLives;
+        hash = hash * 31 + mRandom.getState();
+        return hash;
+    }
+
+    /**
+     * This method works out how many bytes writeState needs
+     * @return the size of the state in bytes
+     */
+    public int stateSize(){
+        return 4 * 2 + 8 + 4 * 5
+                + 4 * 4 + 1 + 4
+                + 4 * 4
+                + 4 + mObsCount * (6 * 4);
+    }
+
+    /**
+     * This method writes the whole game state in a fixed layout
+     * world height, tick rate, random state, ball colour, bat colour, speed up, score, lives,
+     * ball x, y, x velocity, y velocity, bat contact, obstacle contact,
+     * bat x, bat width, bat height, bat movement,
+     * obstacle count then x, y, width, height, x velocity, spawn x for each obstacle
+     * @param out the buffer to write into, needs stateSize bytes free
+     */
+    public void writeState(ByteBuffer out){
+        out.putInt(mWorldY);
+        out.putInt(mTickRate);
+        out.putLong(mRandom.getState());
+        out.putInt(mBallColor);
+        out.putInt(mBatColor);
+        out.putInt(mSpeedUp);
+        out.putInt(mScore);
+        out.putInt(mLives);
+
+        out.putInt(mBallX);
+        out.putInt(mBallY);
+        out.putInt(mBallVX);
+        out.putInt(mBallVY);
+        out.put((byte) (mBatContact ? 1 : 0));
+        out.putInt(mObstacleContact);
+
+        out.putInt(mBatX);
+        out.putInt(mBatWidth);
+        out.putInt(mBatHeight);
+        out.putInt(mBatMovement);
+
+        out.putInt(mObsCount);
+        for (int i = 0; i < mObsCount; i++){
+            out.putInt(mObsX[i]);
+            out.putInt(mObsY[i]);
+            out.putInt(mObsW[i]);
+            out.putInt(mObsH[i]);
+            out.putInt(mObsVX[i]);
+            out.putInt(mObsSpawnX[i]);
+        }
+    }
+
+    /**
+     * This method creates a game from the layout written by writeState
+     * The world keeps the height it was saved with, whatever screen it is drawn on next
+     * @param in the buffer to read from
+     * @return the restored game
+     */
+    public static FixedPongSimulation readState(ByteBuffer in){
+        int worldY = in.getInt();
+        int tickRate = in.getInt();
+        FixedPongSimulation sim = new FixedPongSimulation(worldY, tickRate, 0);
+        sim.mRandom.setState(in.getLong());
+        sim.mBallColor = in.getInt();
+        sim.mBatColor = in.getInt();
+        sim.mSpeedUp = in.getInt();
+        sim.mScore = in.getInt();
+        sim.mLives = in.getInt();
+
+        sim.mBallX = in.getInt();
+        sim.mBallY = in.getInt();
+        sim.mBallVX = in.getInt();
+        sim.mBallVY = in.getInt();
+        sim.mBatContact = in.get() != 0;
+        sim.mObstacleContact = in.getInt();
+
+        sim.mBatX = in.getInt();
+        sim.mBatWidth = in.getInt();
+        sim.mBatHeight = in.getInt();
+        sim.mBatY = worldY - sim.mBatHeight;
+        sim.mBatMovement = in.getInt();
+
+        sim.clearObstacles();
+        int obstacles = in.getInt();
+        for (int i = 0; i < obstacles; i++){
+            int x = in.getInt();
+            int y = in.getInt();
+            int width = in.getInt();
+            int height = in.getInt();
+            int velocity = in.getInt();
+            sim.addObstacle(in.getInt(), y, width, height, velocity);
+            sim.mObsX[i] = x;
+        }
+        return sim;
+    }
+
+    /**
+     * This method puts the ball somewhere, for setting up a situation to test
+     * @param x left edge in units
+     * @param y top edge in units
+     * @param xVelocity horizontal speed in units per tick
+     * @param yVelocity vertical speed in units per tick
+     */
+    public void setBall(int x, int y, int xVelocity, int yVelocity){
+        mBallX = x;
+        mBallY = y;
+        mBallVX = xVelocity;
+        mBallVY = yVelocity;
+    }
+
+    /**
+     * This method sets how the bat moves from the next step
+     * @param state Bat.STOPPED, Bat.LEFT or Bat.RIGHT
+     */
+    public void setBatMovement(int state){
+        mBatMovement = state;
+    }
+
+    /**
+     * This method writes where the ball is, scaled to a screen
+     * @param scaleX pixels per unit across
+     * @param scaleY pixels per unit down
+     * @param out the rect to write the bounds into
+     */
+    public void getBallRect(float scaleX, float scaleY, FloatRect out){
+        out.set(mBallX * scaleX, mBallY * scaleY,
+                (mBallX + mBallSize) * scaleX, (mBallY + mBallSize) * scaleY);
+    }
+
+    /**
+     * This method writes where the bat is, scaled to a screen
+     * @param scaleX pixels per unit across
+     * @param scaleY pixels per unit down
+     * @param out the rect to write the bounds into
+     */
+    public void getBatRect(float scaleX, float scaleY, FloatRect out){
+        out.set(mBatX * scaleX, mBatY * scaleY,
+                (mBatX + mBatWidth) * scaleX, (mBatY + mBatHeight) * scaleY);
+    }
+
+    /**
+     * This method writes where an obstacle is, scaled to a screen
+     * @param i which obstacle
+     * @param scaleX pixels per unit across
+     * @param scaleY pixels per unit down
+     * @param out the rect to write the bounds into
+     */
+    public void getObstacleRect(int i, float scaleX, float scaleY, FloatRect out){
+        out.set(mObsX[i] * scaleX, mObsY[i] * scaleY,
+                (mObsX[i] + mObsW[i]) * scaleX, (mObsY[i] + mObsH[i]) * scaleY);
+    }
+
+    public int getObstacleCount(){ return mObsCount; }
+
+    public int getBallX(){ return mBallX; }
+
+    public int getBallY(){ return mBallY; }
+
+    public int getBallSize(){ return mBallSize; }
+
+    public int getBatX(){ return mBatX; }
+
+    public int getBatWidth(){ return mBatWidth; }
+
+    public int getWorldY(){ return mWorldY; }
+
+    public int getTickRate(){ return mTickRate; }
+
+    public int getScore(){ return mScore; }
+
+    public int getLives(){ return mLives; }
+
+    public int getBallColor(){ return mBallColor; }
+
+    public int getBatColor(){ return mBatColor; }
+}
@@ -0,0 +1,78 @@
+package com.example.pong.core;
+
+/**
+ * This class is a plain rectangle made of four floats
+ * It does the same job as android.graphics.RectF so the
+ * simulation can run without Android
+ */
+public class FloatRect {
+    // Public like RectF so the hot loops can read them directly
+    public float left;
+    public float top;
+    public float right;
+    public float bottom;
+
+    /**
+     * This method creates an empty rectangle at 0, 0
+     */
+    public FloatRect(){
+    }
+
+    /**
+     * This method creates a rectangle from its four edges
+     * @param left x coordinate of the left edge
+     * @param top y coordinate of the top edge
+     * @param right x coordinate of the right edge
+     * @param bottom y coordinate of the bottom edge
+     */
+    public FloatRect(float left, float top, float right, float bottom){
+        set(left, top, right, bottom);
+    }
+
+    /**
+     * This method moves all four edges at once
+     * @param left x coordinate of the left edge
+     * @param top y coordinate of the top edge
+     * @param right x coordinate of the right edge
+     * @param bottom y coordinate of the bottom edge
+     */
+    public void set(float left, float top, float right, float bottom){
+        this.left = left;
+        this.top = top;
+        this.right = right;
+        this.bottom = bottom;
+    }
+
+    /**
+     * This method copies another rectangle into this one
+     * @param src the rectangle to copy
+     */
+    public void set(FloatRect src){
+        left = src.left;
+        top = src.top;
+        right = src.right;
+        bottom = src.bottom;
+    }
+
+    /**
+     * @return the horizontal size of the rectangle
+     */
+    public float width(){ return right - left; }
+
+    /**
+     * @return the vertical size of the rectangle
+     */
+    public float height(){ return bottom - top; }
+
+    /**
+     * This method tests whether two rectangles overlap
+     * Touching edges do not count, the same as RectF.intersects
+     * @param a the first rectangle
+     * @param b the second rectangle
+     * @return true if they overlap
+     */
+    public static boolean intersects(FloatRect a, FloatRect b){
+        return a.left < b.right && b.left < a.right
+                && a.top < b.bottom && b.top < a.bottom;
+    }
+}
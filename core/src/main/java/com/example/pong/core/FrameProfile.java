@@ -0,0 +1,105 @@
+package com.example.pong.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * This class keeps a histogram of how long each phase of a frame took
+ * Recording is cheap and never allocates so it can stay on in release builds.
+ * Only the thread running the game may record or read it
+ */
+public class FrameProfile {
+
+    // The phases of a frame
+    // Update and collisions are timed inside PongSimulation.step, once per tick
+    public static final int UPDATE = 0;
+    public static final int COLLISIONS = 1;
+    public static final int LOCK = 2;
+    public static final int DRAW = 3;
+    public static final int UNLOCK = 4;
+    // Everything the frame did before waiting for the next one
+    public static final int FRAME = 5;
+    public static final int PHASE_COUNT = 6;
+
+    private static final String[] NAMES = {"update", "collisions", "lock", "draw", "unlock", "frame"};
+
+    private final LatencyHistogram[] mHistograms = new LatencyHistogram[PHASE_COUNT];
+
+    /**
+     * This method creates a profile with nothing recorded
+     */
+    public FrameProfile(){
+        for (int i = 0; i < PHASE_COUNT; i++){
+            mHistograms[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * This method records how long one phase took
+     * @param phase which phase, like DRAW
+     * @param nanos how long it took
+     */
+    public void record(int phase, long nanos){
+        mHistograms[phase].record(nanos);
+    }
+
+    /**
+     * @param phase which phase, like DRAW
+     * @return the histogram for that phase
+     */
+    public LatencyHistogram getHistogram(int phase){
+        return mHistograms[phase];
+    }
+
+    /**
+     * @param phase which phase, like DRAW
+     * @return the name of the phase
+     */
+    public static String getName(int phase){
+        return NAMES[phase];
+    }
+
+    /**
+     * This method forgets everything recorded
+     */
+    public void reset(){
+        for (int i = 0; i < PHASE_COUNT; i++){
+            mHistograms[i].reset();
+        }
+    }
+
+    /**
+     * This method writes a table of every phase, in microseconds
+     * @param out where to write
+     * @throws IOException if it could not be written
+     */
+    public void write(Writer out) throws IOException {
+        out.write(String.format(Locale.US, "%-12s %10s %10s %10s %10s %10s %10s%n",
+                "phase", "count", "mean", "p50", "p99", "p99.9", "max"));
+        for (int i = 0; i < PHASE_COUNT; i++){
+            LatencyHistogram histogram = mHistograms[i];
+            out.write(String.format(Locale.US, "%-12s %10d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    NAMES[i], histogram.getCount(),
+                    histogram.getMean() / 1000,
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0,
+                    histogram.getMax() / 1000.0));
+        }
+    }
+
+    /**
+     * This method writes the table to a file, replacing it
+     * @param file where to write
+     * @throws IOException if it could not be written
+     */
+    public void write(File file) throws IOException {
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(file), "UTF-8")){
+            write(out);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.pong.core;
+
+/**
+ * This class is a small seeded random number generator (SplitMix64)
+ * Each game owns one so games never share random state,
+ * and its whole state is one long so it can be saved and restored
+ */
+public class GameRandom {
+
+    private long mState;
+
+    /**
+     * This method creates a generator
+     * @param seed the same seed always gives the same numbers
+     */
+    public GameRandom(long seed){
+        mState = seed;
+    }
+
+    /**
+     * @return the next 64 random bits
+     */
+    public long nextLong(){
+        long z = (mState += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * This method picks a whole number
+     * @param bound one more than the largest number wanted
+     * @return a number from 0 up to but not including bound
+     */
+    public int nextInt(int bound){
+        return (int) (((nextLong() >>> 33) * bound) >>> 31);
+    }
+
+    /**
+     * @return a number from 0 up to but not including 1
+     */
+    public float nextFloat(){
+        return (nextLong() >>> 40) * 0x1.0p-24f;
+    }
+
+    public long getState(){ return mState; }
+
+    public void setState(long state){ mState = state; }
+}
@@ -0,0 +1,304 @@
+package com.example.pong.core;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * This class holds the game being played, on the float or the fixed point simulation,
+ * and records it so it can be replayed
+ * A recording only holds the bat input of each tick, so while one is running
+ * anything else that would change the game is refused and returns false
+ * Call it from one thread, the game thread
+ */
+public class GameSession {
+
+    private final int mScreenX;
+    private final int mScreenY;
+    private int mTickRate;
+
+    // The game being played, only one of them is used
+    // mFixedSim is set in fixed point mode
+    private PongSimulation mSim;
+    private FixedPongSimulation mFixedSim;
+
+    private FrameProfile mProfile;
+    // Hits are passed on in pixels whichever game is played
+    private CollisionListener mListener;
+    private CollisionListener mFixedListener;
+
+    // How many ticks have been taken since the game or the recording started
+    private long mTick;
+    private InputRecorder mRecorder;
+
+    /**
+     * This method starts a float game the size of the screen
+     * @param screenX horizontal size of the screen
+     * @param screenY vertical size of the screen
+     * @param tickRate physics ticks per second
+     * @param seed seed for the game's random numbers
+     */
+    public GameSession(int screenX, int screenY, int tickRate, long seed){
+        mScreenX = screenX;
+        mScreenY = screenY;
+        mTickRate = tickRate;
+        // A restored game may have a world of another shape so it is scaled as it goes
+        mFixedListener = (event, x, y) -> {
+            if (mListener != null){
+                mListener.onCollision(event, x * mScreenX / FixedPongSimulation.WORLD_X,
+                        y * mScreenY / mFixedSim.getWorldY());
+            }
+        };
+        newGame(false, seed);
+    }
+
+    /**
+     * This method sets where the float game reports how long each phase takes
+     * @param profile the profile to fill, or null
+     */
+    public void setProfile(FrameProfile profile){
+        mProfile = profile;
+        if (mSim != null){
+            mSim.setProfile(profile);
+        }
+    }
+
+    /**
+     * This method sets who hears about hits, with their positions in pixels
+     * @param listener the listener, or null
+     */
+    public void setCollisionListener(CollisionListener listener){
+        mListener = listener;
+        if (mSim != null){
+            mSim.setCollisionListener(listener);
+        }
+    }
+
+    /**
+     * This method moves the bat, and records the movement while recording
+     * If the recording could not be written it is stopped and the error is thrown,
+     * the bat is moved anyway
+     * @param batInput Bat.STOPPED, Bat.LEFT or Bat.RIGHT
+     */
+    public void setBatMovement(int batInput) throws IOException {
+        if (mFixedSim != null){
+            mFixedSim.setBatMovement(batInput);
+        } else {
+            mSim.setBatMovement(batInput);
+        }
+
+        if (mRecorder != null){
+            try {
+                mRecorder.record(mTick, batInput);
+            } catch (IOException e){
+                mRecorder = null;
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * This method moves the game on by one tick of 1 / tickRate seconds
+     * @return the PongSimulation EVENT flags for the tick
+     */
+    public int step(){
+        return step(1f / mTickRate);
+    }
+
+    /**
+     * This method moves the game on by one tick of any length
+     * The fixed point game always ticks 1 / tickRate seconds
+     * @param dt how many seconds of game time to move forward
+     * @return the PongSimulation EVENT flags for the tick
+     * @throws IllegalStateException if dt is not a tick while recording, the replay would not match
+     */
+    public int step(float dt){
+        if (mRecorder != null && dt != 1f / mTickRate){
+            throw new IllegalStateException("recordings need fixed ticks");
+        }
+        mTick++;
+        return mFixedSim != null ? mFixedSim.step() : mSim.step(dt);
+    }
+
+    /**
+     * This method starts a fresh game on the same simulation and records it
+     * A recording that is already running is finished first
+     * @param file where to write the recording
+     * @param seed seed for the new game's random numbers
+     */
+    public void startRecording(File file, long seed) throws IOException {
+        stopRecording();
+        newGame(mFixedSim != null, seed);
+        mRecorder = new InputRecorder(file,
+                mFixedSim != null ? InputRecorder.FIXED_ENGINE : InputRecorder.FLOAT_ENGINE,
+                mScreenX, mScreenY, mTickRate, seed);
+    }
+
+    /**
+     * This method finishes the recording, if there is one
+     */
+    public void stopRecording() throws IOException {
+        if (mRecorder == null){
+            return;
+        }
+        InputRecorder recorder = mRecorder;
+        mRecorder = null;
+        recorder.finish(mTick, checksum());
+    }
+
+    /**
+     * This method changes how many ticks there are per second
+     * A fixed point game's speeds are per tick so it starts again at the new rate
+     * @param tickRate physics ticks per second
+     * @return false while recording, nothing is changed
+     */
+    public boolean setTickRate(int tickRate){
+        if (mRecorder != null){
+            return false;
+        }
+        mTickRate = tickRate;
+        if (mFixedSim != null && mFixedSim.getTickRate() != tickRate){
+            newGame(true, System.nanoTime());
+        }
+        return true;
+    }
+
+    /**
+     * This method starts a new game on the float or the fixed point simulation
+     * @param fixedPoint true to play the fixed point game
+     * @param seed seed for the new game's random numbers
+     * @return false while recording, nothing is changed
+     */
+    public boolean setFixedPoint(boolean fixedPoint, long seed){
+        if (mRecorder != null){
+            return false;
+        }
+        newGame(fixedPoint, seed);
+        return true;
+    }
+
+    /**
+     * This method adds extra balls and obstacles to the float game for chaos mode
+     * @param balls how many balls to add
+     * @param obstacles how many obstacles to add
+     * @return false while recording or in fixed point mode, which only has one ball
+     */
+    public boolean addChaos(int balls, int obstacles){
+        if (mRecorder != null || mFixedSim != null){
+            return false;
+        }
+        GameRandom random = mSim.getRandom();
+        for (int i = 0; i < obstacles; i++){
+            mSim.addObstacle(random.nextInt(mScreenX), random.nextInt(mScreenY * 3 / 4),
+                    mScreenX / 8 + random.nextInt(mScreenX / 3));
+        }
+        for (int i = 0; i < balls; i++){
+            mSim.addBall(random.nextInt(mScreenX), random.nextInt(mScreenY / 2),
+                    (random.nextFloat() - 0.5f) * mScreenX,
+                    (random.nextFloat() - 0.5f) * mScreenY);
+        }
+        return true;
+    }
+
+    /**
+     * This method sets out the obstacles of a level
+     * @param pack the levels
+     * @param level which level
+     * @return false while recording, nothing is changed
+     */
+    public boolean loadLevel(LevelPack pack, int level){
+        if (mRecorder != null){
+            return false;
+        }
+        if (mFixedSim != null){
+            mFixedSim.loadLevel(pack, level);
+        } else {
+            mSim.loadLevel(pack, level);
+        }
+        return true;
+    }
+
+    /**
+     * This method saves the whole game so it can be carried on later
+     * @return the snapshot bytes, of the fixed point game in fixed point mode
+     */
+    public byte[] save(){
+        return mFixedSim != null ? GameSnapshot.toBytes(mFixedSim) : GameSnapshot.toBytes(mSim);
+    }
+
+    /**
+     * This method carries on a game saved by save
+     * A float game is stretched to fit the screen in case it was turned since it was saved
+     * A fixed point game keeps the tick rate it was saved with, as its speeds are per tick
+     * @param snapshot the snapshot bytes
+     * @return false while recording, nothing is changed
+     * @throws IOException if the snapshot could not be read, nothing is changed
+     */
+    public boolean restore(byte[] snapshot) throws IOException {
+        if (mRecorder != null){
+            return false;
+        }
+        if (GameSnapshot.isFixedPoint(snapshot)){
+            FixedPongSimulation sim = GameSnapshot.fixedFromBytes(snapshot);
+            sim.setCollisionListener(mFixedListener);
+            mFixedSim = sim;
+            mSim = null;
+            mTickRate = sim.getTickRate();
+        } else {
+            PongSimulation sim = GameSnapshot.fromBytes(snapshot, mScreenX, mScreenY);
+            sim.setProfile(mProfile);
+            sim.setCollisionListener(mListener);
+            mSim = sim;
+            mFixedSim = null;
+        }
+        mTick = 0;
+        return true;
+    }
+
+    private void newGame(boolean fixedPoint, long seed){
+        if (fixedPoint){
+            mFixedSim = new FixedPongSimulation(
+                    FixedPongSimulation.worldHeight(mScreenX, mScreenY), mTickRate, seed);
+            mFixedSim.setCollisionListener(mFixedListener);
+            mSim = null;
+        } else {
+            mSim = new PongSimulation(mScreenX, mScreenY, seed);
+            mSim.setProfile(mProfile);
+            mSim.setCollisionListener(mListener);
+            mFixedSim = null;
+        }
+        mTick = 0;
+    }
+
+    /**
+     * @return the checksum of whichever game is played
+     */
+    public long checksum(){
+        return mFixedSim != null ? mFixedSim.checksum() : mSim.checksum();
+    }
+
+    /**
+     * @return the float game, null in fixed point mode
+     */
+    public PongSimulation getSimulation(){ return mSim; }
+
+    /**
+     * @return the fixed point game, null unless in fixed point mode
+     */
+    public FixedPongSimulation getFixedSimulation(){ return mFixedSim; }
+
+    public boolean isFixedPoint(){ return mFixedSim != null; }
+
+    public boolean isRecording(){ return mRecorder != null; }
+
+    public int getTickRate(){ return mTickRate; }
+
+    public long getTick(){ return mTick; }
+
+    public int getScore(){ return mFixedSim != null ? mFixedSim.getScore() : mSim.getScore(); }
+
+    public int getLives(){ return mFixedSim != null ? mFixedSim.getLives() : mSim.getLives(); }
+
+    public int getBallColor(){ return mFixedSim != null ? mFixedSim.getBallColor() : mSim.getBallColor(); }
+
+    public int getBatColor(){ return mFixedSim != null ? mFixedSim.getBatColor() : mSim.getBatColor(); }
+}
@@ -0,0 +1,190 @@
+package com.example.pong.core;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * This class saves and restores the whole game as a small binary snapshot
+ * so a game can carry on exactly where it was after the process is killed.
+ * The layout is fixed and written field by field, there is no reflection,
+ * so a snapshot takes microseconds either way
+ *
+ * Layout, big endian
+ * int MAGIC, int VERSION, int length of the state, then PongSimulation.writeState,
+ * or FIXED_MAGIC in place of MAGIC followed by FixedPongSimulation.writeState
+ */
+public final class GameSnapshot {
+
+    public static final int MAGIC = 0x50534E50;
+    public static final int FIXED_MAGIC = 0x50534E46;
+    public static final int VERSION = 2;
+
+    private static final int HEADER_SIZE = 12;
+
+    private GameSnapshot(){
+    }
+
+    /**
+     * This method writes a game into a new byte array
+     * @param sim the game to save
+     * @return the snapshot
+     */
+    public static byte[] toBytes(PongSimulation sim){
+        byte[] bytes = new byte[HEADER_SIZE + sim.stateSize()];
+        ByteBuffer out = ByteBuffer.wrap(bytes);
+        out.putInt(MAGIC);
+        out.putInt(VERSION);
+        out.putInt(sim.stateSize());
+        sim.writeState(out);
+        return bytes;
+    }
+
+    /**
+     * This method writes a fixed point game into a new byte array
+     * @param sim the game to save
+     * @return the snapshot
+     */
+    public static byte[] toBytes(FixedPongSimulation sim){
+        byte[] bytes = new byte[HEADER_SIZE + sim.stateSize()];
+        ByteBuffer out = ByteBuffer.wrap(bytes);
+        out.putInt(FIXED_MAGIC);
+        out.putInt(VERSION);
+        out.putInt(sim.stateSize());
+        sim.writeState(out);
+        return bytes;
+    }
+
+    /**
+     * This method says which game a snapshot holds
+     * @param bytes the snapshot
+     * @return true if it is a fixed point game, for fixedFromBytes
+     */
+    public static boolean isFixedPoint(byte[] bytes){
+        return bytes.length >= HEADER_SIZE && ByteBuffer.wrap(bytes).getInt() == FIXED_MAGIC;
+    }
+
+    /**
+     * This method restores a fixed point game from a snapshot
+     * @param bytes the snapshot
+     * @return the restored game
+     * @throws IOException if the bytes are not a fixed point snapshot this version understands
+     */
+    public static FixedPongSimulation fixedFromBytes(byte[] bytes) throws IOException {
+        ByteBuffer in = checkHeader(bytes, FIXED_MAGIC);
+        try {
+            return FixedPongSimulation.readState(in);
+        } catch (RuntimeException e){
+            throw new IOException("snapshot is corrupt", e);
+        }
+    }
+
+    /**
+     * This method restores a game from a snapshot
+     * @param bytes the snapshot
+     * @return the restored game
+     * @throws IOException if the bytes are not a snapshot this version understands
+     */
+    public static PongSimulation fromBytes(byte[] bytes) throws IOException {
+        ByteBuffer in = checkHeader(bytes, MAGIC);
+        try {
+            return PongSimulation.readState(in);
+        } catch (RuntimeException e){
+            throw new IOException("snapshot is corrupt", e);
+        }
+    }
+
+    /**
+     * This method restores a game from a snapshot onto a screen of any size
+     * such as after the device has been turned round
+     * @param bytes the snapshot
+     * @param screenX width of the screen now
+     * @param screenY height of the screen now
+     * @return the restored game, stretched to the screen
+     * @throws IOException if the bytes are not a snapshot this version understands
+     */
+    public static PongSimulation fromBytes(byte[] bytes, int screenX, int screenY) throws IOException {
+        ByteBuffer in = checkHeader(bytes, MAGIC);
+        try {
+            return PongSimulation.readState(in, screenX, screenY);
+        } catch (RuntimeException e){
+            throw new IOException("snapshot is corrupt", e);
+        }
+    }
+
+    private static ByteBuffer checkHeader(byte[] bytes, int magic) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        if (bytes.length < HEADER_SIZE || in.getInt() != magic){
+            throw new IOException("not a game snapshot");
+        }
+        int version = in.getInt();
+        if (version != VERSION){
+            throw new IOException("unsupported snapshot version " + version);
+        }
+        int length = in.getInt();
+        if (length != in.remaining()){
+            throw new IOException("snapshot is " + in.remaining() + " bytes, expected " + length);
+        }
+        return in;
+    }
+
+    /**
+     * This method writes a snapshot of a game to a file
+     * @param sim the game to save
+     * @param file where to write it, replaced if it exists
+     */
+    public static void save(PongSimulation sim, File file) throws IOException {
+        writeFile(toBytes(sim), file);
+    }
+
+    /**
+     * This method reads a game from a snapshot file
+     * @param file the snapshot to read
+     * @return the restored game
+     */
+    public static PongSimulation load(File file) throws IOException {
+        return fromBytes(readFile(file));
+    }
+
+    /**
+     * This method writes snapshot bytes to a file
+     * @param snapshot the bytes from toBytes
+     * @param file where to write it, replaced if it exists
+     */
+    public static void writeFile(byte[] snapshot, File file) throws IOException {
+        // Write next to the real file then swap it in
+        // so a crash half way through never leaves a broken snapshot
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileChannel channel = new FileOutputStream(temp).getChannel()){
+            ByteBuffer buffer = ByteBuffer.wrap(snapshot);
+            while (buffer.hasRemaining()){
+                channel.write(buffer);
+            }
+        }
+        if (!temp.renameTo(file)){
+            throw new IOException("could not replace " + file);
+        }
+    }
+
+    /**
+     * This method reads snapshot bytes from a file
+     * @param file the snapshot to read
+     * @return the bytes to pass to fromBytes
+     */
+    public static byte[] readFile(File file) throws IOException {
+        try (FileChannel channel = new FileInputStream(file).getChannel()){
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE){
+                throw new IOException("snapshot is too big");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) > 0){
+                // Keep reading until the whole file is in
+            }
+            return buffer.array();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.pong.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * This class writes everything needed to replay a game to a file
+ * The game is deterministic given its size, tick rate and random seed,
+ * so the only other thing stored is the tick on which the bat
+ * movement changed. Each change is one varint, usually a single byte
+ *
+ * File layout, big endian
+ * int MAGIC, int VERSION, int engine, int screenX, int screenY, int tickRate, long seed
+ * then for each change varint((ticks since last change << 2) | Bat state)
+ * then varint((ticks since last change << 2) | END), long checksum
+ */
+public class InputRecorder {
+
+    public static final int MAGIC = 0x50524543;
+    public static final int VERSION = 2;
+
+    // Which simulation the game was played on
+    public static final int FLOAT_ENGINE = 0;
+    public static final int FIXED_ENGINE = 1;
+
+    // Marks the final record, after the three Bat states
+    static final int END = 3;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private FileChannel mChannel;
+    private ByteBuffer mBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    private long mLastTick;
+    private int mLastState = Bat.STOPPED;
+
+    /**
+     * This method opens the file and writes the header for a PongSimulation game
+     * Recording has to start on a freshly created simulation
+     * @param file where to write the recording, replaced if it exists
+     * @param screenX horizontal size of the play area
+     * @param screenY vertical size of the play area
+     * @param tickRate physics ticks per second, every tick is 1 / tickRate seconds
+     * @param seed the seed the simulation was created with
+     */
+    public InputRecorder(File file, int screenX, int screenY, int tickRate, long seed)
+            throws IOException {
+        this(file, FLOAT_ENGINE, screenX, screenY, tickRate, seed);
+    }
+
+    /**
+     * This method opens the file and writes the header
+     * Recording has to start on a freshly created simulation
+     * @param file where to write the recording, replaced if it exists
+     * @param engine FLOAT_ENGINE or FIXED_ENGINE
+     * @param screenX horizontal size of the play area, for FIXED_ENGINE the screen its world height came from
+     * @param screenY vertical size of the play area
+     * @param tickRate physics ticks per second, every tick is 1 / tickRate seconds
+     * @param seed the seed the simulation was created with
+     */
+    public InputRecorder(File file, int engine, int screenX, int screenY, int tickRate, long seed)
+            throws IOException {
+        // java.nio.file is not available on older Android versions
+        mChannel = new FileOutputStream(file).getChannel();
+        mBuffer.putInt(MAGIC);
+        mBuffer.putInt(VERSION);
+        mBuffer.putInt(engine);
+        mBuffer.putInt(screenX);
+        mBuffer.putInt(screenY);
+        mBuffer.putInt(tickRate);
+        mBuffer.putLong(seed);
+    }
+
+    /**
+     * This method records the bat state used for a tick
+     * Call it before every step, only changes are written
+     * @param tick how many steps the simulation has taken since recording started
+     * @param batState Bat.STOPPED, Bat.LEFT or Bat.RIGHT
+     */
+    public void record(long tick, int batState) throws IOException {
+        if (batState == mLastState){
+            return;
+        }
+        writeRecord(tick, batState);
+        mLastState = batState;
+    }
+
+    /**
+     * This method writes the end of the recording and closes the file
+     * @param tick how many steps the simulation took in total
+     * @param checksum PongSimulation.checksum or FixedPongSimulation.checksum after the last step
+     */
+    public void finish(long tick, long checksum) throws IOException {
+        writeRecord(tick, END);
+        if (mBuffer.remaining() < 8){
+            flush();
+        }
+        mBuffer.putLong(checksum);
+        flush();
+        mChannel.force(false);
+        mChannel.close();
+    }
+
+    private void writeRecord(long tick, int kind) throws IOException {
+        // A varint is never more than 10 bytes
+        if (mBuffer.remaining() < 10){
+            flush();
+        }
+        long value = ((tick - mLastTick) << 2) | kind;
+        while ((value & ~0x7FL) != 0){
+            mBuffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        mBuffer.put((byte) value);
+        mLastTick = tick;
+    }
+
+    private void flush() throws IOException {
+        mBuffer.flip();
+        while (mBuffer.hasRemaining()){
+            mChannel.write(mBuffer);
+        }
+        mBuffer.clear();
+    }
+}
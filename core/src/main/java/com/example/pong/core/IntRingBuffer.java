@@ -0,0 +1,68 @@
+package com.example.pong.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class passes ints from one thread to one other thread without locks
+ * Neither side ever waits, a full buffer refuses the value instead.
+ * Only one thread may call offer and only one thread may call poll
+ */
+public class IntRingBuffer {
+
+    // What poll returns when there is nothing to take
+    public static final int EMPTY = -1;
+
+    private final int[] mValues;
+    private final int mMask;
+
+    // How many values have ever been written and read
+    // Each is only changed by its own thread, lazySet publishes it to the other
+    private final AtomicLong mWritten = new AtomicLong();
+    private final AtomicLong mRead = new AtomicLong();
+
+    /**
+     * This method creates an empty buffer
+     * @param capacity how many values it can hold, rounded up to a power of two
+     */
+    public IntRingBuffer(int capacity){
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        mValues = new int[size];
+        mMask = size - 1;
+    }
+
+    /**
+     * This method adds a value, called by the producer thread only
+     * @param value the value to add, must not be negative
+     * @return false if the buffer was full and the value was dropped
+     */
+    public boolean offer(int value){
+        long written = mWritten.get();
+        if (written - mRead.get() == mValues.length){
+            return false;
+        }
+        mValues[(int) written & mMask] = value;
+        mWritten.lazySet(written + 1);
+        return true;
+    }
+
+    /**
+     * This method takes the oldest value, called by the consumer thread only
+     * @return the value, or EMPTY if there was nothing to take
+     */
+    public int poll(){
+        long read = mRead.get();
+        if (read == mWritten.get()){
+            return EMPTY;
+        }
+        int value = mValues[(int) read & mMask];
+        mRead.lazySet(read + 1);
+        return value;
+    }
+
+    /**
+     * @return true if there is nothing to take right now
+     */
+    public boolean isEmpty(){
+        return mRead.get() == mWritten.get();
+    }
+}
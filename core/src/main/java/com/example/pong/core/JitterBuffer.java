@@ -0,0 +1,133 @@
+package com.example.pong.core;
+
+/**
+ * This class plays snapshots back smoothly however unevenly they arrive
+ * It keeps an estimate of the server's clock from when snapshots arrive
+ * and draws a fixed number of ticks behind it, interpolating between
+ * the snapshots either side. A lost snapshot is bridged by the ones around it,
+ * if none newer has arrived the newest is held rather than guessed at
+ */
+public class JitterBuffer {
+
+    // How quickly the clock estimate follows the arrival times, as a shift
+    // Each arrival moves it a sixteenth of the way
+    private static final int CLOCK_SMOOTHING = 4;
+
+    private final SnapshotHistory mHistory;
+    private final long mTickNanos;
+    private final long mDelayNanos;
+
+    // Server time minus local time, in nanoseconds
+    private long mClockOffset;
+    private boolean mHaveClock;
+
+    // The result of the last sample
+    private final float[] mValues = new float[NetSnapshot.FIELD_COUNT];
+    private float mSampleTick;
+    private long mHolds;
+
+    /**
+     * This method creates an empty buffer
+     * @param tickRate server ticks per second
+     * @param delayTicks how many ticks behind the server to draw, more hides more jitter and loss
+     */
+    public JitterBuffer(int tickRate, float delayTicks){
+        mTickNanos = 1000000000L / tickRate;
+        mDelayNanos = (long) (delayTicks * mTickNanos);
+        mHistory = new SnapshotHistory(64);
+    }
+
+    /**
+     * This method adds a snapshot as it arrives
+     * @param snapshot the snapshot, copied
+     * @param nowNanos when it arrived
+     */
+    public void add(NetSnapshot snapshot, long nowNanos){
+        boolean newest = snapshot.getTick() > mHistory.getLatestTick();
+        mHistory.put(snapshot);
+        if (!newest){
+            return;
+        }
+
+        // Late arrivals say nothing new about the clock, so only the newest count
+        long offset = snapshot.getTick() * mTickNanos - nowNanos;
+        if (!mHaveClock){
+            mClockOffset = offset;
+            mHaveClock = true;
+        } else {
+            mClockOffset += (offset - mClockOffset) >> CLOCK_SMOOTHING;
+        }
+    }
+
+    /**
+     * This method works out where everything is at a moment, read the result with get
+     * @param nowNanos the moment, on the same clock add was given
+     * @return false if nothing has arrived yet
+     */
+    public boolean sample(long nowNanos){
+        int latest = mHistory.getLatestTick();
+        if (latest < 0){
+            return false;
+        }
+        float tick = (float) (nowNanos + mClockOffset - mDelayNanos) / mTickNanos;
+        mSampleTick = tick;
+
+        // The snapshots either side, looking past any that were lost
+        int floor = (int) Math.floor(tick);
+        NetSnapshot before = null;
+        for (int t = Math.min(floor, latest); t >= latest - 63 && before == null; t--){
+            before = mHistory.get(t);
+        }
+        NetSnapshot after = null;
+        for (int t = Math.max(floor + 1, latest - 63); t <= latest && after == null; t++){
+            after = mHistory.get(t);
+        }
+
+        if (after == null){
+            // Nothing newer yet, hold the newest
+            mHolds++;
+            fill(before, before, 0);
+        } else if (before == null){
+            fill(after, after, 0);
+        } else {
+            float fraction = (tick - before.getTick()) / (after.getTick() - before.getTick());
+            fill(before, after, fraction);
+        }
+        return true;
+    }
+
+    private void fill(NetSnapshot from, NetSnapshot to, float fraction){
+        for (int seat = 0; seat < NetSnapshot.SEATS; seat++){
+            for (int field = 0; field < NetSnapshot.FIELDS_PER_SEAT; field++){
+                int a = from.get(seat, field);
+                int b = to.get(seat, field);
+                // Only positions slide, counts jump when the newer snapshot is reached
+                float value = isPosition(field) ? a + (b - a) * fraction : (fraction < 1 ? a : b);
+                mValues[seat * NetSnapshot.FIELDS_PER_SEAT + field] = value;
+            }
+        }
+    }
+
+    private static boolean isPosition(int field){
+        return field >= NetSnapshot.BAT_X;
+    }
+
+    /**
+     * @param seat which seat
+     * @param field which field, like NetSnapshot.BALL_X
+     * @return the field's value at the last sample, positions are fixed point
+     */
+    public float get(int seat, int field){
+        return mValues[seat * NetSnapshot.FIELDS_PER_SEAT + field];
+    }
+
+    /**
+     * @return which server tick the last sample drew, with the fraction between ticks
+     */
+    public float getSampleTick(){ return mSampleTick; }
+
+    /**
+     * @return how many samples had to hold the newest snapshot because nothing newer had come
+     */
+    public long getHolds(){ return mHolds; }
+}
@@ -0,0 +1,117 @@
+package com.example.pong.core;
+
+import java.util.Arrays;
+
+/**
+ * This class counts how long something took, in nanoseconds, without keeping every value
+ * Each power of two is split into 32 equal buckets, so any value is
+ * known to within about 3% and the whole range of a long fits in a fixed array.
+ * Recording never allocates
+ */
+public class LatencyHistogram {
+
+    // Buckets per power of two, as a number of bits
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    // Enough buckets for the largest long
+    private static final int BUCKETS = (63 - SUB_BITS) * SUB_COUNT + 2 * SUB_COUNT;
+
+    private final long[] mCounts = new long[BUCKETS];
+    private long mCount;
+    private long mMin = Long.MAX_VALUE;
+    private long mMax;
+    private long mTotal;
+
+    /**
+     * This method adds one value
+     * @param nanos the value, negative values are counted as 0
+     */
+    public void record(long nanos){
+        if (nanos < 0){
+            nanos = 0;
+        }
+        mCounts[bucketOf(nanos)]++;
+        mCount++;
+        mTotal += nanos;
+        if (nanos < mMin){
+            mMin = nanos;
+        }
+        if (nanos > mMax){
+            mMax = nanos;
+        }
+    }
+
+    /**
+     * This method forgets every value
+     */
+    public void reset(){
+        Arrays.fill(mCounts, 0);
+        mCount = 0;
+        mMin = Long.MAX_VALUE;
+        mMax = 0;
+        mTotal = 0;
+    }
+
+    private static int bucketOf(long value){
+        if (value < SUB_COUNT){
+            return (int) value;
+        }
+        // Keep the top SUB_BITS + 1 bits of the value
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return shift * SUB_COUNT + (int) (value >>> shift);
+    }
+
+    private static long highestValueIn(int bucket){
+        if (bucket < SUB_COUNT){
+            return bucket;
+        }
+        int shift = bucket / SUB_COUNT - 1;
+        long top = bucket - shift * SUB_COUNT;
+        return ((top + 1) << shift) - 1;
+    }
+
+    /**
+     * This method finds the value a percentage of the values are at or below
+     * @param percentile 0 to 100, like 99.9
+     * @return the value, never more than the largest recorded, 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile){
+        if (mCount == 0){
+            return 0;
+        }
+        // How many values have to be at or below the answer
+        long needed = (long) Math.ceil(mCount * Math.min(100, Math.max(0, percentile)) / 100);
+        if (needed < 1){
+            needed = 1;
+        }
+
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++){
+            seen += mCounts[i];
+            if (seen >= needed){
+                return Math.max(mMin, Math.min(mMax, highestValueIn(i)));
+            }
+        }
+        return mMax;
+    }
+
+    /**
+     * @return how many values have been recorded
+     */
+    public long getCount(){ return mCount; }
+
+    /**
+     * @return the smallest value recorded, 0 if nothing was recorded
+     */
+    public long getMin(){ return mCount == 0 ? 0 : mMin; }
+
+    /**
+     * @return the largest value recorded
+     */
+    public long getMax(){ return mMax; }
+
+    /**
+     * @return the average of the values recorded, 0 if nothing was recorded
+     */
+    public double getMean(){ return mCount == 0 ? 0 : (double) mTotal / mCount; }
+}
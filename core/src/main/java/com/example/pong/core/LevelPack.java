@@ -0,0 +1,180 @@
+package com.example.pong.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * This class reads levels straight out of a binary level pack
+ * Nothing is decoded up front, every getter reads the few bytes it needs
+ * from the buffer, so a memory mapped pack is paged in only as levels are played
+ * and switching level costs a handful of reads
+ *
+ * Layout, big endian
+ * int MAGIC, int VERSION, int level count, then an int offset for each level.
+ * Each level is float speed up, u16 bat width, u16 bat height, u16 obstacle count,
+ * then for each obstacle u16 x, u16 y, u16 width, u16 height and a signed short velocity.
+ * Positions and sizes are fractions of the screen out of 65535, x is the left edge
+ * and y the top. Velocity is in thousandths of the screen width per second
+ */
+public final class LevelPack {
+
+    public static final int MAGIC = 0x504C564C;
+    public static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 12;
+    static final int LEVEL_SIZE = 10;
+    static final int OBSTACLE_SIZE = 10;
+    static final float FRACTION = 65535f;
+    static final float VELOCITY = 1000f;
+
+    private final ByteBuffer mBuffer;
+    private final int mLevelCount;
+
+    private LevelPack(ByteBuffer buffer) throws IOException {
+        mBuffer = buffer;
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC){
+            throw new IOException("not a level pack");
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION){
+            throw new IOException("unsupported level pack version " + version);
+        }
+        mLevelCount = buffer.getInt(8);
+        if (mLevelCount < 0 || HEADER_SIZE + mLevelCount * 4L > buffer.limit()){
+            throw new IOException("level pack has a bad level count " + mLevelCount);
+        }
+
+        // Only the table is checked here, so a bad offset fails now rather than mid game
+        for (int level = 0; level < mLevelCount; level++){
+            int offset = offset(level);
+            if (offset < 0 || offset + LEVEL_SIZE > buffer.limit()
+                    || offset + LEVEL_SIZE + (long) getObstacleCount(level) * OBSTACLE_SIZE > buffer.limit()){
+                throw new IOException("level " + level + " is outside the pack");
+            }
+        }
+    }
+
+    /**
+     * This method reads a pack held in a buffer, which is used as it is
+     * @param buffer the pack, from its position to its limit
+     * @return the pack
+     * @throws IOException if the bytes are not a level pack this version understands
+     */
+    public static LevelPack wrap(ByteBuffer buffer) throws IOException {
+        return new LevelPack(buffer.slice());
+    }
+
+    /**
+     * This method memory maps a pack file
+     * The mapping stays valid after the file is closed
+     * @param file the pack
+     * @return the pack
+     * @throws IOException if it could not be mapped or is not a level pack
+     */
+    public static LevelPack map(File file) throws IOException {
+        try (FileInputStream in = new FileInputStream(file)){
+            FileChannel channel = in.getChannel();
+            return map(channel, 0, channel.size());
+        }
+    }
+
+    /**
+     * This method memory maps a pack from part of a file
+     * such as an uncompressed asset inside an apk
+     * @param channel the file holding the pack
+     * @param offset where the pack starts
+     * @param length how long the pack is
+     * @return the pack
+     * @throws IOException if it could not be mapped or is not a level pack
+     */
+    public static LevelPack map(FileChannel channel, long offset, long length) throws IOException {
+        return new LevelPack(channel.map(FileChannel.MapMode.READ_ONLY, offset, length));
+    }
+
+    /**
+     * This method reads a whole pack from a stream, for when it can't be mapped
+     * @param in the stream, left open
+     * @return the pack
+     * @throws IOException if it could not be read or is not a level pack
+     */
+    public static LevelPack read(InputStream in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = in.read(chunk)) != -1){
+            bytes.write(chunk, 0, read);
+        }
+        return new LevelPack(ByteBuffer.wrap(bytes.toByteArray()));
+    }
+
+    private int offset(int level){
+        if (level < 0 || level >= mLevelCount){
+            throw new IndexOutOfBoundsException("level " + level + " of " + mLevelCount);
+        }
+        return mBuffer.getInt(HEADER_SIZE + level * 4);
+    }
+
+    private int obstacle(int level, int obstacle){
+        if (obstacle < 0 || obstacle >= getObstacleCount(level)){
+            throw new IndexOutOfBoundsException("obstacle " + obstacle + " of level " + level);
+        }
+        return offset(level) + LEVEL_SIZE + obstacle * OBSTACLE_SIZE;
+    }
+
+    private float fraction(int at){
+        return (mBuffer.getShort(at) & 0xFFFF) / FRACTION;
+    }
+
+    public int getLevelCount(){ return mLevelCount; }
+
+    /**
+     * @return how much a ball speeds up each time it hits something in this level
+     */
+    public float getSpeedUp(int level){ return mBuffer.getFloat(offset(level)); }
+
+    /**
+     * @return the width of the bat as a fraction of the screen width
+     */
+    public float getBatWidth(int level){ return fraction(offset(level) + 4); }
+
+    /**
+     * @return the height of the bat as a fraction of the screen height
+     */
+    public float getBatHeight(int level){ return fraction(offset(level) + 6); }
+
+    public int getObstacleCount(int level){
+        return mBuffer.getShort(offset(level) + 8) & 0xFFFF;
+    }
+
+    /**
+     * @return the left edge of the obstacle as a fraction of the screen width
+     */
+    public float getObstacleX(int level, int obstacle){ return fraction(obstacle(level, obstacle)); }
+
+    /**
+     * @return the top edge of the obstacle as a fraction of the screen height
+     */
+    public float getObstacleY(int level, int obstacle){ return fraction(obstacle(level, obstacle) + 2); }
+
+    /**
+     * @return the width of the obstacle as a fraction of the screen width
+     */
+    public float getObstacleWidth(int level, int obstacle){ return fraction(obstacle(level, obstacle) + 4); }
+
+    /**
+     * @return the height of the obstacle as a fraction of the screen height
+     */
+    public float getObstacleHeight(int level, int obstacle){ return fraction(obstacle(level, obstacle) + 6); }
+
+    /**
+     * @return how fast the obstacle slides, in screen widths per second
+     */
+    public float getObstacleVelocity(int level, int obstacle){
+        return mBuffer.getShort(obstacle(level, obstacle) + 8) / VELOCITY;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.pong.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * This class builds a level pack in the layout LevelPack reads
+ * It is for tools and tests, the game only ever reads packs
+ */
+public class LevelPackWriter {
+
+    private ByteArrayOutputStream mLevels = new ByteArrayOutputStream();
+    private DataOutputStream mOut = new DataOutputStream(mLevels);
+
+    // Where each level starts and how many obstacles it has
+    // The counts are filled into the levels when the pack is written
+    private int[] mOffsets = new int[8];
+    private int[] mCounts = new int[8];
+    private int mLevelCount;
+
+    /**
+     * This method starts a new level, the obstacles added next belong to it
+     * @param speedUp how much a ball speeds up each time it hits something
+     * @param batWidth width of the bat as a fraction of the screen width
+     * @param batHeight height of the bat as a fraction of the screen height
+     * @return this writer
+     * @throws IOException never, the level is kept in memory
+     */
+    public LevelPackWriter addLevel(float speedUp, float batWidth, float batHeight) throws IOException {
+        if (mLevelCount == mOffsets.length){
+            mOffsets = Arrays.copyOf(mOffsets, mLevelCount * 2);
+            mCounts = Arrays.copyOf(mCounts, mLevelCount * 2);
+        }
+        mOffsets[mLevelCount] = mOut.size();
+        mCounts[mLevelCount] = 0;
+        mLevelCount++;
+        mOut.writeFloat(speedUp);
+        mOut.writeShort(fraction(batWidth));
+        mOut.writeShort(fraction(batHeight));
+        mOut.writeShort(0);
+        return this;
+    }
+
+    /**
+     * This method adds an obstacle to the level being written
+     * @param x left edge as a fraction of the screen width
+     * @param y top edge as a fraction of the screen height
+     * @param width width as a fraction of the screen width
+     * @param height height as a fraction of the screen height
+     * @param velocity how fast it slides in screen widths per second
+     * @return this writer
+     * @throws IOException never, the obstacle is kept in memory
+     */
+    public LevelPackWriter addObstacle(float x, float y, float width, float height, float velocity)
+            throws IOException {
+        if (mLevelCount == 0){
+            throw new IllegalStateException("add a level first");
+        }
+        if (mCounts[mLevelCount - 1] == 0xFFFF){
+            throw new IllegalStateException("too many obstacles in level " + (mLevelCount - 1));
+        }
+        int speed = Math.round(velocity * LevelPack.VELOCITY);
+        if (speed < Short.MIN_VALUE || speed > Short.MAX_VALUE){
+            throw new IllegalArgumentException("velocity " + velocity + " is too fast");
+        }
+        mOut.writeShort(fraction(x));
+        mOut.writeShort(fraction(y));
+        mOut.writeShort(fraction(width));
+        mOut.writeShort(fraction(height));
+        mOut.writeShort(speed);
+        mCounts[mLevelCount - 1]++;
+        return this;
+    }
+
+    /**
+     * This method writes the pack
+     * @param out where to write, left open
+     * @throws IOException if it could not be written
+     */
+    public void write(OutputStream out) throws IOException {
+        byte[] levels = mLevels.toByteArray();
+        for (int level = 0; level < mLevelCount; level++){
+            int at = mOffsets[level] + 8;
+            levels[at] = (byte) (mCounts[level] >>> 8);
+            levels[at + 1] = (byte) mCounts[level];
+        }
+        int start = LevelPack.HEADER_SIZE + mLevelCount * 4;
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(LevelPack.MAGIC);
+        data.writeInt(LevelPack.VERSION);
+        data.writeInt(mLevelCount);
+        for (int level = 0; level < mLevelCount; level++){
+            data.writeInt(start + mOffsets[level]);
+        }
+        data.write(levels);
+        data.flush();
+    }
+
+    /**
+     * This method writes the pack into a new byte array
+     * @return the pack
+     * @throws IOException never, the pack is written to memory
+     */
+    public byte[] toBytes() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * This method writes the pack to a file, replacing it
+     * @param file where to write
+     * @throws IOException if it could not be written
+     */
+    public void write(File file) throws IOException {
+        try (OutputStream out = new FileOutputStream(file)){
+            write(out);
+        }
+    }
+
+    private static int fraction(float value){
+        if (value < 0 || value > 1){
+            throw new IllegalArgumentException("fraction " + value + " is not between 0 and 1");
+        }
+        return Math.round(value * LevelPack.FRACTION);
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.pong.core;
+
+/**
+ * This class is what the server tells a client about a match each tick
+ * Positions are quantised to fixed point fractions of the screen, so the
+ * same snapshot fits any screen size, and every field is an int.
+ *
+ * On the wire a snapshot is bit packed, int tick, then a bit saying whether
+ * it is a delta, and if so 8 bits saying how many ticks back the baseline is.
+ * A full snapshot writes every field at its width. A delta writes each field as
+ * 0 unchanged, 10 and an 8 bit change, 110 and an 11 bit change, or 111 and the value.
+ * Changes are zigzag coded so small steps either way stay small.
+ * The baseline is the last snapshot the client said it received,
+ * so a lost snapshot never leaves the client unable to decode the next one
+ */
+public class NetSnapshot {
+
+    // Every match has two players
+    public static final int SEATS = 2;
+
+    // The fields for each seat
+    // How many of that seat's player's inputs the server has used,
+    // one more than the number of the last one, so 0 is none
+    public static final int INPUTS_USED = 0;
+    public static final int SCORE = 1;
+    public static final int LIVES = 2;
+    public static final int BAT_X = 3;
+    public static final int BALL_X = 4;
+    public static final int BALL_Y = 5;
+    public static final int OBSTACLE_X = 6;
+    public static final int FIELDS_PER_SEAT = 7;
+    public static final int FIELD_COUNT = SEATS * FIELDS_PER_SEAT;
+
+    // Positions are fractions of the screen out of this
+    public static final int POSITION_BITS = 14;
+    public static final int MAX_POSITION = (1 << POSITION_BITS) - 1;
+
+    private static final int[] WIDTHS = {30, 20, 8, POSITION_BITS, POSITION_BITS, POSITION_BITS, POSITION_BITS};
+
+    private static final int TICK_BITS = 32;
+    private static final int DISTANCE_BITS = 8;
+    private static final int MAX_DISTANCE = (1 << DISTANCE_BITS) - 1;
+
+    // The most bytes a snapshot can take, every field written in full after a prefix
+    public static final int MAX_BYTES;
+    static {
+        int bits = TICK_BITS + 1 + DISTANCE_BITS;
+        for (int field = 0; field < FIELDS_PER_SEAT; field++){
+            bits += SEATS * (3 + WIDTHS[field]);
+        }
+        MAX_BYTES = (bits + 7) / 8;
+    }
+
+    private int mTick = -1;
+    private final int[] mValues = new int[FIELD_COUNT];
+
+    /**
+     * This method fills in one seat from its game
+     * @param seat which seat
+     * @param game the seat's game
+     * @param inputsUsed how many inputs from that seat's player the server has used
+     */
+    public void capture(int seat, PongSimulation game, int inputsUsed){
+        int at = seat * FIELDS_PER_SEAT;
+        int screenX = game.getScreenX();
+        FloatRect ball = game.getBall().getRect();
+        Obstacle obstacle = game.getObstacle();
+
+        mValues[at + INPUTS_USED] = inputsUsed;
+        mValues[at + SCORE] = Math.min(game.getScore(), (1 << WIDTHS[SCORE]) - 1);
+        mValues[at + LIVES] = game.getLives();
+        mValues[at + BAT_X] = quantize(game.getBat().getRect().left, screenX);
+        mValues[at + BALL_X] = quantize(ball.left, screenX);
+        mValues[at + BALL_Y] = quantize(ball.top, game.getScreenY());
+        mValues[at + OBSTACLE_X] = obstacle == null ? 0 : quantize(obstacle.getRect().left, screenX);
+    }
+
+    /**
+     * This method turns a position on the screen into fixed point
+     * @param pixels the position
+     * @param screen the size of the screen that way
+     * @return the position out of MAX_POSITION
+     */
+    public static int quantize(float pixels, int screen){
+        int value = Math.round(pixels / screen * MAX_POSITION);
+        return Math.max(0, Math.min(MAX_POSITION, value));
+    }
+
+    /**
+     * This method turns a fixed point position, maybe interpolated, back into pixels
+     * @param value the position out of MAX_POSITION
+     * @param screen the size of the screen that way
+     * @return the position in pixels
+     */
+    public static float toPixels(float value, int screen){
+        return value * screen / MAX_POSITION;
+    }
+
+    /**
+     * This method packs the snapshot
+     * @param baseline what the client already has, or null to send everything
+     * @param out where to write
+     */
+    public void write(NetSnapshot baseline, BitWriter out){
+        int distance = baseline == null ? 0 : mTick - baseline.mTick;
+        boolean delta = distance > 0 && distance <= MAX_DISTANCE;
+
+        out.write(mTick, TICK_BITS);
+        out.writeBoolean(delta);
+        if (delta){
+            out.write(distance, DISTANCE_BITS);
+        }
+        for (int i = 0; i < FIELD_COUNT; i++){
+            int width = WIDTHS[i % FIELDS_PER_SEAT];
+            if (!delta){
+                out.write(mValues[i], width);
+                continue;
+            }
+            int change = mValues[i] - baseline.mValues[i];
+            int zigzag = (change << 1) ^ (change >> 31);
+            if (change == 0){
+                out.write(0, 1);
+            } else if ((zigzag >>> 8) == 0){
+                out.write(0b10, 2);
+                out.write(zigzag, 8);
+            } else if ((zigzag >>> 11) == 0){
+                out.write(0b110, 3);
+                out.write(zigzag, 11);
+            } else {
+                out.write(0b111, 3);
+                out.write(mValues[i], width);
+            }
+        }
+    }
+
+    /**
+     * This method unpacks a snapshot
+     * @param in where to read
+     * @param history the snapshots already received, to find the baseline in
+     * @return false if the baseline is no longer in the history, the snapshot is then unchanged
+     */
+    public boolean read(BitReader in, SnapshotHistory history){
+        int tick = in.read(TICK_BITS);
+        NetSnapshot baseline = null;
+        if (in.readBoolean()){
+            baseline = history.get(tick - in.read(DISTANCE_BITS));
+            if (baseline == null){
+                return false;
+            }
+        }
+
+        mTick = tick;
+        for (int i = 0; i < FIELD_COUNT; i++){
+            int width = WIDTHS[i % FIELDS_PER_SEAT];
+            if (baseline == null){
+                mValues[i] = in.read(width);
+            } else if (!in.readBoolean()){
+                mValues[i] = baseline.mValues[i];
+            } else if (!in.readBoolean()){
+                mValues[i] = baseline.mValues[i] + unzigzag(in.read(8));
+            } else if (!in.readBoolean()){
+                mValues[i] = baseline.mValues[i] + unzigzag(in.read(11));
+            } else {
+                mValues[i] = in.read(width);
+            }
+        }
+        return true;
+    }
+
+    private static int unzigzag(int zigzag){
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    /**
+     * This method makes this snapshot the same as another
+     * @param other the snapshot to copy
+     */
+    public void copyFrom(NetSnapshot other){
+        mTick = other.mTick;
+        System.arraycopy(other.mValues, 0, mValues, 0, FIELD_COUNT);
+    }
+
+    public int getTick(){ return mTick; }
+
+    public void setTick(int tick){ mTick = tick; }
+
+    /**
+     * @param seat which seat
+     * @param field which field, like BALL_X
+     * @return the field's value
+     */
+    public int get(int seat, int field){
+        return mValues[seat * FIELDS_PER_SEAT + field];
+    }
+
+    /**
+     * @param seat which seat
+     * @param field which field, like BALL_X
+     * @param value the field's value
+     */
+    public void set(int seat, int field, int value){
+        mValues[seat * FIELDS_PER_SEAT + field] = value;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.pong.core;
+
+/**
+ * This class contains the control variables for a bat like object
+ * The position, size and velocity live in an EntityStore,
+ * the obstacle is a view onto its slot
+ */
+public class Obstacle {
+
+    private EntityStore mStore;
+    private int mIndex;
+    private int mScreenX;
+    private float mStartX;
+
+    // Filled from the store each time getRect is called
+    private FloatRect mRect = new FloatRect();
+
+    /**
+     * This method initializes the data for an obstacle with a store of its own
+     * @param sx Width of the game screen
+     * @param sy Height of the game screen
+     * @param px position of the obstacle in x plane
+     * @param py position of the obstacle in y plane
+     * @param vel velocity of the obstacle
+     */
+    public Obstacle(int sx, int sy, float px, float py, int vel){
+        this(new EntityStore(1), sx, sy, px, py, vel);
+    }
+
+    /**
+     * This method initializes the data for an obstacle in a shared store
+     * @param store the store to add the obstacle to
+     * @param sx Width of the game screen
+     * @param sy Height of the game screen
+     * @param px position of the obstacle in x plane
+     * @param py position of the obstacle in y plane
+     * @param vel velocity of the obstacle
+     */
+    public Obstacle(EntityStore store, int sx, int sy, float px, float py, int vel){
+        this(store, sx);
+
+        float length = mScreenX / 6;
+        float height = sy / 40;
+
+        place(px, py, length, height, vel);
+    }
+
+    /**
+     * This method creates an obstacle that is not in the store yet, place adds it
+     * @param store the store the obstacle will be added to
+     * @param sx Width of the game screen
+     */
+    Obstacle(EntityStore store, int sx){
+        mStore = store;
+        mScreenX = sx;
+    }
+
+    /**
+     * This method adds the obstacle to the end of its store
+     * so the same object can be used again after the store is truncated
+     * @param px position of the obstacle in x plane
+     * @param py position of the obstacle in y plane
+     * @param length width of the obstacle
+     * @param height height of the obstacle
+     * @param vel velocity of the obstacle
+     */
+    void place(float px, float py, float length, float height, float vel){
+        mStartX = px;
+        mIndex = mStore.add(px, py, length, height, vel, 0);
+    }
+
+    /**
+     * This method resets the object to its initial state
+     */
+    public void reset(){
+        mStore.mX[mIndex] = mStartX;
+    }
+
+    /**
+     * THis method returns the bounds of the obstacle
+     * @return reference to a Rect refreshed from the store on every call
+     */
+    public FloatRect getRect() {
+        mStore.getRect(mIndex, mRect);
+        return mRect;
+    }
+
+    /**
+     * @return the slot of the obstacle in its store
+     */
+    public int getIndex(){ return mIndex; }
+
+    public float getXVelocity(){ return mStore.mVX[mIndex]; }
+
+    /**
+     * @return where the obstacle goes back to when the game is reset
+     */
+    public float getStartX(){ return mStartX; }
+
+    /**
+     * This method reverses the travel velocity of the obstacle
+     */
+    public void reverseVelocity() { mStore.mVX[mIndex] = -mStore.mVX[mIndex]; }
+
+    /**
+     * This method controlls what the behaviour of the obstacle each frame / loop
+     * The simulation moves every obstacle at once with EntityStore.integrate
+     * and EntityStore.bounceHorizontal instead
+     * @param dt how many seconds of game time to move forward
+     */
+    public void update(float dt){
+        float left = mStore.mX[mIndex] + (mStore.mVX[mIndex] * dt);
+        mStore.mX[mIndex] = left;
+
+        if (left + mStore.mW[mIndex] >  mScreenX || left < 0) {
+            reverseVelocity();
+        }
+    }
+
+
+}
@@ -0,0 +1,235 @@
+package com.example.pong.core;
+
+/**
+ * This class moves and draws lots of short lived particles, like sparks
+ * Every particle lives in flat arrays sized once when the system is made,
+ * a particle that dies is replaced by the last one so the live ones stay packed
+ * at the front and nothing is allocated however many come and go.
+ * Each particle has a style, a colour and size, and all the particles
+ * of one style are drawn by a single call
+ */
+public class ParticleSystem {
+
+    // The most styles a system can have
+    public static final int MAX_STYLES = 8;
+
+    // The particles, the first mCount of each array are alive
+    private final int mCapacity;
+    private final float[] mX;
+    private final float[] mY;
+    private final float[] mVX;
+    private final float[] mVY;
+    private final float[] mLife;
+    private final byte[] mStyle;
+    private int mCount;
+
+    // Particles that did not fit
+    private long mDropped;
+
+    // Downward pull in pixels per second per second
+    private final float mGravity;
+
+    // The styles
+    private final int[] mColors = new int[MAX_STYLES];
+    private final float[] mSizes = new float[MAX_STYLES];
+    private int mStyleCount;
+
+    // Where each particle is drawn this frame, x and y pairs grouped by style
+    private final float[] mPoints;
+    private final int[] mStyleStart = new int[MAX_STYLES];
+    private final int[] mStyleCounts = new int[MAX_STYLES];
+    private final FloatRect mBounds = new FloatRect();
+
+    // Length of the last update, so a frame can be drawn part way through it
+    private float mLastDt;
+
+    // Random directions, kept apart from the game's so sparks never change a replay
+    private final GameRandom mRandom;
+
+    /**
+     * This method creates an empty system
+     * @param capacity the most particles alive at once
+     * @param gravity downward pull in pixels per second per second
+     * @param seed seed for the directions particles fly in
+     */
+    public ParticleSystem(int capacity, float gravity, long seed){
+        mCapacity = capacity;
+        mX = new float[capacity];
+        mY = new float[capacity];
+        mVX = new float[capacity];
+        mVY = new float[capacity];
+        mLife = new float[capacity];
+        mStyle = new byte[capacity];
+        mPoints = new float[capacity * 2];
+        mGravity = gravity;
+        mRandom = new GameRandom(seed);
+    }
+
+    /**
+     * This method adds a style particles can be drawn in
+     * @param color ARGB colour
+     * @param size width of each particle in pixels
+     * @return the style number to emit with
+     */
+    public int addStyle(int color, float size){
+        if (mStyleCount == MAX_STYLES){
+            throw new IllegalStateException("too many particle styles");
+        }
+        mColors[mStyleCount] = color;
+        mSizes[mStyleCount] = size;
+        return mStyleCount++;
+    }
+
+    /**
+     * This method throws out a burst of particles in random directions
+     * Any that don't fit are dropped and counted
+     * @param style which style, from addStyle
+     * @param x horizontal position to start from
+     * @param y vertical position to start from
+     * @param count how many particles
+     * @param speed the fastest a particle flies, in pixels per second
+     * @param life how many seconds each lives for, the burst dies away over up to twice that
+     */
+    public void emit(int style, float x, float y, int count, float speed, float life){
+        int room = mCapacity - mCount;
+        if (count > room){
+            mDropped += count - room;
+            count = room;
+        }
+        for (int i = 0; i < count; i++){
+            int p = mCount++;
+            float angle = mRandom.nextFloat() * (float) (Math.PI * 2);
+            // Slow ones as well as fast ones so the burst fills in
+            float v = speed * (0.25f + 0.75f * mRandom.nextFloat());
+            mX[p] = x;
+            mY[p] = y;
+            mVX[p] = (float) Math.cos(angle) * v;
+            mVY[p] = (float) Math.sin(angle) * v;
+            mLife[p] = life * (1 + mRandom.nextFloat());
+            mStyle[p] = (byte) style;
+        }
+    }
+
+    /**
+     * This method moves every particle and recycles the ones that died
+     * @param dt how many seconds to move forward
+     */
+    public void update(float dt){
+        mLastDt = dt;
+        float fall = mGravity * dt;
+        int i = 0;
+        while (i < mCount){
+            float life = mLife[i] - dt;
+            if (life <= 0){
+                // The last particle takes this one's place and is looked at next
+                int last = --mCount;
+                mX[i] = mX[last];
+                mY[i] = mY[last];
+                mVX[i] = mVX[last];
+                mVY[i] = mVY[last];
+                mLife[i] = mLife[last];
+                mStyle[i] = mStyle[last];
+                continue;
+            }
+            mLife[i] = life;
+            mVY[i] += fall;
+            mX[i] += mVX[i] * dt;
+            mY[i] += mVY[i] * dt;
+            i++;
+        }
+    }
+
+    /**
+     * This method works out where to draw every particle this frame
+     * and groups them by style so each style is one draw call
+     * @param alpha how far through the last update to draw, 0 to 1
+     */
+    public void layout(float alpha){
+        int[] starts = mStyleStart;
+        int[] counts = mStyleCounts;
+        for (int s = 0; s < mStyleCount; s++){
+            counts[s] = 0;
+        }
+        for (int i = 0; i < mCount; i++){
+            counts[mStyle[i]]++;
+        }
+        int next = 0;
+        float largest = 0;
+        for (int s = 0; s < mStyleCount; s++){
+            starts[s] = next;
+            next += counts[s];
+            if (counts[s] > 0){
+                largest = Math.max(largest, mSizes[s]);
+            }
+            counts[s] = 0;
+        }
+
+        // Step back along the velocity to between the last two updates
+        float back = mLastDt * (1 - alpha);
+        float left = Float.MAX_VALUE;
+        float top = Float.MAX_VALUE;
+        float right = -Float.MAX_VALUE;
+        float bottom = -Float.MAX_VALUE;
+        float[] points = mPoints;
+        for (int i = 0; i < mCount; i++){
+            int s = mStyle[i];
+            int at = (starts[s] + counts[s]++) * 2;
+            float x = mX[i] - mVX[i] * back;
+            float y = mY[i] - mVY[i] * back;
+            points[at] = x;
+            points[at + 1] = y;
+            left = Math.min(left, x);
+            top = Math.min(top, y);
+            right = Math.max(right, x);
+            bottom = Math.max(bottom, y);
+        }
+
+        if (mCount == 0){
+            mBounds.set(0, 0, 0, 0);
+        } else {
+            float half = largest / 2;
+            mBounds.set(left - half, top - half, right + half, bottom + half);
+        }
+    }
+
+    /**
+     * This method draws the particles laid out by the last call to layout
+     * @param renderer where to draw
+     */
+    public void draw(Renderer renderer){
+        for (int s = 0; s < mStyleCount; s++){
+            int count = mStyleCounts[s];
+            if (count > 0){
+                renderer.setColor(mColors[s]);
+                renderer.fillSquares(mPoints, mStyleStart[s], count, mSizes[s]);
+            }
+        }
+    }
+
+    /**
+     * This method kills every particle
+     */
+    public void clear(){
+        mCount = 0;
+    }
+
+    /**
+     * @return how many particles are alive
+     */
+    public int getCount(){ return mCount; }
+
+    /**
+     * @return the most particles that can be alive at once
+     */
+    public int getCapacity(){ return mCapacity; }
+
+    /**
+     * @return how many particles were dropped because the system was full
+     */
+    public long getDropped(){ return mDropped; }
+
+    /**
+     * @return the area the particles laid out this frame cover, empty when there are none
+     */
+    public FloatRect getBounds(){ return mBounds; }
+}
@@ -0,0 +1,822 @@
+package com.example.pong.core;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class contains the rules of the pong game with no Android code
+ * so it can be run and tested on a plain JVM as fast as the CPU allows
+ */
+public class PongSimulation {
+
+    // What happened during a step
+    // step returns these OR'd together so the caller can react
+    public static final int EVENT_HIT_OBSTACLE = 1;
+    public static final int EVENT_HIT_BAT = 1 << 1;
+    public static final int EVENT_HIT_WALL = 1 << 2;
+    public static final int EVENT_MISS = 1 << 3;
+    public static final int EVENT_GAME_OVER = 1 << 4;
+
+    // How many lives a new game starts with
+    public static final int START_LIVES = 3;
+
+    // Holds the size of the play area
+    private int mScreenX;
+    private int mScreenY;
+
+    // The game objects
+    // The first ball is the one every game starts with, chaos mode adds more
+    // Obstacles come from the level, every one ever made is kept in the pool
+    // and the active ones are the first of them, so changing level makes nothing new
+    private ArrayList<Ball> mBalls = new ArrayList<>();
+    private ArrayList<Obstacle> mObstacles = new ArrayList<>();
+    private ArrayList<Obstacle> mObstaclePool = new ArrayList<>();
+    private Ball mBall;
+    private Bat mBat;
+
+    // How much a ball speeds up each time it hits the bat or an obstacle
+    private float mSpeedUp = DEFAULT_SPEED_UP;
+    public static final float DEFAULT_SPEED_UP = 1.1f;
+
+    // Where and how fast each extra ball starts a new game
+    // four floats per ball, x, y, x velocity, y velocity
+    private float[] mSpawns = new float[16];
+
+    // The current score and lives remaining
+    private int mScore;
+    private int mLives;
+
+    // This game's own random numbers so games never share state
+    private GameRandom mRandom;
+
+    // Times the update and collision phases of each step when set
+    private FrameProfile mProfile;
+
+    // Told where every hit happens when set, for effects like sparks
+    private CollisionListener mCollisionListener;
+
+    // Colours of the ball and bat, changed on every collision
+    private int mBallColor = OPAQUE_WHITE;
+    private int mBatColor = OPAQUE_WHITE;
+    private static final int OPAQUE_WHITE = 0xFFFFFFFF;
+
+    // The most hits the ball can make in one step
+    // Anything left over after that moves without being tested
+    private static final int MAX_IMPACTS = 4;
+
+    // Roughly how many broadphase cells across the shorter side of the screen
+    private static final int CELLS_ACROSS = 16;
+
+    // Below this many obstacles, or this many balls, testing them all is cheaper
+    // than rebuilding the grid every step. Building costs about as much as
+    // testing every obstacle for one ball, so it pays off from about 8 balls
+    // whatever the number of obstacles, see ChaosBenchmark
+    private static final int BROADPHASE_MIN_OBSTACLES = 8;
+    private static final int BROADPHASE_MIN_BALLS = 8;
+
+    // Which obstacles each ball needs to test, false tests them all
+    private SpatialHash mHash;
+    private boolean mBroadphase = true;
+    private boolean mUseHash;
+    private int[] mCandidates = new int[16];
+
+    // Every ball and every obstacle lives in one of these
+    // so each kind can be moved in one pass over flat arrays
+    private EntityStore mBallStore = new EntityStore(16);
+    private EntityStore mObsStore = new EntityStore(16);
+
+    // Where the objects were at the start of the step
+    private float[] mBallStartX = new float[16];
+    private float[] mBallStartY = new float[16];
+    private float[] mObsStartX = new float[16];
+    private float[] mObsStartY = new float[16];
+    private FloatRect mBatStart = new FloatRect();
+    private FloatRect mBatEnd = new FloatRect();
+
+    // Scratch rectangles for the sweep so nothing is allocated per step
+    private FloatRect mBallAt = new FloatRect();
+    private FloatRect mTargetAt = new FloatRect();
+
+    /**
+     * This method sets up a game the size of the play area
+     * @param x the horizontal size of the play area
+     * @param y the vertical size of the play area
+     */
+    public PongSimulation(int x, int y){
+        this(x, y, System.nanoTime());
+    }
+
+    /**
+     * This method sets up a game the size of the play area with a known seed
+     * @param x the horizontal size of the play area
+     * @param y the vertical size of the play area
+     * @param seed seed for this game's random numbers
+     */
+    public PongSimulation(int x, int y, long seed){
+        mScreenX = x;
+        mScreenY = y;
+        mRandom = new GameRandom(seed);
+
+        // Size the broadphase cells from the screen
+        mHash = new SpatialHash(mScreenX, mScreenY,
+                Math.min(mScreenX, mScreenY) / (float) CELLS_ACROSS);
+
+        // Initialize the bat, ball and obstacle
+        mBall = new Ball(mBallStore, mScreenX);
+        mBalls.add(mBall);
+        mBat = new Bat(mScreenX, mScreenY);
+        addObstacle(mScreenX / 2, mScreenY / 4, mScreenX / 3);
+
+        startNewGame();
+    }
+
+    /**
+     * This method adds another ball for chaos mode
+     * @param x horizontal position of the left edge
+     * @param y vertical position of the top edge
+     * @param xVelocity horizontal speed in pixels per second
+     * @param yVelocity vertical speed in pixels per second
+     * @return the new ball
+     */
+    public Ball addBall(float x, float y, float xVelocity, float yVelocity){
+        Ball ball = new Ball(mBallStore, mScreenX);
+        ball.setPosition(x, y);
+        ball.setVelocity(xVelocity, yVelocity);
+
+        int at = mBalls.size() * 4;
+        if (at + 4 > mSpawns.length){
+            mSpawns = Arrays.copyOf(mSpawns, mSpawns.length * 2);
+        }
+        mSpawns[at] = x;
+        mSpawns[at + 1] = y;
+        mSpawns[at + 2] = xVelocity;
+        mSpawns[at + 3] = yVelocity;
+
+        mBalls.add(ball);
+        if (mBallStartX.length < mBalls.size()){
+            mBallStartX = new float[mBalls.size() * 2];
+            mBallStartY = new float[mBalls.size() * 2];
+        }
+        return ball;
+    }
+
+    /**
+     * This method adds another obstacle
+     * @param px position of the obstacle in x plane
+     * @param py position of the obstacle in y plane
+     * @param vel velocity of the obstacle
+     * @return the new obstacle
+     */
+    public Obstacle addObstacle(float px, float py, int vel){
+        return addObstacle(px, py, mScreenX / 6, mScreenY / 40, vel);
+    }
+
+    /**
+     * This method adds another obstacle of a chosen size
+     * reusing one from the pool if there is one spare
+     * @param px position of the obstacle in x plane
+     * @param py position of the obstacle in y plane
+     * @param length width of the obstacle
+     * @param height height of the obstacle
+     * @param vel velocity of the obstacle
+     * @return the new obstacle
+     */
+    public Obstacle addObstacle(float px, float py, float length, float height, float vel){
+        Obstacle obs;
+        if (mObstacles.size() < mObstaclePool.size()){
+            obs = mObstaclePool.get(mObstacles.size());
+        } else {
+            obs = new Obstacle(mObsStore, mScreenX);
+            mObstaclePool.add(obs);
+        }
+        obs.place(px, py, length, height, vel);
+        mObstacles.add(obs);
+        if (mCandidates.length < mObstacles.size()){
+            mCandidates = new int[mObstacles.size() * 2];
+            mObsStartX = new float[mObstacles.size() * 2];
+            mObsStartY = new float[mObstacles.size() * 2];
+        }
+        return obs;
+    }
+
+    /**
+     * This method removes every obstacle, they go back to the pool
+     */
+    public void clearObstacles(){
+        mObstacles.clear();
+        mObsStore.truncate(0);
+    }
+
+    /**
+     * This method sets the game up for a level and starts a new game
+     * Sizes and positions are rounded to whole pixels.
+     * Nothing is allocated unless the level has more obstacles than any before it
+     * @param pack the levels
+     * @param level which level to play
+     */
+    public void loadLevel(LevelPack pack, int level){
+        mSpeedUp = pack.getSpeedUp(level);
+        mBat.setSize(Math.round(pack.getBatWidth(level) * mScreenX),
+                Math.round(pack.getBatHeight(level) * mScreenY), mScreenY);
+
+        clearObstacles();
+        int count = pack.getObstacleCount(level);
+        for (int i = 0; i < count; i++){
+            addObstacle(Math.round(pack.getObstacleX(level, i) * mScreenX),
+                    Math.round(pack.getObstacleY(level, i) * mScreenY),
+                    Math.round(pack.getObstacleWidth(level, i) * mScreenX),
+                    Math.round(pack.getObstacleHeight(level, i) * mScreenY),
+                    Math.round(pack.getObstacleVelocity(level, i) * mScreenX));
+        }
+
+        startNewGame();
+    }
+
+    /**
+     * This method chooses how each ball finds the obstacles it might hit
+     * @param enabled true to use the spatial hash when there are enough balls and obstacles
+     *                for it to be quicker, false to always test every obstacle
+     */
+    public void setBroadphase(boolean enabled){
+        mBroadphase = enabled;
+    }
+
+    /**
+     * This method times the update and collision phases of every step
+     * @param profile where to record the times, null to stop timing
+     */
+    public void setProfile(FrameProfile profile){
+        mProfile = profile;
+    }
+
+    /**
+     * This method passes every hit to a listener as it is found
+     * @param listener who to tell, null to stop telling anyone
+     */
+    public void setCollisionListener(CollisionListener listener){
+        mCollisionListener = listener;
+    }
+
+    /**
+     * This method moves the game forward
+     * @param dt how many seconds of game time to move forward
+     * @return the EVENT_ flags for everything that happened during the step
+     */
+    public int step(float dt){
+        FrameProfile profile = mProfile;
+        long startTime = profile != null ? System.nanoTime() : 0;
+
+        // Remember where everything started
+        mBatStart.set(mBat.getRect());
+        mBallStore.copyPositions(mBallStartX, mBallStartY);
+        mObsStore.copyPositions(mObsStartX, mObsStartY);
+
+        // update bat and obstacles
+        mBat.update(dt);
+        mBatEnd.set(mBat.getRect());
+        mObsStore.integrate(dt);
+        mObsStore.bounceHorizontal(mScreenX);
+
+        // Move every ball as if nothing is in the way,
+        // the few that hit something are moved again below
+        mBallStore.integrate(dt);
+
+        long updatedTime = 0;
+        if (profile != null){
+            updatedTime = System.nanoTime();
+            profile.record(FrameProfile.UPDATE, updatedTime - startTime);
+        }
+
+        int obstacles = mObsStore.size();
+        mUseHash = mBroadphase && obstacles >= BROADPHASE_MIN_OBSTACLES
+                && mBalls.size() >= BROADPHASE_MIN_BALLS;
+        if (mUseHash){
+            // File each obstacle under everywhere it passed through this step
+            float[] endX = mObsStore.mX;
+            float[] endY = mObsStore.mY;
+            float[] w = mObsStore.mW;
+            float[] h = mObsStore.mH;
+            mHash.clear();
+            for (int i = 0; i < obstacles; i++){
+                mHash.add(Math.min(mObsStartX[i], endX[i]), Math.min(mObsStartY[i], endY[i]),
+                        Math.max(mObsStartX[i], endX[i]) + w[i],
+                        Math.max(mObsStartY[i], endY[i]) + h[i]);
+            }
+            mHash.build();
+        }
+
+        int events = 0;
+        for (int b = 0; b < mBalls.size(); b++){
+            Ball ball = mBalls.get(b);
+
+            // Sweep the ball along its path so it can't skip over anything
+            events |= moveBall(ball, dt);
+
+            // Now bat and ball are in new positions, detect collisions with the walls
+            events |= detectWallCollisions(ball);
+            if ((events & EVENT_GAME_OVER) != 0){
+                // Everything has been put back for the new game
+                break;
+            }
+
+            updateContacts(ball);
+        }
+
+        if (profile != null){
+            profile.record(FrameProfile.COLLISIONS, System.nanoTime() - updatedTime);
+        }
+
+        if (events != 0){
+            // Every collision changes the colours
+            changeColor();
+        }
+        return events;
+    }
+
+    /**
+     * This method moves a ball through the step, bouncing it off the bat
+     * and obstacles at the exact moment it reaches them
+     * @param ball the ball to move
+     * @param dt how many seconds of game time to move forward
+     * @return the EVENT_ flags for the hits found
+     */
+    private int moveBall(Ball ball, float dt){
+        int events = 0;
+        int index = ball.getIndex();
+        float width = mBallStore.mW[index];
+        float height = mBallStore.mH[index];
+
+        // How far through the step the ball has got, 0 to 1
+        float elapsed = 0;
+        float x = mBallStartX[index];
+        float y = mBallStartY[index];
+
+        for (int impact = 0; impact < MAX_IMPACTS; impact++){
+            float remaining = 1 - elapsed;
+            float dx = mBallStore.mVX[index] * dt * remaining;
+            float dy = mBallStore.mVY[index] * dt * remaining;
+            mBallAt.set(x, y, x + width, y + height);
+
+            // Which target is hit first
+            float time = Sweep.NO_HIT;
+            int hit = Ball.NO_CONTACT;
+            boolean hitBat = false;
+
+            if (!ball.isTouchingBat()){
+                time = sweepTarget(mBatStart.left, mBatStart.top, mBatEnd.left, mBatEnd.top,
+                        mBatStart.width(), mBatStart.height(), elapsed, dx, dy);
+                hitBat = time != Sweep.NO_HIT;
+            }
+
+            int count = findCandidates(dx, dy);
+            for (int k = 0; k < count; k++){
+                int i = mUseHash ? mCandidates[k] : k;
+                if (i == ball.getObstacleContact()){
+                    continue;
+                }
+                float t = sweepTarget(mObsStartX[i], mObsStartY[i],
+                        mObsStore.mX[i], mObsStore.mY[i],
+                        mObsStore.mW[i], mObsStore.mH[i], elapsed, dx, dy);
+                if (t < time){
+                    time = t;
+                    hit = i;
+                    hitBat = false;
+                }
+            }
+
+            if (time == Sweep.NO_HIT){
+                if (impact == 0){
+                    // Nothing in the way, integrate has already moved it
+                    return events;
+                }
+                // Nothing else in the way, move the rest of the step
+                x += dx;
+                y += dy;
+                break;
+            }
+
+            // Move to the point of contact and bounce from there
+            x += dx * time;
+            y += dy * time;
+            elapsed += remaining * time;
+            ball.setPosition(x, y);
+
+            if (hitBat){
+                positionAt(mBatStart.left, mBatStart.top, mBatEnd.left, mBatEnd.top,
+                        mBatStart.width(), mBatStart.height(), elapsed, mTargetAt);
+                collisionAction(ball, mTargetAt, EVENT_HIT_BAT);
+                ball.setTouchingBat(true);
+                events |= EVENT_HIT_BAT;
+            } else {
+                positionAt(mObsStartX[hit], mObsStartY[hit], mObsStore.mX[hit], mObsStore.mY[hit],
+                        mObsStore.mW[hit], mObsStore.mH[hit], elapsed, mTargetAt);
+                collisionAction(ball, mTargetAt, EVENT_HIT_OBSTACLE);
+                ball.setObstacleContact(hit);
+                events |= EVENT_HIT_OBSTACLE;
+            }
+        }
+
+        ball.setPosition(x, y);
+        return events;
+    }
+
+    /**
+     * This method finds the obstacles the ball in mBallAt might reach
+     * @param dx how far the ball moves horizontally
+     * @param dy how far the ball moves vertically
+     * @return how many candidates there are, in mCandidates with the broadphase
+     * or the first that many obstacles without
+     */
+    private int findCandidates(float dx, float dy){
+        if (!mUseHash){
+            return mObsStore.size();
+        }
+        return mHash.query(
+                Math.min(mBallAt.left, mBallAt.left + dx),
+                Math.min(mBallAt.top, mBallAt.top + dy),
+                Math.max(mBallAt.right, mBallAt.right + dx),
+                Math.max(mBallAt.bottom, mBallAt.bottom + dy),
+                mCandidates);
+    }
+
+    /**
+     * This method sweeps the ball in mBallAt against a moving target
+     * @param startX left edge of the target at the start of the step
+     * @param startY top edge of the target at the start of the step
+     * @param endX left edge of the target at the end of the step
+     * @param endY top edge of the target at the end of the step
+     * @param width width of the target
+     * @param height height of the target
+     * @param elapsed how far through the step the ball is, 0 to 1
+     * @param dx how far the ball still moves horizontally
+     * @param dy how far the ball still moves vertically
+     * @return how far through the rest of the move they meet, or Sweep.NO_HIT
+     */
+    private float sweepTarget(float startX, float startY, float endX, float endY,
+                              float width, float height, float elapsed, float dx, float dy){
+        float remaining = 1 - elapsed;
+        positionAt(startX, startY, endX, endY, width, height, elapsed, mTargetAt);
+        return Sweep.timeOfImpact(mBallAt,
+                dx - (endX - startX) * remaining,
+                dy - (endY - startY) * remaining,
+                mTargetAt);
+    }
+
+    /**
+     * This method works out where an object was part way through the step
+     * @param startX left edge at the start of the step
+     * @param startY top edge at the start of the step
+     * @param endX left edge at the end of the step
+     * @param endY top edge at the end of the step
+     * @param width width of the object
+     * @param height height of the object
+     * @param fraction how far through the step, 0 to 1
+     * @param out the rectangle to write the position into
+     */
+    private static void positionAt(float startX, float startY, float endX, float endY,
+                                   float width, float height, float fraction, FloatRect out){
+        out.left = startX + (endX - startX) * fraction;
+        out.top = startY + (endY - startY) * fraction;
+        out.right = out.left + width;
+        out.bottom = out.top + height;
+    }
+
+    /**
+     * This method forgets a ball's contacts once it has moved clear
+     * @param ball the ball to check
+     */
+    private void updateContacts(Ball ball){
+        int obs = ball.getObstacleContact();
+        if (obs != Ball.NO_CONTACT
+                && !FloatRect.intersects(mObstacles.get(obs).getRect(), ball.getRect())){
+            ball.setObstacleContact(Ball.NO_CONTACT);
+        }
+        if (ball.isTouchingBat() && !FloatRect.intersects(mBat.getRect(), ball.getRect())){
+            ball.setTouchingBat(false);
+        }
+    }
+
+    /**
+     * This method controls what happens when the ball collides with an object
+     * @param ball the ball that hit something
+     * @param obj Rect object the ball collided with
+     * @param event EVENT_HIT_BAT or EVENT_HIT_OBSTACLE
+     */
+    private void collisionAction(Ball ball, FloatRect obj, int event){
+        // Realistic-ish bounce
+        ball.batBounce(obj);
+        ball.increaseVelocity(mSpeedUp);
+        mScore++;
+        notifyCollision(event, ball);
+    }
+
+    /**
+     * This method tells the listener, if there is one, where a ball hit something
+     * @param event the EVENT_ flag for the hit
+     * @param ball the ball that hit it
+     */
+    private void notifyCollision(int event, Ball ball){
+        CollisionListener listener = mCollisionListener;
+        if (listener != null){
+            FloatRect rect = ball.getRect();
+            listener.onCollision(event, (rect.left + rect.right) / 2, (rect.top + rect.bottom) / 2);
+        }
+    }
+
+    /**
+     * This method controls the randomization of colours in the game
+     */
+    private void changeColor(){
+        final int MAX_RGB = 256;
+
+        mBallColor = 0xFF000000 | (mRandom.nextInt(MAX_RGB) << 16)
+                | (mRandom.nextInt(MAX_RGB) << 8) | mRandom.nextInt(MAX_RGB);
+
+        mBatColor = 0xFF000000 | (mRandom.nextInt(MAX_RGB) << 16)
+                | (mRandom.nextInt(MAX_RGB) << 8) | mRandom.nextInt(MAX_RGB);
+    }
+
+    /**
+     * This method detects if a ball went past an edge of the screen
+     * @param ball the ball to check
+     * @return the EVENT_ flags for the walls hit
+     */
+    private int detectWallCollisions(Ball ball){
+        int events = 0;
+
+        // Has ball hit edge of screen?
+
+        // Bottom
+        if (ball.getRect().bottom > mScreenY){
+            ball.reverseYVelocity();
+            mLives--;
+            events |= EVENT_MISS;
+            notifyCollision(EVENT_MISS, ball);
+            if (mLives == 0) {
+                startNewGame();
+                return events | EVENT_GAME_OVER;
+            }
+        }
+
+        // Top
+        if (ball.getRect().top < 0){
+            ball.reverseYVelocity();
+            events |= EVENT_HIT_WALL;
+            notifyCollision(EVENT_HIT_WALL, ball);
+        }
+
+        // Left
+        if (ball.getRect().left < 0){
+            ball.reverseXVelocity();
+            events |= EVENT_HIT_WALL;
+            notifyCollision(EVENT_HIT_WALL, ball);
+        }
+
+        // Right
+        if (ball.getRect().right > mScreenX){
+            ball.reverseXVelocity();
+            events |= EVENT_HIT_WALL;
+            notifyCollision(EVENT_HIT_WALL, ball);
+        }
+
+        return events;
+    }
+
+    /**
+     * This method resets the game state to the initial state
+     */
+    public void startNewGame(){
+        // Put the balls back to the starting position
+        mBall.reset(mScreenX, mScreenY);
+        for (int b = 1; b < mBalls.size(); b++){
+            int at = b * 4;
+            mBalls.get(b).setPosition(mSpawns[at], mSpawns[at + 1]);
+            mBalls.get(b).setVelocity(mSpawns[at + 2], mSpawns[at + 3]);
+        }
+        for (int b = 0; b < mBalls.size(); b++){
+            mBalls.get(b).setTouchingBat(false);
+            mBalls.get(b).setObstacleContact(Ball.NO_CONTACT);
+        }
+        for (int i = 0; i < mObstacles.size(); i++){
+            mObstacles.get(i).reset();
+        }
+
+        // Reset the score and the player's chances
+        mScore = 0;
+        mLives = START_LIVES;
+    }
+
+    /**
+     * This method works out how many bytes writeState needs
+     * @return the size of the state in bytes
+     */
+    public int stateSize(){
+        return 4 * 4 + 8 + 4 * 2 + 4
+                + 4 * 4
+                + 4 + mBalls.size() * (8 * 4 + 1 + 4)
+                + 4 + mObstacles.size() * (6 * 4);
+    }
+
+    /**
+     * This method writes the whole game state in a fixed layout
+     * screenX, screenY, score, lives, random state, ball colour, bat colour, speed up,
+     * bat x, bat movement, bat width, bat height,
+     * ball count then x, y, x velocity, y velocity, spawn x, spawn y,
+     * spawn x velocity, spawn y velocity, bat contact, obstacle contact for each ball,
+     * obstacle count then x, y, x velocity, start x, width, height for each obstacle
+     * @param out the buffer to write into, needs stateSize bytes free
+     */
+    public void writeState(ByteBuffer out){
+        out.putInt(mScreenX);
+        out.putInt(mScreenY);
+        out.putInt(mScore);
+        out.putInt(mLives);
+        out.putLong(mRandom.getState());
+        out.putInt(mBallColor);
+        out.putInt(mBatColor);
+        out.putFloat(mSpeedUp);
+
+        FloatRect bat = mBat.getRect();
+        out.putFloat(bat.left);
+        out.putInt(mBat.getMovementState());
+        out.putFloat(bat.width());
+        out.putFloat(bat.height());
+
+        out.putInt(mBalls.size());
+        for (int b = 0; b < mBalls.size(); b++){
+            Ball ball = mBalls.get(b);
+            int i = ball.getIndex();
+            out.putFloat(mBallStore.mX[i]);
+            out.putFloat(mBallStore.mY[i]);
+            out.putFloat(mBallStore.mVX[i]);
+            out.putFloat(mBallStore.mVY[i]);
+            int at = b * 4;
+            out.putFloat(mSpawns[at]);
+            out.putFloat(mSpawns[at + 1]);
+            out.putFloat(mSpawns[at + 2]);
+            out.putFloat(mSpawns[at + 3]);
+            out.put((byte) (ball.isTouchingBat() ? 1 : 0));
+            out.putInt(ball.getObstacleContact());
+        }
+
+        out.putInt(mObstacles.size());
+        for (int o = 0; o < mObstacles.size(); o++){
+            int i = mObstacles.get(o).getIndex();
+            out.putFloat(mObsStore.mX[i]);
+            out.putFloat(mObsStore.mY[i]);
+            out.putFloat(mObsStore.mVX[i]);
+            out.putFloat(mObstacles.get(o).getStartX());
+            out.putFloat(mObsStore.mW[i]);
+            out.putFloat(mObsStore.mH[i]);
+        }
+    }
+
+    /**
+     * This method creates a game from the layout written by writeState
+     * @param in the buffer to read from
+     * @return the restored game, on the screen it was saved from
+     */
+    public static PongSimulation readState(ByteBuffer in){
+        return readState(in, in.getInt(in.position()), in.getInt(in.position() + 4));
+    }
+
+    /**
+     * This method creates a game from the layout written by writeState on a screen of another size
+     * Positions, sizes and speeds are stretched to the new screen so a game saved
+     * before the device was turned carries on in the same place relative to the edges.
+     * On the same size screen nothing is changed so the game is exactly as it was
+     * @param in the buffer to read from
+     * @param screenX width of the screen to restore onto
+     * @param screenY height of the screen to restore onto
+     * @return the restored game
+     */
+    public static PongSimulation readState(ByteBuffer in, int screenX, int screenY){
+        float scaleX = screenX / (float) in.getInt();
+        float scaleY = screenY / (float) in.getInt();
+        PongSimulation sim = new PongSimulation(screenX, screenY, 0);
+        sim.mScore = in.getInt();
+        sim.mLives = in.getInt();
+        sim.mRandom.setState(in.getLong());
+        sim.mBallColor = in.getInt();
+        sim.mBatColor = in.getInt();
+        sim.mSpeedUp = in.getFloat();
+
+        sim.mBat.setX(in.getFloat() * scaleX);
+        sim.mBat.setMovementState(in.getInt());
+        float batWidth = in.getFloat() * scaleX;
+        sim.mBat.setSize(batWidth, in.getFloat() * scaleY, screenY);
+
+        int balls = in.getInt();
+        for (int b = 0; b < balls; b++){
+            float x = in.getFloat() * scaleX;
+            float y = in.getFloat() * scaleY;
+            float xVelocity = in.getFloat() * scaleX;
+            float yVelocity = in.getFloat() * scaleY;
+            float spawnX = in.getFloat() * scaleX;
+            float spawnY = in.getFloat() * scaleY;
+            float spawnXVelocity = in.getFloat() * scaleX;
+            float spawnYVelocity = in.getFloat() * scaleY;
+
+            // The first ball is made by the constructor
+            Ball ball = b == 0 ? sim.mBall
+                    : sim.addBall(spawnX, spawnY, spawnXVelocity, spawnYVelocity);
+            ball.setPosition(x, y);
+            ball.setVelocity(xVelocity, yVelocity);
+            ball.setTouchingBat(in.get() != 0);
+            ball.setObstacleContact(in.getInt());
+        }
+
+        // The level may have had any number of obstacles
+        sim.clearObstacles();
+        int obstacles = in.getInt();
+        for (int o = 0; o < obstacles; o++){
+            float x = in.getFloat() * scaleX;
+            float y = in.getFloat() * scaleY;
+            float xVelocity = in.getFloat() * scaleX;
+            float startX = in.getFloat() * scaleX;
+            float length = in.getFloat() * scaleX;
+            float height = in.getFloat() * scaleY;
+
+            Obstacle obs = sim.addObstacle(startX, y, length, height, 0);
+            int i = obs.getIndex();
+            sim.mObsStore.setPosition(i, x, y);
+            sim.mObsStore.setVelocity(i, xVelocity, 0);
+        }
+        return sim;
+    }
+
+    /**
+     * This method sums up the whole game state in one number
+     * Two games with the same checksum are, for all practical purposes,
+     * in exactly the same state, which is how replays are checked
+     * @return a hash of every position, velocity, score, lives and random state
+     */
+    public long checksum(){
+        long hash = 17;
+        hash = hashStore(hash, mBallStore);
+        hash = hashStore(hash, mObsStore);
+        FloatRect bat = mBat.getRect();
+        hash = hash * 31 + Float.floatToIntBits(bat.left);
+        hash = hash * 31 + Float.floatToIntBits(bat.top);
+        hash = hash * 31 + mBat.getMovementState();
+        hash = hash * 31 + mScore;
+        hash = hash * 31 + mLives;
+        hash = hash * 31 + mRandom.getState();
+        return hash;
+    }
+
+    private static long hashStore(long hash, EntityStore store){
+        for (int i = 0; i < store.size(); i++){
+            hash = hash * 31 + Float.floatToIntBits(store.mX[i]);
+            hash = hash * 31 + Float.floatToIntBits(store.mY[i]);
+            hash = hash * 31 + Float.floatToIntBits(store.mVX[i]);
+            hash = hash * 31 + Float.floatToIntBits(store.mVY[i]);
+        }
+        return hash;
+    }
+
+    /**
+     * This method changes the way the player's bat is moving
+     * @param state Bat.STOPPED, Bat.LEFT or Bat.RIGHT
+     */
+    public void setBatMovement(int state){
+        mBat.setMovementState(state);
+    }
+
+    public Ball getBall(){ return mBall; }
+
+    public Bat getBat(){ return mBat; }
+
+    /**
+     * @return the first obstacle, or null if the level has none
+     */
+    public Obstacle getObstacle(){ return mObstacles.isEmpty() ? null : mObstacles.get(0); }
+
+    public List<Ball> getBalls(){ return mBalls; }
+
+    public List<Obstacle> getObstacles(){ return mObstacles; }
+
+    public GameRandom getRandom(){ return mRandom; }
+
+    public float getSpeedUp(){ return mSpeedUp; }
+
+    /**
+     * @return the ball colour as an ARGB int, the same layout as android.graphics.Color
+     */
+    public int getBallColor(){ return mBallColor; }
+
+    /**
+     * @return the bat colour as an ARGB int, the same layout as android.graphics.Color
+     */
+    public int getBatColor(){ return mBatColor; }
+
+    public int getScore(){ return mScore; }
+
+    public int getLives(){ return mLives; }
+
+    public int getScreenX(){ return mScreenX; }
+
+    public int getScreenY(){ return mScreenY; }
+}
@@ -0,0 +1,193 @@
+package com.example.pong.core;
+
+/**
+ * This class is a renderer that draws nothing
+ * It records each command into reusable arrays and counts
+ * what the frame would cost, so drawing can be tested without a device
+ */
+public class RecordingRenderer implements Renderer {
+
+    // The kinds of command
+    public static final int CLEAR = 0;
+    public static final int SET_COLOR = 1;
+    public static final int FILL_RECT = 2;
+    public static final int DRAW_LAYER = 3;
+    public static final int FILL_SQUARES = 4;
+
+    // One entry per command, the colour or layer number
+    // and four edges for the commands that cover an area
+    private int[] mOps = new int[64];
+    private int[] mValues = new int[64];
+    private float[] mEdges = new float[64 * 4];
+    private int mCount;
+
+    // The area the frame is allowed to draw in
+    private float mClipLeft;
+    private float mClipTop;
+    private float mClipRight;
+    private float mClipBottom;
+
+    // What the frame cost
+    private int mColor;
+    private boolean mColorSet;
+    private int mDrawCalls;
+    private int mStateChanges;
+    private double mPixelsFilled;
+
+    /**
+     * This method starts a new frame, forgetting the last one
+     * Nothing outside the clip is counted, like a locked dirty rect
+     * @param left x coordinate of the left edge of the clip
+     * @param top y coordinate of the top edge of the clip
+     * @param right x coordinate of the right edge of the clip
+     * @param bottom y coordinate of the bottom edge of the clip
+     */
+    public void beginFrame(float left, float top, float right, float bottom){
+        mClipLeft = left;
+        mClipTop = top;
+        mClipRight = right;
+        mClipBottom = bottom;
+        mCount = 0;
+        mColorSet = false;
+        mDrawCalls = 0;
+        mStateChanges = 0;
+        mPixelsFilled = 0;
+    }
+
+    @Override
+    public void clear(int color){
+        add(CLEAR, color, mClipLeft, mClipTop, mClipRight, mClipBottom);
+        mDrawCalls++;
+        mPixelsFilled += clippedArea(mClipLeft, mClipTop, mClipRight, mClipBottom);
+    }
+
+    @Override
+    public void setColor(int color){
+        add(SET_COLOR, color, 0, 0, 0, 0);
+
+        // Picking the colour already in use costs nothing
+        if (!mColorSet || color != mColor){
+            mStateChanges++;
+        }
+        mColor = color;
+        mColorSet = true;
+    }
+
+    @Override
+    public void fillRect(float left, float top, float right, float bottom){
+        add(FILL_RECT, mColor, left, top, right, bottom);
+        mDrawCalls++;
+        mPixelsFilled += clippedArea(left, top, right, bottom);
+    }
+
+    @Override
+    public void fillSquares(float[] centers, int first, int count, float size){
+        // Recorded as the area all the squares cover
+        float half = size / 2;
+        float left = Float.MAX_VALUE;
+        float top = Float.MAX_VALUE;
+        float right = -Float.MAX_VALUE;
+        float bottom = -Float.MAX_VALUE;
+        for (int i = first * 2, end = (first + count) * 2; i < end; i += 2){
+            float x = centers[i];
+            float y = centers[i + 1];
+            left = Math.min(left, x - half);
+            top = Math.min(top, y - half);
+            right = Math.max(right, x + half);
+            bottom = Math.max(bottom, y + half);
+            mPixelsFilled += clippedArea(x - half, y - half, x + half, y + half);
+        }
+        add(FILL_SQUARES, mColor, left, top, right, bottom);
+        mDrawCalls++;
+    }
+
+    @Override
+    public void drawLayer(int layer, FloatRect bounds){
+        add(DRAW_LAYER, layer, bounds.left, bounds.top, bounds.right, bounds.bottom);
+        mDrawCalls++;
+        mPixelsFilled += clippedArea(bounds.left, bounds.top, bounds.right, bounds.bottom);
+    }
+
+    private void add(int op, int value, float left, float top, float right, float bottom){
+        if (mCount == mOps.length){
+            int capacity = mOps.length * 2;
+            int[] ops = new int[capacity];
+            int[] values = new int[capacity];
+            float[] edges = new float[capacity * 4];
+            System.arraycopy(mOps, 0, ops, 0, mCount);
+            System.arraycopy(mValues, 0, values, 0, mCount);
+            System.arraycopy(mEdges, 0, edges, 0, mCount * 4);
+            mOps = ops;
+            mValues = values;
+            mEdges = edges;
+        }
+        mOps[mCount] = op;
+        mValues[mCount] = value;
+        int edge = mCount * 4;
+        mEdges[edge] = left;
+        mEdges[edge + 1] = top;
+        mEdges[edge + 2] = right;
+        mEdges[edge + 3] = bottom;
+        mCount++;
+    }
+
+    private double clippedArea(float left, float top, float right, float bottom){
+        float width = Math.min(right, mClipRight) - Math.max(left, mClipLeft);
+        float height = Math.min(bottom, mClipBottom) - Math.max(top, mClipTop);
+        if (width <= 0 || height <= 0){
+            return 0;
+        }
+        return (double) width * height;
+    }
+
+    /**
+     * @return how many commands the frame recorded
+     */
+    public int getCommandCount(){ return mCount; }
+
+    /**
+     * @param i which command
+     * @return the kind of command, CLEAR, SET_COLOR, FILL_RECT, DRAW_LAYER or FILL_SQUARES
+     */
+    public int getOp(int i){ return mOps[i]; }
+
+    /**
+     * @param i which command
+     * @return the colour of the command, or the layer number for DRAW_LAYER
+     */
+    public int getValue(int i){ return mValues[i]; }
+
+    /**
+     * This method copies the area a command covered
+     * @param i which command
+     * @param out the rect to write the edges into
+     */
+    public void getBounds(int i, FloatRect out){
+        int edge = i * 4;
+        out.set(mEdges[edge], mEdges[edge + 1], mEdges[edge + 2], mEdges[edge + 3]);
+    }
+
+    /**
+     * @return how many commands in the frame drew something
+     */
+    public int getDrawCalls(){ return mDrawCalls; }
+
+    /**
+     * @return how many times the frame switched to a different colour
+     */
+    public int getStateChanges(){ return mStateChanges; }
+
+    /**
+     * @return how many pixels were filled inside the clip, counting each time a pixel is filled
+     */
+    public double getPixelsFilled(){ return mPixelsFilled; }
+
+    /**
+     * This method measures overdraw, 1 means every pixel in the clip was filled once
+     * @return pixels filled divided by the size of the clip
+     */
+    public double getOverdraw(){
+        double clip = (double) (mClipRight - mClipLeft) * (mClipBottom - mClipTop);
+        return clip > 0 ? mPixelsFilled / clip : 0;
+    }
+}
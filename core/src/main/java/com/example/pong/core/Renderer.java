@@ -0,0 +1,46 @@
+package com.example.pong.core;
+
+/**
+ * This interface is everything a frame of the game needs to be drawn
+ * The game draws through it so the same frame can go to an Android Canvas
+ * or be recorded and measured on a plain JVM
+ */
+public interface Renderer {
+
+    /**
+     * This method fills the whole area being drawn with one colour
+     * @param color ARGB colour
+     */
+    void clear(int color);
+
+    /**
+     * This method picks the colour for the rectangles that follow
+     * @param color ARGB colour
+     */
+    void setColor(int color);
+
+    /**
+     * This method fills a rectangle with the current colour
+     * @param left x coordinate of the left edge
+     * @param top y coordinate of the top edge
+     * @param right x coordinate of the right edge
+     * @param bottom y coordinate of the bottom edge
+     */
+    void fillRect(float left, float top, float right, float bottom);
+
+    /**
+     * This method fills many squares of one size with the current colour in one call
+     * @param centers x and y pairs for the middle of each square
+     * @param first which pair to start at
+     * @param count how many squares
+     * @param size width of each square
+     */
+    void fillSquares(float[] centers, int first, int count, float size);
+
+    /**
+     * This method draws a layer that was prepared ahead of time, like a line of HUD text
+     * @param layer which layer, as returned by SceneRenderer.addLayer
+     * @param bounds the area of the screen the layer covers
+     */
+    void drawLayer(int layer, FloatRect bounds);
+}
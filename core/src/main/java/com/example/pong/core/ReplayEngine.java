@@ -0,0 +1,184 @@
+package com.example.pong.core;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * This class re-runs a recording made by InputRecorder with no screen
+ * and no waiting, as fast as the CPU can step the simulation
+ */
+public class ReplayEngine {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    // The game being replayed, only one of them is used
+    private PongSimulation mSim;
+    private FixedPongSimulation mFixedSim;
+    private long mTicks;
+    private long mElapsedNanos;
+    private long mExpectedChecksum;
+
+    /**
+     * This method replays a recording from start to end
+     * @param file the recording to replay
+     * @return the engine holding the finished game and the timings
+     */
+    public static ReplayEngine replay(File file) throws IOException {
+        ReplayEngine engine = new ReplayEngine();
+        engine.run(file);
+        return engine;
+    }
+
+    private void run(File file) throws IOException {
+        try (FileChannel channel = new FileInputStream(file).getChannel()){
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buffer.limit(0);
+
+            if (fill(channel, buffer, 8) < 8 || buffer.getInt() != InputRecorder.MAGIC){
+                throw new IOException("not a pong recording");
+            }
+            int version = buffer.getInt();
+            if (version != 1 && version != InputRecorder.VERSION){
+                throw new IOException("unsupported recording version " + version);
+            }
+
+            // Version 1 was always the float engine and did not say so
+            int headerSize = version == 1 ? 20 : 24;
+            if (fill(channel, buffer, headerSize) < headerSize){
+                throw new EOFException("recording header is incomplete");
+            }
+            int engine = version == 1 ? InputRecorder.FLOAT_ENGINE : buffer.getInt();
+            int screenX = buffer.getInt();
+            int screenY = buffer.getInt();
+            int tickRate = buffer.getInt();
+            long seed = buffer.getLong();
+
+            if (engine == InputRecorder.FIXED_ENGINE){
+                mFixedSim = new FixedPongSimulation(
+                        FixedPongSimulation.worldHeight(screenX, screenY), tickRate, seed);
+            } else if (engine == InputRecorder.FLOAT_ENGINE){
+                mSim = new PongSimulation(screenX, screenY, seed);
+            } else {
+                throw new IOException("unknown engine " + engine);
+            }
+            float dt = 1f / tickRate;
+
+            long start = System.nanoTime();
+            while (true){
+                fill(channel, buffer, 10);
+                long value = readVarint(buffer);
+                long until = mTicks + (value >>> 2);
+                int kind = (int) (value & 3);
+
+                // Play up to the tick where the input changed
+                if (mFixedSim != null){
+                    while (mTicks < until){
+                        mFixedSim.step();
+                        mTicks++;
+                    }
+                } else {
+                    while (mTicks < until){
+                        mSim.step(dt);
+                        mTicks++;
+                    }
+                }
+
+                if (kind == InputRecorder.END){
+                    break;
+                }
+                if (mFixedSim != null){
+                    mFixedSim.setBatMovement(kind);
+                } else {
+                    mSim.setBatMovement(kind);
+                }
+            }
+            mElapsedNanos = System.nanoTime() - start;
+
+            if (fill(channel, buffer, 8) < 8){
+                throw new EOFException("recording has no checksum");
+            }
+            mExpectedChecksum = buffer.getLong();
+        }
+    }
+
+    /**
+     * This method makes sure the buffer holds at least some bytes
+     * @return how many bytes are available, less than wanted only at the end of the file
+     */
+    private static int fill(FileChannel channel, ByteBuffer buffer, int wanted) throws IOException {
+        if (buffer.remaining() < wanted){
+            buffer.compact();
+            while (buffer.position() < wanted && channel.read(buffer) > 0){
+                // Keep reading until there is enough or the file ends
+            }
+            buffer.flip();
+        }
+        return buffer.remaining();
+    }
+
+    private static long readVarint(ByteBuffer buffer) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7){
+            if (!buffer.hasRemaining()){
+                throw new EOFException("recording ends in the middle of a record");
+            }
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0){
+                return value;
+            }
+        }
+        throw new IOException("varint is too long");
+    }
+
+    /**
+     * @return the game in the state it was at the end of the recording, null for a fixed point game
+     */
+    public PongSimulation getSimulation(){ return mSim; }
+
+    /**
+     * @return the fixed point game in the state it was at the end of the recording, null for a float game
+     */
+    public FixedPongSimulation getFixedSimulation(){ return mFixedSim; }
+
+    /**
+     * @return how many ticks were replayed
+     */
+    public long getTicks(){ return mTicks; }
+
+    /**
+     * @return how long the replay took, not counting opening the file
+     */
+    public long getElapsedNanos(){ return mElapsedNanos; }
+
+    /**
+     * @return how many ticks were replayed per second of real time
+     */
+    public double getTicksPerSecond(){
+        return mElapsedNanos == 0 ? 0 : mTicks * 1e9 / mElapsedNanos;
+    }
+
+    /**
+     * @return true if the replayed game ended in exactly the recorded state
+     */
+    public boolean matchesRecording(){
+        long checksum = mFixedSim != null ? mFixedSim.checksum() : mSim.checksum();
+        return checksum == mExpectedChecksum;
+    }
+
+    /**
+     * This method replays a recording from the command line
+     * @param args the path of the recording
+     */
+    public static void main(String[] args) throws IOException {
+        ReplayEngine engine = replay(new File(args[0]));
+        System.out.printf("%d ticks in %.1f ms, %.0f ticks/s, %s%n",
+                engine.getTicks(), engine.getElapsedNanos() / 1e6, engine.getTicksPerSecond(),
+                engine.matchesRecording() ? "matches recording" : "DOES NOT match recording");
+        System.exit(engine.matchesRecording() ? 0 : 1);
+    }
+}
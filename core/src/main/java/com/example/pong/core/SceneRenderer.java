@@ -0,0 +1,265 @@
+package com.example.pong.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class decides what a frame of the game looks like
+ * It blends the objects between the last two ticks and
+ * sends the frame to a Renderer, grouped so each colour is set once
+ */
+public class SceneRenderer {
+
+    // Fill colour behind everything
+    private int mBackground;
+
+    // State of the game objects at the previous tick
+    // One previous rect per ball and obstacle, in the same order as the simulation
+    private ArrayList<FloatRect> mBallsPrevious = new ArrayList<>();
+    private FloatRect mBatPrevious = new FloatRect();
+    private ArrayList<FloatRect> mObsPrevious = new ArrayList<>();
+
+    // Where each object is drawn this frame
+    // Balls, then the bat, then obstacles
+    private ArrayList<FloatRect> mRects = new ArrayList<>();
+    private int mBallCount;
+
+    // Scratch for a fixed point game's objects scaled to the screen
+    private FloatRect mCurrent = new FloatRect();
+
+    // Prepared layers drawn on top of everything, in the order they were added
+    private ArrayList<FloatRect> mLayers = new ArrayList<>();
+
+    // Effects drawn over the objects and under the layers, null for none
+    private ParticleSystem mParticles;
+
+    /**
+     * This method initializes the scene
+     * @param background ARGB colour to fill the screen with
+     */
+    public SceneRenderer(int background){
+        mBackground = background;
+    }
+
+    /**
+     * This method adds a layer to draw on top of the objects, like a line of HUD text
+     * @param left x coordinate of the left edge
+     * @param top y coordinate of the top edge
+     * @param right x coordinate of the right edge
+     * @param bottom y coordinate of the bottom edge
+     * @return the layer number the renderer is given
+     */
+    public int addLayer(float left, float top, float right, float bottom){
+        mLayers.add(new FloatRect(left, top, right, bottom));
+        return mLayers.size() - 1;
+    }
+
+    /**
+     * This method sets the particles to draw with the objects
+     * @param particles the particles, null to draw none
+     */
+    public void setParticles(ParticleSystem particles){
+        mParticles = particles;
+    }
+
+    /**
+     * This method remembers where the objects were before the next tick
+     * so the frame can be drawn in between the two
+     * @param sim the game to remember
+     */
+    public void saveState(PongSimulation sim){
+        List<Ball> balls = sim.getBalls();
+        while (mBallsPrevious.size() < balls.size()){
+            mBallsPrevious.add(new FloatRect());
+        }
+        for (int i = 0; i < balls.size(); i++){
+            mBallsPrevious.get(i).set(balls.get(i).getRect());
+        }
+
+        mBatPrevious.set(sim.getBat().getRect());
+
+        List<Obstacle> obstacles = sim.getObstacles();
+        while (mObsPrevious.size() < obstacles.size()){
+            mObsPrevious.add(new FloatRect());
+        }
+        for (int i = 0; i < obstacles.size(); i++){
+            mObsPrevious.get(i).set(obstacles.get(i).getRect());
+        }
+    }
+
+    /**
+     * This method works out where to draw every object this frame
+     * They are drawn where they were between the last two ticks
+     * @param sim the game to draw
+     * @param alpha how far between the previous and current tick to draw, 0 to 1
+     */
+    public void layout(PongSimulation sim, float alpha){
+        List<Ball> balls = sim.getBalls();
+        List<Obstacle> obstacles = sim.getObstacles();
+        resize(balls.size(), obstacles.size());
+
+        // Objects added since the last tick are drawn where they are
+        int next = 0;
+        for (int i = 0; i < balls.size(); i++){
+            FloatRect current = balls.get(i).getRect();
+            FloatRect previous = i < mBallsPrevious.size() ? mBallsPrevious.get(i) : current;
+            interpolate(previous, current, alpha, mRects.get(next++));
+        }
+
+        interpolate(mBatPrevious, sim.getBat().getRect(), alpha, mRects.get(next++));
+
+        for (int i = 0; i < obstacles.size(); i++){
+            FloatRect current = obstacles.get(i).getRect();
+            FloatRect previous = i < mObsPrevious.size() ? mObsPrevious.get(i) : current;
+            interpolate(previous, current, alpha, mRects.get(next++));
+        }
+
+        if (mParticles != null){
+            mParticles.layout(alpha);
+        }
+    }
+
+    /**
+     * This method remembers where the objects of a fixed point game were before the next tick
+     * Its world is scaled to the screen here, the game itself never knows the screen size
+     * @param sim the game to remember
+     * @param screenX the width of the screen in pixels
+     * @param screenY the height of the screen in pixels
+     */
+    public void saveState(FixedPongSimulation sim, int screenX, int screenY){
+        float scaleX = screenX / (float) FixedPongSimulation.WORLD_X;
+        float scaleY = screenY / (float) sim.getWorldY();
+        if (mBallsPrevious.isEmpty()){
+            mBallsPrevious.add(new FloatRect());
+        }
+        sim.getBallRect(scaleX, scaleY, mBallsPrevious.get(0));
+
+        sim.getBatRect(scaleX, scaleY, mBatPrevious);
+
+        int obstacles = sim.getObstacleCount();
+        while (mObsPrevious.size() < obstacles){
+            mObsPrevious.add(new FloatRect());
+        }
+        for (int i = 0; i < obstacles; i++){
+            sim.getObstacleRect(i, scaleX, scaleY, mObsPrevious.get(i));
+        }
+    }
+
+    /**
+     * This method works out where to draw every object of a fixed point game this frame
+     * @param sim the game to draw
+     * @param screenX the width of the screen in pixels
+     * @param screenY the height of the screen in pixels
+     * @param alpha how far between the previous and current tick to draw, 0 to 1
+     */
+    public void layout(FixedPongSimulation sim, int screenX, int screenY, float alpha){
+        float scaleX = screenX / (float) FixedPongSimulation.WORLD_X;
+        float scaleY = screenY / (float) sim.getWorldY();
+        int obstacles = sim.getObstacleCount();
+        resize(1, obstacles);
+
+        int next = 0;
+        sim.getBallRect(scaleX, scaleY, mCurrent);
+        interpolate(mBallsPrevious.isEmpty() ? mCurrent : mBallsPrevious.get(0), mCurrent, alpha,
+                mRects.get(next++));
+
+        sim.getBatRect(scaleX, scaleY, mCurrent);
+        interpolate(mBatPrevious, mCurrent, alpha, mRects.get(next++));
+
+        for (int i = 0; i < obstacles; i++){
+            sim.getObstacleRect(i, scaleX, scaleY, mCurrent);
+            FloatRect previous = i < mObsPrevious.size() ? mObsPrevious.get(i) : mCurrent;
+            interpolate(previous, mCurrent, alpha, mRects.get(next++));
+        }
+
+        if (mParticles != null){
+            mParticles.layout(alpha);
+        }
+    }
+
+    /**
+     * This method makes room for the objects of the frame, balls then the bat then obstacles
+     * @param balls how many balls
+     * @param obstacles how many obstacles
+     */
+    private void resize(int balls, int obstacles){
+        int count = balls + 1 + obstacles;
+        while (mRects.size() < count){
+            mRects.add(new FloatRect());
+        }
+        while (mRects.size() > count){
+            mRects.remove(mRects.size() - 1);
+        }
+        mBallCount = balls;
+    }
+
+    /**
+     * This method blends between the previous and current state of an object
+     * @param previous where the object was at the previous tick
+     * @param current where the object is now
+     * @param alpha how far between the two ticks, 0 to 1
+     * @param out the rect to write the blended position into
+     */
+    private static void interpolate(FloatRect previous, FloatRect current, float alpha, FloatRect out){
+        out.left = previous.left + (current.left - previous.left) * alpha;
+        out.top = previous.top + (current.top - previous.top) * alpha;
+        out.right = previous.right + (current.right - previous.right) * alpha;
+        out.bottom = previous.bottom + (current.bottom - previous.bottom) * alpha;
+    }
+
+    /**
+     * This method draws the frame laid out by the last call to layout
+     * @param renderer where to draw
+     * @param ballColor ARGB colour of the balls
+     * @param batColor ARGB colour of the bat
+     * @param obstacleColor ARGB colour of the obstacles
+     */
+    public void draw(Renderer renderer, int ballColor, int batColor, int obstacleColor){
+        renderer.clear(mBackground);
+
+        renderer.setColor(ballColor);
+        for (int i = 0; i < mBallCount; i++){
+            fill(renderer, mRects.get(i));
+        }
+
+        renderer.setColor(batColor);
+        fill(renderer, mRects.get(mBallCount));
+
+        int count = mRects.size();
+        if (count > mBallCount + 1){
+            renderer.setColor(obstacleColor);
+            for (int i = mBallCount + 1; i < count; i++){
+                fill(renderer, mRects.get(i));
+            }
+        }
+
+        // One call for each style of particle
+        if (mParticles != null){
+            mParticles.draw(renderer);
+        }
+
+        for (int i = 0; i < mLayers.size(); i++){
+            renderer.drawLayer(i, mLayers.get(i));
+        }
+    }
+
+    private static void fill(Renderer renderer, FloatRect rect){
+        renderer.fillRect(rect.left, rect.top, rect.right, rect.bottom);
+    }
+
+    /**
+     * @return how many objects were laid out, balls then the bat then obstacles
+     */
+    public int getRectCount(){ return mRects.size(); }
+
+    /**
+     * @return how many balls were laid out, the bat comes straight after them
+     */
+    public int getBallCount(){ return mBallCount; }
+
+    /**
+     * @param i which object
+     * @return where the object is drawn this frame
+     */
+    public FloatRect getRect(int i){ return mRects.get(i); }
+}
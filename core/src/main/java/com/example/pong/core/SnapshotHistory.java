@@ -0,0 +1,63 @@
+package com.example.pong.core;
+
+/**
+ * This class keeps the last few snapshots, looked up by tick
+ * The server keeps what it sent each client to delta against,
+ * the client keeps what it received to decode the deltas and to interpolate.
+ * The snapshots are made once and copied into, so keeping one allocates nothing
+ */
+public class SnapshotHistory {
+
+    private final NetSnapshot[] mSnapshots;
+    private final int mMask;
+    private int mLatest = -1;
+
+    /**
+     * This method creates an empty history
+     * @param capacity how many ticks back to remember, rounded up to a power of two
+     */
+    public SnapshotHistory(int capacity){
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        mSnapshots = new NetSnapshot[size];
+        for (int i = 0; i < size; i++){
+            mSnapshots[i] = new NetSnapshot();
+        }
+        mMask = size - 1;
+    }
+
+    /**
+     * This method remembers a copy of a snapshot, replacing the one from capacity ticks before
+     * @param snapshot the snapshot
+     */
+    public void put(NetSnapshot snapshot){
+        mSnapshots[snapshot.getTick() & mMask].copyFrom(snapshot);
+        mLatest = Math.max(mLatest, snapshot.getTick());
+    }
+
+    /**
+     * @param tick which tick
+     * @return the snapshot for that tick, or null if it never came or has been replaced
+     */
+    public NetSnapshot get(int tick){
+        if (tick < 0){
+            return null;
+        }
+        NetSnapshot snapshot = mSnapshots[tick & mMask];
+        return snapshot.getTick() == tick ? snapshot : null;
+    }
+
+    /**
+     * @return the newest tick put in, or -1 if there are none
+     */
+    public int getLatestTick(){ return mLatest; }
+
+    /**
+     * This method forgets every snapshot
+     */
+    public void clear(){
+        for (NetSnapshot snapshot : mSnapshots){
+            snapshot.setTick(-1);
+        }
+        mLatest = -1;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.pong.core;
+
+/**
+ * This class throws out sparks wherever the ball hits something
+ * Give it to PongSimulation.setCollisionListener, each kind of hit
+ * has its own colour and a bigger burst for the ones that matter more
+ */
+public class SparkEmitter implements CollisionListener {
+
+    private final ParticleSystem mParticles;
+
+    // One style per kind of hit
+    private final int mObstacleStyle;
+    private final int mBatStyle;
+    private final int mWallStyle;
+    private final int mMissStyle;
+
+    // Scaled from the screen so the bursts look the same size on any device
+    private final float mSpeed;
+
+    // How long a spark lives for, the burst dies away over up to twice this
+    private static final float LIFE = 0.35f;
+
+    // Sparks per hit
+    private static final int OBSTACLE_SPARKS = 24;
+    private static final int BAT_SPARKS = 32;
+    private static final int WALL_SPARKS = 12;
+    private static final int MISS_SPARKS = 64;
+
+    /**
+     * This method creates an emitter and a system to put its sparks in
+     * @param screenX the horizontal size of the play area
+     * @param screenY the vertical size of the play area
+     * @param capacity the most sparks alive at once
+     */
+    public SparkEmitter(int screenX, int screenY, int capacity){
+        mParticles = new ParticleSystem(capacity, screenY, System.nanoTime());
+        float size = Math.max(2, screenX / 150f);
+        mObstacleStyle = mParticles.addStyle(0xFFFFD040, size);
+        mBatStyle = mParticles.addStyle(0xFF40E0FF, size);
+        mWallStyle = mParticles.addStyle(0xFFB0B0B0, size / 2);
+        mMissStyle = mParticles.addStyle(0xFFFF4030, size);
+        mSpeed = screenX / 2f;
+    }
+
+    @Override
+    public void onCollision(int event, float x, float y){
+        if (event == PongSimulation.EVENT_HIT_OBSTACLE){
+            mParticles.emit(mObstacleStyle, x, y, OBSTACLE_SPARKS, mSpeed, LIFE);
+        } else if (event == PongSimulation.EVENT_HIT_BAT){
+            mParticles.emit(mBatStyle, x, y, BAT_SPARKS, mSpeed, LIFE);
+        } else if (event == PongSimulation.EVENT_HIT_WALL){
+            mParticles.emit(mWallStyle, x, y, WALL_SPARKS, mSpeed / 2, LIFE);
+        } else if (event == PongSimulation.EVENT_MISS){
+            mParticles.emit(mMissStyle, x, y, MISS_SPARKS, mSpeed, LIFE * 2);
+        }
+    }
+
+    /**
+     * @return the system the sparks are in, for updating and drawing
+     */
+    public ParticleSystem getParticles(){ return mParticles; }
+}
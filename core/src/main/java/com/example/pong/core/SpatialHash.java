@@ -0,0 +1,189 @@
+package com.example.pong.core;
+
+import java.util.Arrays;
+
+/**
+ * This class is a uniform grid over the play area used as a collision broadphase
+ * Each item is filed under every cell its bounds cover, so a query only
+ * has to look at the items in the cells it covers instead of every item.
+ * The grid is rebuilt from scratch each step into flat int arrays
+ * which only grow, so a steady game does not allocate
+ */
+public class SpatialHash {
+
+    private int mColumns;
+    private int mRows;
+    private float mCellWidth;
+    private float mCellHeight;
+
+    // Items grouped by cell, cell c holds
+    // mCellItems[mCellStart[c]] up to mCellItems[mCellStart[c + 1]]
+    private int[] mCellStart;
+    private int[] mCellItems = new int[64];
+
+    // Bounds of every item added since the last clear
+    private float[] mBounds = new float[64 * 4];
+    private int mCount;
+
+    // Stops an item spanning several cells being returned twice
+    private int[] mStamp = new int[64];
+    private int mQuery;
+
+    /**
+     * This method sets up a grid covering the play area
+     * @param width horizontal size of the play area
+     * @param height vertical size of the play area
+     * @param cellSize roughly how big each cell should be
+     */
+    public SpatialHash(float width, float height, float cellSize){
+        mColumns = Math.max(1, (int) Math.ceil(width / cellSize));
+        mRows = Math.max(1, (int) Math.ceil(height / cellSize));
+        mCellWidth = width / mColumns;
+        mCellHeight = height / mRows;
+        mCellStart = new int[mColumns * mRows + 1];
+    }
+
+    /**
+     * This method removes every item ready for the next step
+     */
+    public void clear(){
+        mCount = 0;
+    }
+
+    /**
+     * This method adds an item, call build once they are all added
+     * @param left left edge of the item
+     * @param top top edge of the item
+     * @param right right edge of the item
+     * @param bottom bottom edge of the item
+     * @return the id of the item, the order it was added in
+     */
+    public int add(float left, float top, float right, float bottom){
+        if ((mCount + 1) * 4 > mBounds.length){
+            float[] bigger = new float[mBounds.length * 2];
+            System.arraycopy(mBounds, 0, bigger, 0, mBounds.length);
+            mBounds = bigger;
+            mStamp = new int[bigger.length / 4];
+            mQuery = 0;
+        }
+        int at = mCount * 4;
+        mBounds[at] = left;
+        mBounds[at + 1] = top;
+        mBounds[at + 2] = right;
+        mBounds[at + 3] = bottom;
+        return mCount++;
+    }
+
+    /**
+     * This method files every added item under the cells it covers
+     */
+    public void build(){
+        int cells = mColumns * mRows;
+        for (int c = 0; c <= cells; c++){
+            mCellStart[c] = 0;
+        }
+
+        // Count how many items land in each cell
+        int total = 0;
+        for (int i = 0; i < mCount; i++){
+            int at = i * 4;
+            int c0 = column(mBounds[at]);
+            int c1 = column(mBounds[at + 2]);
+            int r0 = row(mBounds[at + 1]);
+            int r1 = row(mBounds[at + 3]);
+            for (int r = r0; r <= r1; r++){
+                for (int c = c0; c <= c1; c++){
+                    mCellStart[r * mColumns + c + 1]++;
+                }
+            }
+            total += (c1 - c0 + 1) * (r1 - r0 + 1);
+        }
+        if (total > mCellItems.length){
+            mCellItems = new int[Math.max(total, mCellItems.length * 2)];
+        }
+
+        // Turn the counts into where each cell starts
+        for (int c = 0; c < cells; c++){
+            mCellStart[c + 1] += mCellStart[c];
+        }
+
+        // Fill the cells, walking each start forward as we go
+        for (int i = 0; i < mCount; i++){
+            int at = i * 4;
+            int c0 = column(mBounds[at]);
+            int c1 = column(mBounds[at + 2]);
+            int r0 = row(mBounds[at + 1]);
+            int r1 = row(mBounds[at + 3]);
+            for (int r = r0; r <= r1; r++){
+                for (int c = c0; c <= c1; c++){
+                    mCellItems[mCellStart[r * mColumns + c]++] = i;
+                }
+            }
+        }
+
+        // Walking forward left each start where the next cell begins
+        // so shift them all back by one
+        for (int c = cells; c > 0; c--){
+            mCellStart[c] = mCellStart[c - 1];
+        }
+        mCellStart[0] = 0;
+    }
+
+    /**
+     * This method finds the items that might overlap an area
+     * Items are only returned if their bounds really overlap the area
+     * @param left left edge of the area
+     * @param top top edge of the area
+     * @param right right edge of the area
+     * @param bottom bottom edge of the area
+     * @param out array to write the item ids into, must hold every item
+     * @return how many ids were written into out
+     */
+    public int query(float left, float top, float right, float bottom, int[] out){
+        if (++mQuery == 0){
+            // The stamp wrapped around so old stamps could match
+            Arrays.fill(mStamp, 0);
+            mQuery = 1;
+        }
+
+        int found = 0;
+        int c0 = column(left);
+        int c1 = column(right);
+        int r0 = row(top);
+        int r1 = row(bottom);
+        for (int r = r0; r <= r1; r++){
+            for (int c = c0; c <= c1; c++){
+                int cell = r * mColumns + c;
+                for (int k = mCellStart[cell]; k < mCellStart[cell + 1]; k++){
+                    int item = mCellItems[k];
+                    if (mStamp[item] == mQuery){
+                        continue;
+                    }
+                    mStamp[item] = mQuery;
+                    int at = item * 4;
+                    if (left <= mBounds[at + 2] && mBounds[at] <= right
+                            && top <= mBounds[at + 3] && mBounds[at + 1] <= bottom){
+                        out[found++] = item;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return how many items have been added since the last clear
+     */
+    public int size(){ return mCount; }
+
+    // Anything off the grid is filed in the nearest edge cell
+    private int column(float x){
+        int c = (int) (x / mCellWidth);
+        return c < 0 ? 0 : (c >= mColumns ? mColumns - 1 : c);
+    }
+
+    private int row(float y){
+        int r = (int) (y / mCellHeight);
+        return r < 0 ? 0 : (r >= mRows ? mRows - 1 : r);
+    }
+}
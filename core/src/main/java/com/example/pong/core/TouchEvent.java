@@ -0,0 +1,40 @@
+package com.example.pong.core;
+
+/**
+ * This class is one touch on the screen
+ * The events live in a TouchQueue and are filled in again and again
+ * so handling input never creates objects
+ */
+public class TouchEvent {
+
+    // What the finger did
+    public static final int DOWN = 0;
+    public static final int MOVE = 1;
+    public static final int UP = 2;
+    // Every finger is gone, like MotionEvent.ACTION_CANCEL
+    public static final int CANCEL = 3;
+
+    public int action;
+    // Which finger, stays the same from DOWN to UP
+    public int pointerId;
+    public float x;
+    public float y;
+    // When it happened in milliseconds, from MotionEvent.getEventTime
+    public long eventTime;
+
+    /**
+     * This method fills in the event
+     * @param action DOWN, MOVE, UP or CANCEL
+     * @param pointerId which finger
+     * @param x horizontal position
+     * @param y vertical position
+     * @param eventTime when it happened in milliseconds
+     */
+    public void set(int action, int pointerId, float x, float y, long eventTime){
+        this.action = action;
+        this.pointerId = pointerId;
+        this.x = x;
+        this.y = y;
+        this.eventTime = eventTime;
+    }
+}
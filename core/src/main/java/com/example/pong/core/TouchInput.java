@@ -0,0 +1,108 @@
+package com.example.pong.core;
+
+/**
+ * This class turns the fingers on the screen into a bat movement
+ * The finger that went down last decides, a finger on the left half
+ * moves the bat left and one on the right half moves it right.
+ * Lifting it hands control back to the fingers still down
+ */
+public class TouchInput {
+
+    // The fingers that are down, oldest first
+    private int[] mIds;
+    private float[] mXs;
+    private int mCount;
+
+    private float mHalfWidth;
+
+    // Set when a finger goes down, until the game takes it
+    private boolean mTouched;
+
+    /**
+     * This method initializes the input with no fingers down
+     * @param screenX the horizontal width of the game screen
+     * @param maxPointers the most fingers to track at once
+     */
+    public TouchInput(int screenX, int maxPointers){
+        mHalfWidth = screenX / 2;
+        mIds = new int[maxPointers];
+        mXs = new float[maxPointers];
+    }
+
+    /**
+     * This method updates the fingers from one event
+     * @param event the event to apply
+     */
+    public void apply(TouchEvent event){
+        switch (event.action){
+            case TouchEvent.DOWN:
+                remove(event.pointerId);
+                if (mCount == mIds.length){
+                    // Too many fingers, the oldest one is forgotten
+                    removeAt(0);
+                }
+                mIds[mCount] = event.pointerId;
+                mXs[mCount] = event.x;
+                mCount++;
+                mTouched = true;
+                break;
+
+            case TouchEvent.MOVE:
+                for (int i = 0; i < mCount; i++){
+                    if (mIds[i] == event.pointerId){
+                        mXs[i] = event.x;
+                    }
+                }
+                break;
+
+            case TouchEvent.UP:
+                remove(event.pointerId);
+                break;
+
+            case TouchEvent.CANCEL:
+                mCount = 0;
+                break;
+        }
+    }
+
+    private void remove(int pointerId){
+        for (int i = 0; i < mCount; i++){
+            if (mIds[i] == pointerId){
+                removeAt(i);
+                return;
+            }
+        }
+    }
+
+    private void removeAt(int index){
+        // Keep the order so the newest finger stays last
+        System.arraycopy(mIds, index + 1, mIds, index, mCount - index - 1);
+        System.arraycopy(mXs, index + 1, mXs, index, mCount - index - 1);
+        mCount--;
+    }
+
+    /**
+     * @return Bat.LEFT, Bat.RIGHT or Bat.STOPPED if no finger is down
+     */
+    public int getMovement(){
+        if (mCount == 0){
+            return Bat.STOPPED;
+        }
+        return mXs[mCount - 1] > mHalfWidth ? Bat.RIGHT : Bat.LEFT;
+    }
+
+    /**
+     * This method reports whether a finger went down since it was last called
+     * @return true once for each burst of new touches
+     */
+    public boolean takeTouched(){
+        boolean touched = mTouched;
+        mTouched = false;
+        return touched;
+    }
+
+    /**
+     * @return how many fingers are down
+     */
+    public int getPointerCount(){ return mCount; }
+}
@@ -0,0 +1,79 @@
+package com.example.pong.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class passes touch events from the UI thread to the game thread
+ * without locks. Every event is created up front and reused.
+ * Only one thread may add events and only one thread may take them
+ */
+public class TouchQueue {
+
+    private final TouchEvent[] mEvents;
+    private final int mMask;
+
+    // How many events have ever been added and taken
+    // Each is only changed by its own thread, lazySet publishes it to the other
+    private final AtomicLong mWritten = new AtomicLong();
+    private final AtomicLong mRead = new AtomicLong();
+
+    // How many events did not fit
+    private volatile int mDropped;
+
+    /**
+     * This method creates an empty queue
+     * @param capacity how many events it can hold, rounded up to a power of two
+     */
+    public TouchQueue(int capacity){
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        mEvents = new TouchEvent[size];
+        for (int i = 0; i < size; i++){
+            mEvents[i] = new TouchEvent();
+        }
+        mMask = size - 1;
+    }
+
+    /**
+     * This method adds an event, called by the producer thread only
+     * @param action TouchEvent.DOWN, MOVE, UP or CANCEL
+     * @param pointerId which finger
+     * @param x horizontal position
+     * @param y vertical position
+     * @param eventTime when it happened in milliseconds
+     * @return false if the queue was full and the event was dropped
+     */
+    public boolean offer(int action, int pointerId, float x, float y, long eventTime){
+        long written = mWritten.get();
+        if (written - mRead.get() == mEvents.length){
+            mDropped++;
+            return false;
+        }
+        mEvents[(int) written & mMask].set(action, pointerId, x, y, eventTime);
+        mWritten.lazySet(written + 1);
+        return true;
+    }
+
+    /**
+     * This method looks at the oldest event without taking it, called by the consumer thread only
+     * @return the event, only valid until remove is called, or null if there is none
+     */
+    public TouchEvent peek(){
+        long read = mRead.get();
+        if (read == mWritten.get()){
+            return null;
+        }
+        return mEvents[(int) read & mMask];
+    }
+
+    /**
+     * This method takes the event returned by peek, freeing its slot for the producer
+     */
+    public void remove(){
+        mRead.lazySet(mRead.get() + 1);
+    }
+
+    /**
+     * @return how many events were dropped because the queue was full
+     */
+    public int getDropped(){ return mDropped; }
+}
@@ -0,0 +1,244 @@
+package com.example.pong.core;
+
+import java.util.List;
+
+/**
+ * This class works out where a ball will reach the bat without simulating it
+ * Bounces off the side walls are folded away: moving in a straight line
+ * through mirrored copies of the screen and folding the answer back gives
+ * the same place as bouncing. Obstacles slide back and forth the same way,
+ * so where one will be at any time is folded the same way too.
+ * Only the vertical bounces, off the top wall and obstacles, are stepped through
+ */
+public class TrajectoryPredictor {
+
+    // Give up after this many vertical bounces
+    private static final int MAX_BOUNCES = 32;
+
+    // The result of the last prediction
+    private float mInterceptX;
+    private float mInterceptTime;
+    private int mBounces;
+
+    /**
+     * This method predicts where a ball will be when its bottom edge reaches the top of the bat
+     * It follows the same bounce rules as PongSimulation.step, an obstacle
+     * it touches while level with it sends it back up or down
+     * @param sim the game the ball is in
+     * @param ball the ball to follow
+     * @return false if the ball is not going to get there, for example it is not moving up or down
+     */
+    public boolean predict(PongSimulation sim, Ball ball){
+        FloatRect rect = ball.getRect();
+        float x = rect.left;
+        float y = rect.top;
+        float width = rect.width();
+        float height = rect.height();
+        float vx = ball.getXVelocity();
+        float vy = ball.getYVelocity();
+
+        // The ball's left edge stays between 0 and range
+        float range = sim.getScreenX() - width;
+        // Where the top of the ball is when its bottom touches the bat
+        float target = sim.getBat().getRect().top - height;
+
+        List<Obstacle> obstacles = sim.getObstacles();
+        float time = 0;
+        int lastHit = -1;
+        mBounces = 0;
+
+        while (mBounces <= MAX_BOUNCES){
+            if (vy == 0){
+                return false;
+            }
+
+            // When does the ball next reach the bat or the top wall
+            float next;
+            if (vy > 0){
+                next = Math.max(0, (target - y) / vy);
+            } else {
+                next = Math.max(0, y / -vy);
+            }
+
+            // Does an obstacle get in the way first
+            // The one just bounced off is skipped, like the contact cache
+            int hit = -1;
+            for (int i = 0; i < obstacles.size(); i++){
+                if (i == lastHit){
+                    continue;
+                }
+                Obstacle obstacle = obstacles.get(i);
+                FloatRect obs = obstacle.getRect();
+
+                // When the ball is level with the obstacle
+                float enter;
+                float exit;
+                if (vy > 0){
+                    enter = (obs.top - height - y) / vy;
+                    exit = (obs.bottom - y) / vy;
+                } else {
+                    enter = (obs.bottom - y) / vy;
+                    exit = (obs.top - height - y) / vy;
+                }
+                enter = Math.max(0, enter);
+                exit = Math.min(next, exit);
+                if (enter >= exit){
+                    continue;
+                }
+
+                // The first moment in there that they overlap across the screen
+                float t = firstOverlap(enter, exit, x, vx, range, width,
+                        obs.left + obstacle.getXVelocity() * time, obstacle.getXVelocity(),
+                        sim.getScreenX() - obs.width(), obs.width());
+                if (t < next){
+                    next = t;
+                    hit = i;
+                }
+            }
+
+            // Move to the bounce
+            float unfolded = x + vx * next;
+            x = fold(unfolded, range);
+            if (isMirrored(unfolded, range)){
+                vx = -vx;
+            }
+            y += vy * next;
+            time += next;
+
+            if (hit != -1){
+                // Bounce like Ball.batBounce then speed up like PongSimulation.collisionAction
+                Obstacle obstacle = obstacles.get(hit);
+                FloatRect obs = obstacle.getRect();
+                float obsWidth = obs.width();
+                float obsX = fold(obs.left + obstacle.getXVelocity() * time,
+                        sim.getScreenX() - obsWidth);
+                float relativeIntersect = (obsX + obsWidth / 2) - (x + width / 2);
+                vx = relativeIntersect < 0 ? Math.abs(vx) : -Math.abs(vx);
+                vy = -vy;
+                vx *= sim.getSpeedUp();
+                vy *= sim.getSpeedUp();
+                lastHit = hit;
+                mBounces++;
+            } else if (vy > 0){
+                mInterceptX = x;
+                mInterceptTime = time;
+                return true;
+            } else {
+                // Off the top wall
+                vy = -vy;
+                lastHit = -1;
+                mBounces++;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * This method finds when the ball and an obstacle first overlap across the screen
+     * Between wall bounces both move in straight lines so each piece is solved exactly
+     * @param start the earliest time to look at
+     * @param end the latest time to look at
+     * @param x left edge of the ball at time 0
+     * @param vx horizontal speed of the ball at time 0
+     * @param range how far the ball's left edge can go
+     * @param width width of the ball
+     * @param obsX left edge of the obstacle at time 0, not yet folded
+     * @param obsVX horizontal speed of the obstacle at time 0
+     * @param obsRange how far the obstacle's left edge can go
+     * @param obsWidth width of the obstacle
+     * @return the time they first overlap, or Float.MAX_VALUE if they don't before end
+     */
+    private static float firstOverlap(float start, float end, float x, float vx, float range, float width,
+                                      float obsX, float obsVX, float obsRange, float obsWidth){
+        while (start < end){
+            // Stop the piece at the next wall bounce of either of them
+            float pieceEnd = Math.min(end, Math.min(
+                    nextFold(x, vx, range, start), nextFold(obsX, obsVX, obsRange, start)));
+            float middle = (start + pieceEnd) / 2;
+
+            // Gap between their left edges and how fast it changes over the piece
+            float ballSpeed = isMirrored(x + vx * middle, range) ? -vx : vx;
+            float obsSpeed = isMirrored(obsX + obsVX * middle, obsRange) ? -obsVX : obsVX;
+            float gap = fold(x + vx * start, range) - fold(obsX + obsVX * start, obsRange);
+            float rate = ballSpeed - obsSpeed;
+
+            // They overlap while -width < gap < obsWidth
+            float t = Float.MAX_VALUE;
+            if (gap > -width && gap < obsWidth){
+                t = start;
+            } else if (gap <= -width && rate > 0){
+                t = start + (-width - gap) / rate;
+            } else if (gap >= obsWidth && rate < 0){
+                t = start + (obsWidth - gap) / rate;
+            }
+            if (t <= pieceEnd){
+                return t;
+            }
+            start = Math.max(pieceEnd, Math.nextUp(start));
+        }
+        return Float.MAX_VALUE;
+    }
+
+    /**
+     * @return the next time after start that a position bounces off a wall
+     */
+    private static float nextFold(float position, float velocity, float range, float start){
+        if (velocity == 0 || range <= 0){
+            return Float.MAX_VALUE;
+        }
+        float at = position + velocity * start;
+        double wall = velocity > 0
+                ? (Math.floor(at / range) + 1) * range
+                : (Math.ceil(at / range) - 1) * range;
+        return (float) (start + (wall - at) / velocity);
+    }
+
+    /**
+     * This method folds a position on an endless line back into 0 to range
+     * the way bouncing between two walls would
+     * @param position where it would be with no walls
+     * @param range how far it can go between the walls
+     * @return where it really is
+     */
+    static float fold(float position, float range){
+        if (range <= 0){
+            return 0;
+        }
+        float period = range * 2;
+        float wrapped = position % period;
+        if (wrapped < 0){
+            wrapped += period;
+        }
+        return wrapped <= range ? wrapped : period - wrapped;
+    }
+
+    /**
+     * @return true if the folded position is in a mirrored copy, so it is moving the other way
+     */
+    private static boolean isMirrored(float position, float range){
+        if (range <= 0){
+            return false;
+        }
+        float period = range * 2;
+        float wrapped = position % period;
+        if (wrapped < 0){
+            wrapped += period;
+        }
+        return wrapped > range;
+    }
+
+    /**
+     * @return the left edge of the ball when it reaches the bat, from the last successful predict
+     */
+    public float getInterceptX(){ return mInterceptX; }
+
+    /**
+     * @return how many seconds until the ball reaches the bat, from the last successful predict
+     */
+    public float getInterceptTime(){ return mInterceptTime; }
+
+    /**
+     * @return how many times the ball bounces off the top wall or an obstacle on the way
+     */
+    public int getBounces(){ return mBounces; }
+}
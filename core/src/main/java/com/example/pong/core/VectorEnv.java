@@ -0,0 +1,240 @@
+package com.example.pong.core;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class steps many independent games in lockstep for training bots
+ * Actions go in as one array and observations, rewards and done flags
+ * come out as arrays. The games are split into one shard per core
+ * and the shards run on a ForkJoinPool
+ */
+public class VectorEnv {
+
+    // What each game reports after every step, all scaled by the screen size
+    // ball x, ball y, ball x velocity, ball y velocity,
+    // bat centre x, obstacle x, obstacle y, obstacle x velocity
+    public static final int OBSERVATION_SIZE = 8;
+
+    // Reward for every hit and for every miss
+    public static final float HIT_REWARD = 1;
+    public static final float MISS_REWARD = -1;
+
+    // Most random ticks played at the start of each game
+    // so the games don't all start in step with each other
+    private static final int MAX_NOOP_TICKS = 120;
+
+    private final PongSimulation[] mGames;
+    private final float mDt;
+    private final int mTicksPerStep;
+    private final float mScreenX;
+    private final float mScreenY;
+
+    private final ForkJoinPool mPool;
+    private final Shard[] mShards;
+    private final Step mStep = new Step();
+
+    // The arrays the current step reads and writes
+    private int[] mActions;
+    private float[] mObservations;
+    private float[] mRewards;
+    private boolean[] mDones;
+
+    /**
+     * This method creates the games
+     * @param count how many games to run
+     * @param screenX the horizontal size of each play area
+     * @param screenY the vertical size of each play area
+     * @param seed game i is seeded with seed + i
+     * @param tickRate physics ticks per second of game time
+     * @param ticksPerStep how many ticks each action is repeated for
+     * @param pool where to run the shards
+     */
+    public VectorEnv(int count, int screenX, int screenY, long seed,
+                     int tickRate, int ticksPerStep, ForkJoinPool pool){
+        mGames = new PongSimulation[count];
+        for (int i = 0; i < count; i++){
+            mGames[i] = new PongSimulation(screenX, screenY, seed + i);
+        }
+        mDt = 1f / tickRate;
+        mTicksPerStep = ticksPerStep;
+        mScreenX = screenX;
+        mScreenY = screenY;
+
+        // One shard per core, or per game if there are fewer games
+        mPool = pool;
+        int shards = Math.max(1, Math.min(count, pool.getParallelism()));
+        mShards = new Shard[shards];
+        for (int s = 0; s < shards; s++){
+            mShards[s] = new Shard(count * s / shards, count * (s + 1) / shards);
+        }
+    }
+
+    /**
+     * This method creates the games on the common pool
+     * @param count how many games to run
+     * @param screenX the horizontal size of each play area
+     * @param screenY the vertical size of each play area
+     * @param seed game i is seeded with seed + i
+     */
+    public VectorEnv(int count, int screenX, int screenY, long seed){
+        this(count, screenX, screenY, seed, 120, 4, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * This method starts every game again
+     * @param observations array of size() * OBSERVATION_SIZE to fill
+     */
+    public void reset(float[] observations){
+        for (int i = 0; i < mGames.length; i++){
+            resetGame(i);
+            observe(i, observations);
+        }
+    }
+
+    /**
+     * This method moves every game forward by one step
+     * @param actions one Bat.STOPPED, Bat.LEFT or Bat.RIGHT per game
+     * @param observations array of size() * OBSERVATION_SIZE to fill
+     * @param rewards array of size() to fill with each game's reward
+     * @param dones array of size() set true where a game ended and was restarted
+     */
+    public void step(int[] actions, float[] observations, float[] rewards, boolean[] dones){
+        mActions = actions;
+        mObservations = observations;
+        mRewards = rewards;
+        mDones = dones;
+
+        mStep.reinitialize();
+        mPool.invoke(mStep);
+
+        mActions = null;
+        mObservations = null;
+        mRewards = null;
+        mDones = null;
+    }
+
+    /**
+     * @return how many games are running
+     */
+    public int size(){ return mGames.length; }
+
+    /**
+     * This method returns one of the games
+     * @param i which game
+     * @return the game
+     */
+    public PongSimulation getGame(int i){ return mGames[i]; }
+
+    /**
+     * This method steps a range of games, the work one shard does
+     * @param from first game
+     * @param to one past the last game
+     */
+    private void stepRange(int from, int to){
+        for (int i = from; i < to; i++){
+            PongSimulation game = mGames[i];
+            game.setBatMovement(mActions[i]);
+
+            float reward = 0;
+            boolean done = false;
+            for (int t = 0; t < mTicksPerStep && !done; t++){
+                int events = game.step(mDt);
+                if ((events & (PongSimulation.EVENT_HIT_BAT | PongSimulation.EVENT_HIT_OBSTACLE)) != 0){
+                    reward += HIT_REWARD;
+                }
+                if ((events & PongSimulation.EVENT_MISS) != 0){
+                    reward += MISS_REWARD;
+                }
+                done = (events & PongSimulation.EVENT_GAME_OVER) != 0;
+            }
+
+            if (done){
+                // The game has already started again, shuffle the start
+                resetGame(i);
+            }
+            mRewards[i] = reward;
+            mDones[i] = done;
+            observe(i, mObservations);
+        }
+    }
+
+    /**
+     * This method starts a game again and plays a random number of
+     * ticks with random bat moves from the game's own random numbers
+     * @param i which game
+     */
+    private void resetGame(int i){
+        PongSimulation game = mGames[i];
+        game.startNewGame();
+        GameRandom random = game.getRandom();
+        int ticks = random.nextInt(MAX_NOOP_TICKS);
+        game.setBatMovement(random.nextInt(3));
+        for (int t = 0; t < ticks; t++){
+            game.step(mDt);
+        }
+        game.setBatMovement(Bat.STOPPED);
+    }
+
+    /**
+     * This method writes what a game looks like into the observations
+     * @param i which game
+     * @param out the observation array for every game
+     */
+    private void observe(int i, float[] out){
+        PongSimulation game = mGames[i];
+        Ball ball = game.getBall();
+        FloatRect ballRect = ball.getRect();
+        FloatRect batRect = game.getBat().getRect();
+        Obstacle obs = game.getObstacle();
+
+        int at = i * OBSERVATION_SIZE;
+        out[at] = ballRect.left / mScreenX;
+        out[at + 1] = ballRect.top / mScreenY;
+        out[at + 2] = ball.getXVelocity() / mScreenX;
+        out[at + 3] = ball.getYVelocity() / mScreenY;
+        out[at + 4] = (batRect.left + batRect.width() / 2) / mScreenX;
+        if (obs == null){
+            // A level with no obstacles
+            out[at + 5] = 0;
+            out[at + 6] = 0;
+            out[at + 7] = 0;
+        } else {
+            FloatRect obsRect = obs.getRect();
+            out[at + 5] = obsRect.left / mScreenX;
+            out[at + 6] = obsRect.top / mScreenY;
+            out[at + 7] = obs.getXVelocity() / mScreenX;
+        }
+    }
+
+    /**
+     * Steps one range of games
+     */
+    private final class Shard extends RecursiveAction {
+        private final int mFrom;
+        private final int mTo;
+
+        Shard(int from, int to){
+            mFrom = from;
+            mTo = to;
+        }
+
+        @Override
+        protected void compute(){
+            stepRange(mFrom, mTo);
+        }
+    }
+
+    /**
+     * Runs every shard and waits for them all
+     */
+    private final class Step extends RecursiveAction {
+        @Override
+        protected void compute(){
+            for (Shard shard : mShards){
+                shard.reinitialize();
+            }
+            invokeAll(mShards);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.pong.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class EntityStoreTest {
+
+    @Test
+    public void batchKernels_matchObstacleUpdateOneAtATime() {
+        EntityStore shared = new EntityStore(1);
+        Obstacle[] batched = new Obstacle[50];
+        Obstacle[] single = new Obstacle[50];
+        for (int i = 0; i < batched.length; i++) {
+            // Adding past the capacity also grows the arrays
+            batched[i] = new Obstacle(shared, 1000, 2000, i * 17, i * 30, 100 + i * 13);
+            single[i] = new Obstacle(1000, 2000, i * 17, i * 30, 100 + i * 13);
+        }
+
+        for (int tick = 0; tick < 2000; tick++) {
+            shared.integrate(1f / 120);
+            shared.bounceHorizontal(1000);
+            for (Obstacle obs : single) {
+                obs.update(1f / 120);
+            }
+        }
+
+        for (int i = 0; i < batched.length; i++) {
+            assertEquals(single[i].getRect().left, batched[i].getRect().left, 0);
+            assertEquals(single[i].getXVelocity(), batched[i].getXVelocity(), 0);
+        }
+    }
+
+    @Test
+    public void views_shareTheStoreSlots() {
+        EntityStore store = new EntityStore(4);
+        Ball first = new Ball(store, 1000);
+        Ball second = new Ball(store, 1000);
+
+        second.setPosition(100, 200);
+        second.setVelocity(30, 40);
+
+        assertEquals(2, store.size());
+        assertEquals(1, second.getIndex());
+        assertEquals(100, store.getX(1), 0);
+        assertEquals(40, store.getYVelocity(1), 0);
+        assertEquals(0, first.getRect().left, 0);
+        assertEquals(110, second.getRect().right, 0);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.pong.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FixedPongSimulationTest {
+
+    private static final int TICK_RATE = 120;
+
+    /**
+     * Plays a long game, chasing the ball with the bat every tick
+     */
+    private static long play(FixedPongSimulation sim, int ticks) {
+        long events = 0;
+        for (int tick = 0; tick < ticks; tick++) {
+            int ball = sim.getBallX() + sim.getBallSize() / 2;
+            int bat = sim.getBatX() + sim.getBatWidth() / 2;
+            int slack = sim.getBatWidth() / 4;
+            sim.setBatMovement(ball > bat + slack ? Bat.RIGHT : ball < bat - slack ? Bat.LEFT : Bat.STOPPED);
+            events = events * 31 + sim.step();
+        }
+        return events;
+    }
+
+    @Test
+    public void sameSeedAndInputs_giveTheSameGameBitForBit() {
+        int worldY = FixedPongSimulation.worldHeight(1080, 1920);
+        FixedPongSimulation first = new FixedPongSimulation(worldY, TICK_RATE, 42);
+        FixedPongSimulation second = new FixedPongSimulation(worldY, TICK_RATE, 42);
+
+        assertEquals(play(first, 20000), play(second, 20000));
+        assertEquals(first.checksum(), second.checksum());
+
+        // Pinned so a change in the arithmetic, or a JVM that disagrees, fails here
+        assertEquals(6882459711526524430L, first.checksum());
+    }
+
+    @Test
+    public void fastBall_cannotPassThroughTheBat() {
+        int worldY = FixedPongSimulation.worldHeight(1000, 1000);
+        FixedPongSimulation sim = new FixedPongSimulation(worldY, TICK_RATE, 1);
+        sim.clearObstacles();
+
+        // Starts above the bat moving further than the bat is tall in one tick
+        int batX = sim.getBatX();
+        sim.setBall(batX, worldY - worldY / 40 - sim.getBallSize() - 10, 0, worldY / 10);
+        int events = sim.step();
+
+        assertTrue((events & PongSimulation.EVENT_HIT_BAT) != 0);
+        assertEquals(1, sim.getScore());
+        assertTrue(sim.getBallY() + sim.getBallSize() <= worldY - worldY / 40);
+    }
+
+    @Test
+    public void timeOfImpact_agreesWithTheFloatSweep() {
+        GameRandom random = new GameRandom(5);
+        int hits = 0;
+        for (int i = 0; i < 10000; i++) {
+            int ax = random.nextInt(1000);
+            int ay = random.nextInt(1000);
+            int bx = random.nextInt(1000);
+            int by = random.nextInt(1000);
+            int dx = random.nextInt(1001) - 500;
+            int dy = random.nextInt(1001) - 500;
+            int t = FixedPongSimulation.timeOfImpact(ax, ay, 20, 20, dx, dy, bx, by, 100, 30);
+            float f = Sweep.timeOfImpact(new FloatRect(ax, ay, ax + 20, ay + 20), dx, dy,
+                    new FloatRect(bx, by, bx + 100, by + 30));
+            if (f == Sweep.NO_HIT) {
+                continue;
+            }
+            // Rounding at the very edge of a touch can go either way
+            if (t != Integer.MAX_VALUE) {
+                hits++;
+                assertEquals(f, t / (float) FixedPongSimulation.ONE, 1e-3f);
+            }
+        }
+        assertTrue(hits > 100);
+    }
+
+    @Test
+    public void scene_isScaledToTheScreenOnlyWhenLaidOut() {
+        int worldY = FixedPongSimulation.worldHeight(1080, 1920);
+        FixedPongSimulation sim = new FixedPongSimulation(worldY, TICK_RATE, 3);
+        play(sim, 500);
+
+        SceneRenderer large = new SceneRenderer(0);
+        large.saveState(sim, 1080, 1920);
+        large.layout(sim, 1080, 1920, 1);
+        SceneRenderer small = new SceneRenderer(0);
+        small.saveState(sim, 540, 960);
+        small.layout(sim, 540, 960, 1);
+
+        assertEquals(3, large.getRectCount());
+        for (int i = 0; i < large.getRectCount(); i++) {
+            assertEquals(large.getRect(i).left / 2, small.getRect(i).left, 1e-3f);
+            assertEquals(large.getRect(i).bottom / 2, small.getRect(i).bottom, 1e-3f);
+        }
+        // The bat sits on the bottom of the screen
+        assertEquals(1920, large.getRect(1).bottom, 0.5f);
+    }
+}
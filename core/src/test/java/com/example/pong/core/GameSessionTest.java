@@ -0,0 +1,67 @@
+package com.example.pong.core;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+public class GameSessionTest {
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    @Test
+    public void changesTriedWhileRecording_areRefusedAndTheReplayStillMatches() throws Exception {
+        File file = mFolder.newFile("session.rec");
+        GameSession session = new GameSession(1080, 1920, 120, 1);
+        byte[] saved = session.save();
+        session.startRecording(file, 12345);
+
+        GameRandom player = new GameRandom(99);
+        int input = Bat.STOPPED;
+        for (int tick = 0; tick < 120 * 30; tick++) {
+            if (player.nextInt(40) == 0) {
+                input = player.nextInt(3);
+            }
+            // Halfway through everything that would change the game is tried
+            if (tick == 120 * 15) {
+                assertFalse(session.addChaos(20, 10));
+                assertFalse(session.setTickRate(60));
+                assertFalse(session.setFixedPoint(true, 7));
+                assertFalse(session.restore(saved));
+            }
+            session.setBatMovement(input);
+            session.step();
+        }
+        session.stopRecording();
+
+        ReplayEngine replay = ReplayEngine.replay(file);
+
+        assertTrue(replay.matchesRecording());
+        assertEquals(session.checksum(), replay.getSimulation().checksum());
+        assertEquals(1, replay.getSimulation().getBalls().size());
+    }
+
+    @Test
+    public void changesAfterRecording_areAllowedAgain() throws Exception {
+        GameSession session = new GameSession(1080, 1920, 120, 1);
+        session.startRecording(mFolder.newFile("short.rec"), 5);
+        session.step();
+        session.stopRecording();
+
+        assertFalse(session.isRecording());
+        assertTrue(session.addChaos(20, 10));
+        assertTrue(session.setFixedPoint(true, 7));
+        assertTrue(session.isFixedPoint());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void variableTicksWhileRecording_areRejected() throws Exception {
+        GameSession session = new GameSession(1080, 1920, 120, 1);
+        session.startRecording(mFolder.newFile("variable.rec"), 5);
+        session.step(1f / 30);
+    }
+}
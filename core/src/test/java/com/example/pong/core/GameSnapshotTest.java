@@ -0,0 +1,113 @@
+package com.example.pong.core;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class GameSnapshotTest {
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    @Test
+    public void restoredGame_carriesOnExactlyLikeTheOriginal() throws Exception {
+        PongSimulation original = new PongSimulation(1080, 1920, 5);
+        original.addObstacle(100, 900, 250);
+        original.addBall(300, 300, -400, 500);
+        original.setBatMovement(Bat.RIGHT);
+        for (int i = 0; i < 5000; i++) {
+            original.step(1f / 120);
+        }
+
+        File file = mFolder.newFile("game.snap");
+        GameSnapshot.save(original, file);
+        PongSimulation restored = GameSnapshot.load(file);
+
+        assertEquals(original.checksum(), restored.checksum());
+        assertEquals(original.getBallColor(), restored.getBallColor());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(original.step(1f / 120), restored.step(1f / 120));
+        }
+        assertEquals(original.checksum(), restored.checksum());
+    }
+
+    @Test
+    public void rotatedScreen_keepsTheGameAndStretchesPositions() throws Exception {
+        PongSimulation original = new PongSimulation(1080, 1920, 5);
+        original.setBatMovement(Bat.RIGHT);
+        for (int i = 0; i < 3000; i++) {
+            original.step(1f / 120);
+        }
+        assertTrue(original.getScore() > 0 || original.getLives() < 3);
+
+        PongSimulation restored = GameSnapshot.fromBytes(GameSnapshot.toBytes(original), 1920, 1080);
+
+        assertEquals(1920, restored.getScreenX());
+        assertEquals(1080, restored.getScreenY());
+        assertEquals(original.getScore(), restored.getScore());
+        assertEquals(original.getLives(), restored.getLives());
+        assertEquals(original.getBallColor(), restored.getBallColor());
+
+        // Everything is in the same place relative to the edges of the screen
+        FloatRect before = original.getBall().getRect();
+        FloatRect after = restored.getBall().getRect();
+        assertEquals(before.left / 1080, after.left / 1920, 1e-4f);
+        assertEquals(before.top / 1920, after.top / 1080, 1e-4f);
+        assertEquals(original.getBat().getRect().left / 1080, restored.getBat().getRect().left / 1920, 1e-4f);
+        assertEquals(1080, restored.getBat().getRect().bottom, 1e-3f);
+        assertEquals(original.getObstacle().getRect().top / 1920, restored.getObstacle().getRect().top / 1080, 1e-4f);
+
+        // And it plays on
+        for (int i = 0; i < 1000; i++) {
+            restored.step(1f / 120);
+        }
+    }
+
+    @Test
+    public void restoredFixedPointGame_carriesOnExactlyLikeTheOriginal() throws Exception {
+        FixedPongSimulation original = new FixedPongSimulation(
+                FixedPongSimulation.worldHeight(1080, 1920), 120, 9);
+        original.setBatMovement(Bat.LEFT);
+        for (int i = 0; i < 5000; i++) {
+            original.step();
+        }
+
+        byte[] bytes = GameSnapshot.toBytes(original);
+        assertTrue(GameSnapshot.isFixedPoint(bytes));
+        assertFalse(GameSnapshot.isFixedPoint(GameSnapshot.toBytes(new PongSimulation(1080, 1920, 5))));
+        FixedPongSimulation restored = GameSnapshot.fixedFromBytes(bytes);
+
+        assertEquals(original.checksum(), restored.checksum());
+        assertEquals(original.getBallColor(), restored.getBallColor());
+        original.setBatMovement(Bat.RIGHT);
+        restored.setBatMovement(Bat.RIGHT);
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(original.step(), restored.step());
+        }
+        assertEquals(original.checksum(), restored.checksum());
+    }
+
+    @Test(expected = IOException.class)
+    public void fromBytes_rejectsAFixedPointSnapshot() throws Exception {
+        GameSnapshot.fromBytes(GameSnapshot.toBytes(new FixedPongSimulation(1000, 120, 1)));
+    }
+
+    @Test(expected = IOException.class)
+    public void fromBytes_rejectsOtherVersions() throws Exception {
+        byte[] bytes = GameSnapshot.toBytes(new PongSimulation(1080, 1920, 5));
+        bytes[7] = 99;
+        GameSnapshot.fromBytes(bytes);
+    }
+
+    @Test(expected = IOException.class)
+    public void fromBytes_rejectsTruncatedSnapshots() throws Exception {
+        byte[] bytes = GameSnapshot.toBytes(new PongSimulation(1080, 1920, 5));
+        GameSnapshot.fromBytes(Arrays.copyOf(bytes, bytes.length - 3));
+    }
+}
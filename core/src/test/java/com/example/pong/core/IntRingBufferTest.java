@@ -0,0 +1,58 @@
+package com.example.pong.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class IntRingBufferTest {
+
+    @Test
+    public void offer_refusesValuesWhenFull() {
+        IntRingBuffer buffer = new IntRingBuffer(3);
+
+        // Rounded up to four
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+
+        assertEquals(0, buffer.poll());
+        assertTrue(buffer.offer(4));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(i, buffer.poll());
+        }
+        assertEquals(IntRingBuffer.EMPTY, buffer.poll());
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void poll_seesEveryValueInOrderFromAnotherThread() throws InterruptedException {
+        final IntRingBuffer buffer = new IntRingBuffer(16);
+        final int count = 200000;
+
+        Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < count; i++) {
+                    while (!buffer.offer(i)) {
+                        Thread.yield();
+                    }
+                }
+            }
+        });
+        producer.start();
+
+        int expected = 0;
+        while (expected < count) {
+            int value = buffer.poll();
+            if (value == IntRingBuffer.EMPTY) {
+                Thread.yield();
+                continue;
+            }
+            assertEquals(expected, value);
+            expected++;
+        }
+        producer.join();
+        assertTrue(buffer.isEmpty());
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.pong.core;
+
+import org.junit.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void percentiles_areWithinThreePercent() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 100000; i++) {
+            histogram.record(i * 1000);
+        }
+
+        assertEquals(100000, histogram.getCount());
+        assertEquals(1000, histogram.getMin());
+        assertEquals(100000000, histogram.getMax());
+        assertEquals(50000000, histogram.getValueAtPercentile(50), 50000000 * 0.03);
+        assertEquals(99000000, histogram.getValueAtPercentile(99), 99000000 * 0.03);
+        assertEquals(99900000, histogram.getValueAtPercentile(99.9), 99900000 * 0.03);
+        assertEquals(100000000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void smallValuesAreExactAndTheTailIsNotHidden() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 999; i++) {
+            histogram.record(7);
+        }
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(7, histogram.getValueAtPercentile(50));
+        assertEquals(7, histogram.getValueAtPercentile(99.9));
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(99.95));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    public void profile_isFilledByTheSimulation() throws Exception {
+        FrameProfile profile = new FrameProfile();
+        PongSimulation sim = new PongSimulation(1000, 800, 1);
+        sim.setProfile(profile);
+        for (int i = 0; i < 50; i++) {
+            sim.step(1 / 120f);
+        }
+
+        assertEquals(50, profile.getHistogram(FrameProfile.UPDATE).getCount());
+        assertEquals(50, profile.getHistogram(FrameProfile.COLLISIONS).getCount());
+        assertEquals(0, profile.getHistogram(FrameProfile.DRAW).getCount());
+
+        StringWriter out = new StringWriter();
+        profile.write(out);
+        assertTrue(out.toString().contains("collisions"));
+        assertEquals(FrameProfile.PHASE_COUNT + 1, out.toString().split("\n").length);
+    }
+}
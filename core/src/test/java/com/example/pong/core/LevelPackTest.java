@@ -0,0 +1,113 @@
+package com.example.pong.core;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class LevelPackTest {
+
+    private static byte[] pack() throws IOException {
+        return new LevelPackWriter()
+                .addLevel(1.1f, 1 / 8f, 1 / 40f)
+                .addObstacle(0.5f, 0.25f, 1 / 6f, 1 / 40f, 1 / 3f)
+                .addLevel(1.05f, 1 / 4f, 1 / 20f)
+                .addObstacle(0.1f, 0.2f, 0.2f, 0.05f, -0.5f)
+                .addObstacle(0.6f, 0.4f, 0.1f, 0.05f, 0.25f)
+                .addObstacle(0.3f, 0.6f, 0.3f, 0.02f, 0)
+                .addLevel(1.2f, 0.1f, 0.02f)
+                .toBytes();
+    }
+
+    @Test
+    public void levels_readBackFromAMappedFile() throws Exception {
+        File file = File.createTempFile("levels", ".pack");
+        try {
+            LevelPackWriter writer = new LevelPackWriter()
+                    .addLevel(1.05f, 1 / 4f, 1 / 20f)
+                    .addObstacle(0.1f, 0.2f, 0.2f, 0.05f, -0.5f);
+            writer.write(file);
+            LevelPack pack = LevelPack.map(file);
+
+            assertEquals(1, pack.getLevelCount());
+            assertEquals(1.05f, pack.getSpeedUp(0), 0);
+            assertEquals(0.25f, pack.getBatWidth(0), 1e-4);
+            assertEquals(1, pack.getObstacleCount(0));
+            assertEquals(0.1f, pack.getObstacleX(0, 0), 1e-4);
+            assertEquals(0.05f, pack.getObstacleHeight(0, 0), 1e-4);
+            assertEquals(-0.5f, pack.getObstacleVelocity(0, 0), 0);
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    public void loadLevel_replacesTheLayoutAndReusesObstacles() throws Exception {
+        LevelPack pack = LevelPack.read(new ByteArrayInputStream(pack()));
+        assertEquals(3, pack.getLevelCount());
+
+        PongSimulation sim = new PongSimulation(1000, 800, 1);
+        sim.loadLevel(pack, 1);
+        assertEquals(3, sim.getObstacles().size());
+        assertEquals(1.05f, sim.getSpeedUp(), 0);
+        assertEquals(250, sim.getBat().getRect().width(), 0);
+        assertEquals(800 - 40, sim.getBat().getRect().top, 0);
+        FloatRect obs = sim.getObstacles().get(1).getRect();
+        assertEquals(600, obs.left, 0);
+        assertEquals(320, obs.top, 0);
+        assertEquals(100, obs.width(), 0);
+        assertEquals(-500, sim.getObstacle().getXVelocity(), 0);
+        Obstacle second = sim.getObstacles().get(1);
+
+        sim.loadLevel(pack, 2);
+        assertEquals(0, sim.getObstacles().size());
+        assertNull(sim.getObstacle());
+
+        // Going back uses the same obstacles again
+        sim.loadLevel(pack, 1);
+        assertSame(second, sim.getObstacles().get(1));
+        for (int i = 0; i < 600; i++) {
+            sim.step(1 / 120f);
+        }
+
+        // A snapshot keeps the level
+        PongSimulation restored = GameSnapshot.fromBytes(GameSnapshot.toBytes(sim));
+        assertEquals(sim.checksum(), restored.checksum());
+        assertEquals(3, restored.getObstacles().size());
+        assertEquals(1.05f, restored.getSpeedUp(), 0);
+        for (int i = 0; i < 600; i++) {
+            sim.step(1 / 120f);
+            restored.step(1 / 120f);
+        }
+        assertEquals(sim.checksum(), restored.checksum());
+    }
+
+    @Test
+    public void firstLevel_matchesTheBuiltInLayout() throws Exception {
+        LevelPack pack = LevelPack.wrap(ByteBuffer.wrap(pack()));
+        PongSimulation builtIn = new PongSimulation(1080, 1920, 5);
+        PongSimulation loaded = new PongSimulation(1080, 1920, 5);
+        loaded.loadLevel(pack, 0);
+
+        FloatRect expected = builtIn.getObstacle().getRect();
+        FloatRect actual = loaded.getObstacle().getRect();
+        assertEquals(expected.left, actual.left, 1);
+        assertEquals(expected.top, actual.top, 1);
+        assertEquals(expected.width(), actual.width(), 1);
+        assertEquals(expected.height(), actual.height(), 1);
+        assertEquals(builtIn.getObstacle().getXVelocity(), loaded.getObstacle().getXVelocity(), 1);
+        assertEquals(builtIn.getBat().getRect().width(), loaded.getBat().getRect().width(), 1);
+    }
+
+    @Test(expected = IOException.class)
+    public void badPack_isRejected() throws Exception {
+        byte[] bytes = pack();
+        // Point the second level past the end
+        ByteBuffer.wrap(bytes).putInt(LevelPack.HEADER_SIZE + 4, bytes.length);
+        LevelPack.wrap(ByteBuffer.wrap(bytes));
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.pong.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NetSnapshotTest {
+
+    private static NetSnapshot capture(PongSimulation game, int tick) {
+        NetSnapshot snapshot = new NetSnapshot();
+        snapshot.setTick(tick);
+        snapshot.capture(0, game, tick);
+        snapshot.capture(1, game, 0);
+        return snapshot;
+    }
+
+    private static NetSnapshot roundTrip(NetSnapshot snapshot, NetSnapshot baseline,
+                                         SnapshotHistory history, BitWriter bits) {
+        bits.clear();
+        snapshot.write(baseline, bits);
+        BitReader reader = new BitReader();
+        reader.reset(bits.getBytes(), 0, bits.getByteCount());
+        NetSnapshot decoded = new NetSnapshot();
+        assertTrue(decoded.read(reader, history));
+        return decoded;
+    }
+
+    @Test
+    public void deltas_decodeExactlyAndAreSmaller() {
+        PongSimulation game = new PongSimulation(1000, 800, 4);
+        SnapshotHistory sent = new SnapshotHistory(64);
+        SnapshotHistory received = new SnapshotHistory(64);
+        BitWriter bits = new BitWriter(NetSnapshot.MAX_BYTES);
+
+        NetSnapshot first = capture(game, 1);
+        NetSnapshot decoded = roundTrip(first, null, received, bits);
+        int fullBytes = bits.getByteCount();
+        sent.put(first);
+        received.put(decoded);
+
+        for (int tick = 2; tick < 200; tick++) {
+            game.step(1 / 60f);
+            NetSnapshot snapshot = capture(game, tick);
+            // Against a baseline a few ticks old, like one waiting for an acknowledgement
+            decoded = roundTrip(snapshot, sent.get(Math.max(1, tick - 6)), received, bits);
+            assertTrue(bits.getByteCount() < fullBytes);
+            for (int field = 0; field < NetSnapshot.FIELDS_PER_SEAT; field++) {
+                assertEquals(snapshot.get(0, field), decoded.get(0, field));
+                assertEquals(snapshot.get(1, field), decoded.get(1, field));
+            }
+            sent.put(snapshot);
+            received.put(decoded);
+        }
+        float ballX = NetSnapshot.toPixels(decoded.get(0, NetSnapshot.BALL_X), 1000);
+        assertEquals(game.getBall().getRect().left, ballX, 0.1);
+    }
+
+    @Test
+    public void missingBaseline_isRefused() {
+        PongSimulation game = new PongSimulation(1000, 800, 4);
+        NetSnapshot baseline = capture(game, 5);
+        game.step(1 / 60f);
+        NetSnapshot snapshot = capture(game, 6);
+
+        BitWriter bits = new BitWriter(NetSnapshot.MAX_BYTES);
+        snapshot.write(baseline, bits);
+        BitReader reader = new BitReader();
+        reader.reset(bits.getBytes(), 0, bits.getByteCount());
+        NetSnapshot decoded = new NetSnapshot();
+        assertFalse(decoded.read(reader, new SnapshotHistory(64)));
+        assertEquals(-1, decoded.getTick());
+    }
+
+    @Test
+    public void jitterBuffer_interpolatesAcrossALostSnapshot() {
+        long tickNanos = 1000000000L / 60;
+        JitterBuffer buffer = new JitterBuffer(60, 2);
+        NetSnapshot snapshot = new NetSnapshot();
+        for (int tick = 1; tick <= 10; tick++) {
+            if (tick == 8) {
+                // Lost
+                continue;
+            }
+            snapshot.setTick(tick);
+            snapshot.set(0, NetSnapshot.BALL_X, tick * 100);
+            buffer.add(snapshot, tick * tickNanos);
+        }
+
+        // Two ticks behind tick 10 is tick 8, half way between the 7 and 9 that arrived
+        assertTrue(buffer.sample(10 * tickNanos));
+        assertEquals(8, buffer.getSampleTick(), 0.01);
+        assertEquals(800, buffer.get(0, NetSnapshot.BALL_X), 1);
+
+        // Past the newest it holds still
+        assertTrue(buffer.sample(20 * tickNanos));
+        assertEquals(1000, buffer.get(0, NetSnapshot.BALL_X), 0);
+        assertEquals(1, buffer.getHolds());
+    }
+
+    @Test
+    public void prediction_replaysInputsTheServerHasNotUsed() {
+        BatPrediction prediction = new BatPrediction(1000, 125, 500);
+        float dt = 1 / 60f;
+        prediction.apply(Bat.RIGHT, dt);
+        prediction.apply(Bat.RIGHT, dt);
+        prediction.apply(Bat.LEFT, dt);
+        assertEquals(500 + 1000 * dt, prediction.getX(), 0.01);
+
+        // The server used the first input but had the bat a little further left
+        prediction.reconcile(0, 500 + 1000 * dt - 2);
+        assertEquals(500 + 1000 * dt - 2, prediction.getX(), 0.01);
+        assertEquals(-2, prediction.getLastCorrection(), 0.01);
+        assertEquals(2, prediction.getPendingInputs());
+
+        // An older answer arriving late changes nothing
+        prediction.reconcile(-1, 0);
+        assertEquals(500 + 1000 * dt - 2, prediction.getX(), 0.01);
+
+        // Held against the wall like Bat
+        for (int i = 0; i < 120; i++) {
+            prediction.apply(Bat.RIGHT, dt);
+        }
+        assertEquals(1000 - 125, prediction.getX(), 0);
+    }
+}
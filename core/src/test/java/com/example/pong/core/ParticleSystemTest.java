@@ -0,0 +1,111 @@
+package com.example.pong.core;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+public class ParticleSystemTest {
+
+    private static final float DT = 1 / 60f;
+
+    @Test
+    public void deadParticles_areRecycledAndOverflowIsDropped() {
+        ParticleSystem particles = new ParticleSystem(100, 0, 1);
+        int spark = particles.addStyle(0xFFFFFFFF, 2);
+        particles.emit(spark, 50, 50, 60, 100, 0.1f);
+        particles.emit(spark, 50, 50, 60, 100, 10);
+        assertEquals(100, particles.getCount());
+        assertEquals(20, particles.getDropped());
+
+        // The short lived burst has gone after twice its life, the rest are still packed at the front
+        for (int i = 0; i < 13; i++) {
+            particles.update(DT);
+        }
+        assertEquals(40, particles.getCount());
+
+        // Their slots are used again
+        particles.emit(spark, 50, 50, 60, 100, 10);
+        assertEquals(100, particles.getCount());
+        assertEquals(20, particles.getDropped());
+    }
+
+    @Test
+    public void eachStyle_isOneDrawCall() {
+        ParticleSystem particles = new ParticleSystem(1000, 0, 1);
+        int red = particles.addStyle(0xFFFF0000, 4);
+        int blue = particles.addStyle(0xFF0000FF, 4);
+        particles.emit(red, 100, 100, 300, 200, 1);
+        particles.emit(blue, 300, 100, 300, 200, 1);
+        particles.emit(red, 500, 100, 300, 200, 1);
+        particles.update(DT);
+        particles.layout(1);
+
+        RecordingRenderer recorder = new RecordingRenderer();
+        recorder.beginFrame(0, 0, 1000, 1000);
+        particles.draw(recorder);
+        assertEquals(2, recorder.getDrawCalls());
+        assertEquals(2, recorder.getStateChanges());
+
+        // The recorded area covers both red bursts
+        FloatRect bounds = new FloatRect();
+        recorder.getBounds(1, bounds);
+        assertEquals(RecordingRenderer.FILL_SQUARES, recorder.getOp(1));
+        assertTrue(bounds.left < 100 && bounds.right > 500);
+    }
+
+    @Test
+    public void thousandsOfParticles_allocateNothingPerFrame() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long thread = Thread.currentThread().getId();
+
+        // The emitter hooked into the game's collisions, plus a steady stream on top
+        PongSimulation game = new PongSimulation(1080, 1920, 7);
+        SparkEmitter sparks = new SparkEmitter(1080, 1920, 8192);
+        game.setCollisionListener(sparks);
+        ParticleSystem particles = sparks.getParticles();
+        int stream = particles.addStyle(0xFFFFFFFF, 3);
+        SceneRenderer scene = new SceneRenderer(0xFF000000);
+        scene.setParticles(particles);
+        RecordingRenderer recorder = new RecordingRenderer();
+        BatController controller = new BatController();
+
+        // Warm up so the JIT has compiled the loop and the recorder has grown
+        for (int frame = 0; frame < 3000; frame++) {
+            frame(game, controller, particles, stream, scene, recorder, frame);
+        }
+
+        // What asking costs, so only the frames are counted
+        long before = threads.getThreadAllocatedBytes(thread);
+        long overhead = threads.getThreadAllocatedBytes(thread) - before;
+
+        int fewest = Integer.MAX_VALUE;
+        before = threads.getThreadAllocatedBytes(thread);
+        for (int frame = 0; frame < 1000; frame++) {
+            frame(game, controller, particles, stream, scene, recorder, frame);
+            fewest = Math.min(fewest, particles.getCount());
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before - overhead;
+
+        assertTrue("only " + fewest + " particles", fewest > 2000);
+        assertEquals(0, allocated);
+    }
+
+    private static void frame(PongSimulation game, BatController controller, ParticleSystem particles,
+                              int stream, SceneRenderer scene, RecordingRenderer recorder, int frame) {
+        scene.saveState(game);
+        game.setBatMovement(controller.chooseMovement(game));
+        game.step(DT);
+        particles.emit(stream, 540, 960 + (frame % 60) * 4, 200, 800, 0.5f);
+        particles.update(DT);
+        scene.layout(game, 0.5f);
+        recorder.beginFrame(0, 0, 1080, 1920);
+        scene.draw(recorder, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF);
+    }
+}
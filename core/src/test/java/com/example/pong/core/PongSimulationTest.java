@@ -0,0 +1,137 @@
+package com.example.pong.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the game rules on the plain JVM with no device or emulator.
+ */
+public class PongSimulationTest {
+
+    private static final float DT = 1f / 120;
+
+    @Test
+    public void step_movesBallByVelocityTimesDt() {
+        PongSimulation sim = new PongSimulation(1000, 2000);
+        float left = sim.getBall().getRect().left;
+        float top = sim.getBall().getRect().top;
+
+        sim.step(DT);
+
+        // reset() gives the ball x velocity of screenX / 2 and y velocity of -screenY / 3
+        assertEquals(left + 500 * DT, sim.getBall().getRect().left, 1e-3f);
+        assertEquals(top - 666 * DT, sim.getBall().getRect().top, 1e-3f);
+    }
+
+    @Test
+    public void step_ballLeavingTopBouncesOffWall() {
+        PongSimulation sim = new PongSimulation(1000, 2000);
+
+        // The ball starts on the top edge moving up
+        int events = sim.step(DT);
+
+        assertTrue((events & PongSimulation.EVENT_HIT_WALL) != 0);
+        float top = sim.getBall().getRect().top;
+        sim.step(DT);
+        assertTrue(sim.getBall().getRect().top > top);
+    }
+
+    @Test
+    public void step_missingBallCostsLivesUntilGameOver() {
+        PongSimulation sim = new PongSimulation(1000, 2000);
+        int misses = 0;
+        boolean gameOver = false;
+
+        // The bat never moves so the ball is eventually missed three times
+        for (int i = 0; i < 120 * 600 && !gameOver; i++) {
+            int events = sim.step(DT);
+            if ((events & PongSimulation.EVENT_MISS) != 0) {
+                misses++;
+            }
+            gameOver = (events & PongSimulation.EVENT_GAME_OVER) != 0;
+        }
+
+        assertTrue(gameOver);
+        assertEquals(PongSimulation.START_LIVES, misses);
+        assertEquals(PongSimulation.START_LIVES, sim.getLives());
+        assertEquals(0, sim.getScore());
+    }
+
+    @Test
+    public void step_fastBallDoesNotTunnelThroughBat() {
+        PongSimulation sim = new PongSimulation(1000, 2000);
+        FloatRect bat = sim.getBat().getRect();
+
+        // Above the middle of the bat and moving ten bat heights per tick
+        Ball ball = sim.getBall();
+        ball.setPosition(bat.left + bat.width() / 2, bat.top - 20);
+        ball.setVelocity(0, bat.height() * 10 * 120);
+
+        int events = sim.step(DT);
+
+        assertTrue((events & PongSimulation.EVENT_HIT_BAT) != 0);
+        assertEquals(0, events & PongSimulation.EVENT_MISS);
+        assertTrue(ball.getYVelocity() < 0);
+        assertTrue(ball.getRect().bottom <= bat.top);
+    }
+
+    @Test
+    public void step_overlappingObstacleOnlyScoresOnce() {
+        PongSimulation sim = new PongSimulation(1000, 2000);
+        FloatRect obs = sim.getObstacle().getRect();
+
+        // Sliding sideways along the inside of the obstacle
+        Ball ball = sim.getBall();
+        ball.setPosition(obs.left + obs.width() / 2, obs.top);
+        ball.setVelocity(10, 0);
+
+        sim.step(DT);
+        sim.step(DT);
+        sim.step(DT);
+
+        assertEquals(1, sim.getScore());
+    }
+
+    @Test
+    public void step_broadphaseGivesSameGameAsTestingEveryObstacle() {
+        PongSimulation withHash = chaos(true);
+        PongSimulation allPairs = chaos(false);
+
+        for (int i = 0; i < 120 * 10; i++) {
+            assertEquals(allPairs.step(DT), withHash.step(DT));
+        }
+
+        assertEquals(allPairs.getScore(), withHash.getScore());
+        for (int b = 0; b < withHash.getBalls().size(); b++) {
+            assertEquals(allPairs.getBalls().get(b).getRect().left,
+                    withHash.getBalls().get(b).getRect().left, 0);
+        }
+    }
+
+    private static PongSimulation chaos(boolean broadphase) {
+        PongSimulation sim = new PongSimulation(1080, 1920);
+        sim.setBroadphase(broadphase);
+        for (int i = 0; i < 40; i++) {
+            sim.addObstacle((i % 5) * 200, 200 + (i / 5) * 150, 100 + i * 7);
+        }
+        for (int i = 0; i < 200; i++) {
+            sim.addBall((i * 37) % 1000, 100 + (i * 53) % 1500, 300 + i, -400 - i);
+        }
+        return sim;
+    }
+
+    @Test
+    public void step_runsMillionsOfTicksHeadless() {
+        PongSimulation sim = new PongSimulation(1080, 1920);
+        sim.setBatMovement(Bat.LEFT);
+
+        for (int i = 0; i < 2000000; i++) {
+            sim.step(DT);
+        }
+
+        FloatRect bat = sim.getBat().getRect();
+        assertEquals(0, bat.left, 0);
+        assertTrue(sim.getLives() > 0);
+    }
+}
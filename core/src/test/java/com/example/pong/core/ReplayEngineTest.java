@@ -0,0 +1,89 @@
+package com.example.pong.core;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+public class ReplayEngineTest {
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    @Test
+    public void replay_endsInExactlyTheRecordedState() throws Exception {
+        File file = mFolder.newFile("session.rec");
+        long seed = 12345;
+        PongSimulation live = new PongSimulation(1080, 1920, seed);
+        InputRecorder recorder = new InputRecorder(file, 1080, 1920, 120, seed);
+
+        // A player who changes direction every now and then
+        GameRandom player = new GameRandom(99);
+        int input = Bat.STOPPED;
+        long ticks = 120 * 60 * 10;
+        for (long tick = 0; tick < ticks; tick++) {
+            if (player.nextInt(40) == 0) {
+                input = player.nextInt(3);
+            }
+            live.setBatMovement(input);
+            recorder.record(tick, input);
+            live.step(1f / 120);
+        }
+        recorder.finish(ticks, live.checksum());
+
+        ReplayEngine replay = ReplayEngine.replay(file);
+
+        assertTrue(replay.matchesRecording());
+        assertEquals(ticks, replay.getTicks());
+        assertEquals(live.checksum(), replay.getSimulation().checksum());
+        assertEquals(live.getScore(), replay.getSimulation().getScore());
+
+        // Ten minutes of play needs only a few kilobytes
+        assertTrue(file.length() < 8 * 1024);
+    }
+
+    @Test
+    public void fixedPointReplay_checksTheFixedPointChecksum() throws Exception {
+        File file = mFolder.newFile("fixed.rec");
+        long seed = 777;
+        FixedPongSimulation live = new FixedPongSimulation(
+                FixedPongSimulation.worldHeight(1080, 1920), 120, seed);
+        InputRecorder recorder = new InputRecorder(file, InputRecorder.FIXED_ENGINE, 1080, 1920, 120, seed);
+
+        GameRandom player = new GameRandom(3);
+        int input = Bat.STOPPED;
+        long ticks = 120 * 60;
+        for (long tick = 0; tick < ticks; tick++) {
+            if (player.nextInt(40) == 0) {
+                input = player.nextInt(3);
+            }
+            live.setBatMovement(input);
+            recorder.record(tick, input);
+            live.step();
+        }
+        recorder.finish(ticks, live.checksum());
+
+        ReplayEngine replay = ReplayEngine.replay(file);
+
+        assertNull(replay.getSimulation());
+        assertTrue(replay.matchesRecording());
+        assertEquals(live.checksum(), replay.getFixedSimulation().checksum());
+        assertEquals(live.getScore(), replay.getFixedSimulation().getScore());
+    }
+
+    @Test
+    public void replay_noticesWhenTheRecordingDoesNotMatch() throws Exception {
+        File file = mFolder.newFile("tampered.rec");
+        InputRecorder recorder = new InputRecorder(file, 1080, 1920, 120, 1);
+        recorder.record(10, Bat.LEFT);
+        recorder.finish(500, 0);
+
+        ReplayEngine replay = ReplayEngine.replay(file);
+
+        assertEquals(500, replay.getTicks());
+        assertFalse(replay.matchesRecording());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.pong.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SceneRendererTest {
+
+    private static final int BACKGROUND = 0xFF1A80B6;
+
+    @Test
+    public void draw_setsEachColourOnceWhateverTheObjectCount() {
+        PongSimulation sim = new PongSimulation(1000, 800, 1);
+        for (int i = 0; i < 99; i++) {
+            sim.addBall(i * 10, 100, 50, 50);
+        }
+        for (int i = 0; i < 19; i++) {
+            sim.addObstacle(i * 50, 300, 100);
+        }
+        SceneRenderer scene = new SceneRenderer(BACKGROUND);
+        int hud = scene.addLayer(0, 0, 1000, 75);
+        scene.saveState(sim);
+        scene.layout(sim, 1);
+
+        RecordingRenderer renderer = new RecordingRenderer();
+        renderer.beginFrame(0, 0, 1000, 800);
+        scene.draw(renderer, 0xFFFF0000, 0xFF00FF00, 0xFFFFFFFF);
+
+        // Background, 100 balls, the bat, 20 obstacles and the HUD
+        assertEquals(1 + 100 + 1 + 20 + 1, renderer.getDrawCalls());
+        assertEquals(3, renderer.getStateChanges());
+
+        assertEquals(RecordingRenderer.CLEAR, renderer.getOp(0));
+        assertEquals(BACKGROUND, renderer.getValue(0));
+        int last = renderer.getCommandCount() - 1;
+        assertEquals(RecordingRenderer.DRAW_LAYER, renderer.getOp(last));
+        assertEquals(hud, renderer.getValue(last));
+
+        // Every object is drawn where the simulation has it
+        FloatRect drawn = new FloatRect();
+        renderer.getBounds(2, drawn);
+        FloatRect ball = sim.getBall().getRect();
+        assertEquals(ball.left, drawn.left, 0);
+        assertEquals(ball.bottom, drawn.bottom, 0);
+    }
+
+    @Test
+    public void draw_sameColourTwiceIsNotAStateChange() {
+        PongSimulation sim = new PongSimulation(1000, 800, 1);
+        SceneRenderer scene = new SceneRenderer(BACKGROUND);
+        scene.saveState(sim);
+        scene.layout(sim, 1);
+
+        RecordingRenderer renderer = new RecordingRenderer();
+        renderer.beginFrame(0, 0, 1000, 800);
+        scene.draw(renderer, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF);
+
+        assertEquals(1, renderer.getStateChanges());
+        assertEquals(4, renderer.getDrawCalls());
+    }
+
+    @Test
+    public void overdraw_onlyCountsPixelsInsideTheClip() {
+        RecordingRenderer renderer = new RecordingRenderer();
+
+        for (int frame = 0; frame < 2; frame++) {
+            renderer.beginFrame(0, 0, 100, 100);
+            renderer.clear(BACKGROUND);
+            renderer.setColor(0xFFFFFFFF);
+            renderer.fillRect(0, 0, 50, 100);
+            // Half of this one is off the screen
+            renderer.fillRect(80, 0, 120, 100);
+
+            assertEquals(4, renderer.getCommandCount());
+            assertEquals(10000 + 5000 + 2000, renderer.getPixelsFilled(), 0);
+            assertEquals(1.7, renderer.getOverdraw(), 1e-9);
+        }
+
+        // A dirty rect only pays for what is inside it
+        renderer.beginFrame(40, 0, 60, 10);
+        renderer.clear(BACKGROUND);
+        renderer.fillRect(0, 0, 50, 100);
+        assertEquals(200 + 100, renderer.getPixelsFilled(), 0);
+    }
+}
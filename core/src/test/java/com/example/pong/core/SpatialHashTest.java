@@ -0,0 +1,48 @@
+package com.example.pong.core;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class SpatialHashTest {
+
+    @Test
+    public void query_returnsOnlyOverlappingItemsOnce() {
+        SpatialHash hash = new SpatialHash(100, 100, 10);
+        int big = hash.add(5, 5, 55, 55);
+        int small = hash.add(70, 70, 72, 72);
+        int edge = hash.add(-20, 90, 5, 120);
+        hash.build();
+
+        int[] out = new int[3];
+        int found = hash.query(0, 0, 60, 60, out);
+        assertEquals(1, found);
+        assertEquals(big, out[0]);
+
+        found = hash.query(0, 80, 100, 100, out);
+        assertEquals(1, found);
+        assertEquals(edge, out[0]);
+
+        found = hash.query(50, 50, 75, 75, out);
+        int[] both = Arrays.copyOf(out, found);
+        Arrays.sort(both);
+        assertArrayEquals(new int[]{big, small}, both);
+    }
+
+    @Test
+    public void build_canBeRepeatedWithMoreItems() {
+        SpatialHash hash = new SpatialHash(1000, 1000, 50);
+        int[] out = new int[500];
+
+        for (int round = 0; round < 3; round++) {
+            hash.clear();
+            for (int i = 0; i < 100 * (round + 1); i++) {
+                hash.add(i * 3, i * 3, i * 3 + 10, i * 3 + 10);
+            }
+            hash.build();
+            assertEquals(100 * (round + 1), hash.query(0, 0, 1000, 1000, out));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.pong.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SweepTest {
+
+    @Test
+    public void timeOfImpact_findsHitPartWayAlongPath() {
+        FloatRect ball = new FloatRect(0, 0, 10, 10);
+        FloatRect wall = new FloatRect(50, -100, 60, 100);
+
+        // 40 pixels of gap in a 100 pixel move
+        assertEquals(0.4f, Sweep.timeOfImpact(ball, 100, 0, wall), 1e-6f);
+    }
+
+    @Test
+    public void timeOfImpact_catchesThinTargetSkippedByDiscreteTest() {
+        FloatRect ball = new FloatRect(0, 0, 10, 10);
+        FloatRect bat = new FloatRect(-50, 500, 50, 502);
+
+        // Both ends of the move miss the bat completely
+        assertEquals(490f / 1000, Sweep.timeOfImpact(ball, 0, 1000, bat), 1e-6f);
+    }
+
+    @Test
+    public void timeOfImpact_missesWhenPathPassesBeside() {
+        FloatRect ball = new FloatRect(0, 0, 10, 10);
+        FloatRect box = new FloatRect(20, 20, 30, 30);
+
+        assertEquals(Sweep.NO_HIT, Sweep.timeOfImpact(ball, 0, 100, box), 0);
+        assertEquals(Sweep.NO_HIT, Sweep.timeOfImpact(ball, -100, -100, box), 0);
+    }
+
+    @Test
+    public void timeOfImpact_isZeroWhenAlreadyOverlapping() {
+        FloatRect ball = new FloatRect(0, 0, 10, 10);
+        FloatRect box = new FloatRect(5, 5, 30, 30);
+
+        assertEquals(0, Sweep.timeOfImpact(ball, 1, 1, box), 0);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.pong.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TouchInputTest {
+
+    @Test
+    public void lastFingerDownMovesTheBat() {
+        TouchInput input = new TouchInput(1000, 10);
+        TouchEvent event = new TouchEvent();
+        assertEquals(Bat.STOPPED, input.getMovement());
+
+        event.set(TouchEvent.DOWN, 0, 100, 0, 1);
+        input.apply(event);
+        assertEquals(Bat.LEFT, input.getMovement());
+        assertTrue(input.takeTouched());
+        assertFalse(input.takeTouched());
+
+        // A second finger on the right takes over
+        event.set(TouchEvent.DOWN, 1, 900, 0, 2);
+        input.apply(event);
+        assertEquals(Bat.RIGHT, input.getMovement());
+        assertTrue(input.takeTouched());
+
+        // Sliding it across the middle changes direction
+        event.set(TouchEvent.MOVE, 1, 300, 0, 3);
+        input.apply(event);
+        assertEquals(Bat.LEFT, input.getMovement());
+        event.set(TouchEvent.MOVE, 1, 700, 0, 4);
+        input.apply(event);
+
+        // Lifting the first finger keeps the second in control
+        event.set(TouchEvent.UP, 0, 100, 0, 5);
+        input.apply(event);
+        assertEquals(Bat.RIGHT, input.getMovement());
+        assertEquals(1, input.getPointerCount());
+
+        event.set(TouchEvent.CANCEL, 0, 0, 0, 6);
+        input.apply(event);
+        assertEquals(Bat.STOPPED, input.getMovement());
+        assertFalse(input.takeTouched());
+    }
+
+    @Test
+    public void queue_reusesItsEventsAndRefusesWhenFull() {
+        TouchQueue queue = new TouchQueue(2);
+        assertNull(queue.peek());
+
+        assertTrue(queue.offer(TouchEvent.DOWN, 3, 10, 20, 100));
+        assertTrue(queue.offer(TouchEvent.UP, 3, 10, 20, 110));
+        assertFalse(queue.offer(TouchEvent.DOWN, 4, 0, 0, 120));
+        assertEquals(1, queue.getDropped());
+
+        TouchEvent first = queue.peek();
+        assertEquals(TouchEvent.DOWN, first.action);
+        assertEquals(3, first.pointerId);
+        assertEquals(100, first.eventTime);
+        queue.remove();
+
+        assertEquals(110, queue.peek().eventTime);
+        queue.remove();
+        assertNull(queue.peek());
+
+        // The slot is filled in again rather than replaced
+        assertTrue(queue.offer(TouchEvent.MOVE, 5, 1, 2, 130));
+        assertTrue(queue.offer(TouchEvent.MOVE, 5, 1, 2, 140));
+        assertSame(first, queue.peek());
+        assertEquals(130, first.eventTime);
+    }
+}
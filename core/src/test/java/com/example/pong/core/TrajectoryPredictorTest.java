@@ -0,0 +1,65 @@
+package com.example.pong.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TrajectoryPredictorTest {
+
+    @Test
+    public void fold_bouncesBetweenTheWalls() {
+        assertEquals(30, TrajectoryPredictor.fold(30, 100), 0);
+        assertEquals(70, TrajectoryPredictor.fold(130, 100), 0);
+        assertEquals(10, TrajectoryPredictor.fold(-10, 100), 0);
+        assertEquals(50, TrajectoryPredictor.fold(450, 100), 0);
+    }
+
+    @Test
+    public void predict_matchesTheSimulation() {
+        int checked = 0;
+        for (long seed = 1; seed <= 20; seed++) {
+            GameRandom random = new GameRandom(seed);
+            PongSimulation sim = new PongSimulation(1000, 800, seed);
+            Ball ball = sim.getBall();
+            // Keep the ball clear of the obstacle band
+            ball.setPosition(random.nextInt(990), 400 + random.nextInt(200));
+            ball.setVelocity((random.nextFloat() - 0.5f) * 3000, -200 - random.nextInt(400));
+
+            TrajectoryPredictor predictor = new TrajectoryPredictor();
+            assertTrue(predictor.predict(sim, ball));
+
+            // Step until the ball reaches the top of the bat, or hits it
+            float batTop = sim.getBat().getRect().top;
+            float dt = 1 / 1000f;
+            float time = 0;
+            int events = 0;
+            while (ball.getRect().bottom < batTop && (events & PongSimulation.EVENT_HIT_BAT) == 0
+                    && time < 10) {
+                events = sim.step(dt);
+                time += dt;
+            }
+            assertEquals(predictor.getInterceptTime(), time, 0.01);
+            // The simulation bounces off the walls a step late so it drifts a little
+            assertEquals(predictor.getInterceptX(), ball.getRect().left, 10);
+            if (predictor.getBounces() > 1) {
+                checked++;
+            }
+        }
+        // Some of them bounced off the obstacle on the way
+        assertTrue(checked > 0);
+    }
+
+    @Test
+    public void controller_keepsTheBallInPlay() {
+        PongSimulation sim = new PongSimulation(1000, 800, 3);
+        BatController controller = new BatController();
+
+        // Thirty seconds of play
+        for (int tick = 0; tick < 120 * 30; tick++) {
+            sim.setBatMovement(controller.chooseMovement(sim));
+            sim.step(1 / 120f);
+        }
+        assertEquals(PongSimulation.START_LIVES, sim.getLives());
+        assertTrue(sim.getScore() > 0);
+    }
+}
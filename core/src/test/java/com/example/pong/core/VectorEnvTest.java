@@ -0,0 +1,99 @@
+package com.example.pong.core;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class VectorEnvTest {
+
+    private static final int GAMES = 64;
+    private static final int STEPS = 500;
+
+    @Test
+    public void step_givesSameResultsWhateverTheNumberOfThreads() {
+        ForkJoinPool one = new ForkJoinPool(1);
+        ForkJoinPool four = new ForkJoinPool(4);
+        try {
+            float[] sequential = run(new VectorEnv(GAMES, 1080, 1920, 7, 120, 4, one));
+            float[] parallel = run(new VectorEnv(GAMES, 1080, 1920, 7, 120, 4, four));
+            assertArrayEquals(sequential, parallel, 0);
+        } finally {
+            one.shutdown();
+            four.shutdown();
+        }
+    }
+
+    @Test
+    public void games_haveTheirOwnRandomNumbers() {
+        VectorEnv env = new VectorEnv(2, 1080, 1920, 7);
+        float[] observations = new float[2 * VectorEnv.OBSERVATION_SIZE];
+        env.reset(observations);
+
+        assertNotEquals(env.getGame(0).getRandom().getState(),
+                env.getGame(1).getRandom().getState());
+    }
+
+    @Test
+    public void step_reportsHitsMissesAndDoneGames() {
+        VectorEnv env = new VectorEnv(8, 1080, 1920, 1);
+        int[] actions = new int[8];
+        float[] observations = new float[8 * VectorEnv.OBSERVATION_SIZE];
+        float[] rewards = new float[8];
+        boolean[] dones = new boolean[8];
+        env.reset(observations);
+
+        float total = 0;
+        int done = 0;
+        for (int s = 0; s < 30 * 120; s++) {
+            env.step(actions, observations, rewards, dones);
+            for (int i = 0; i < 8; i++) {
+                total += rewards[i];
+                done += dones[i] ? 1 : 0;
+            }
+        }
+
+        // A bat that never moves misses far more than it hits
+        assertTrue(total < 0);
+        assertTrue(done > 0);
+        for (float value : observations) {
+            assertFalse(Float.isNaN(value));
+        }
+    }
+
+    @Test
+    public void gamesWithoutObstacles_observeZeroForThem() {
+        VectorEnv env = new VectorEnv(2, 1080, 1920, 3);
+        env.getGame(1).clearObstacles();
+        float[] observations = new float[2 * VectorEnv.OBSERVATION_SIZE];
+        env.reset(observations);
+        env.step(new int[2], observations, new float[2], new boolean[2]);
+
+        int at = VectorEnv.OBSERVATION_SIZE;
+        assertTrue(observations[6] > 0);
+        assertEquals(0, observations[at + 5], 0);
+        assertEquals(0, observations[at + 6], 0);
+        assertEquals(0, observations[at + 7], 0);
+    }
+
+    private static float[] run(VectorEnv env) {
+        int[] actions = new int[GAMES];
+        float[] observations = new float[GAMES * VectorEnv.OBSERVATION_SIZE];
+        float[] rewards = new float[GAMES];
+        boolean[] dones = new boolean[GAMES];
+        env.reset(observations);
+
+        float[] history = new float[STEPS * GAMES];
+        for (int s = 0; s < STEPS; s++) {
+            for (int i = 0; i < GAMES; i++) {
+                actions[i] = (s / 20 + i) % 3;
+            }
+            env.step(actions, observations, rewards, dones);
+            for (int i = 0; i < GAMES; i++) {
+                history[s * GAMES + i] = observations[i * VectorEnv.OBSERVATION_SIZE] + rewards[i];
+            }
+        }
+        return history;
+    }
+}
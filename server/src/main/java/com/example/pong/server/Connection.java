@@ -0,0 +1,132 @@
+package com.example.pong.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+/**
+ * This class is one client's socket and its buffers
+ * Only the selector thread reads and writes the socket. Match workers
+ * queue messages with send, the selector thread writes them out after the tick
+ */
+class Connection {
+
+    // Room for a few ticks of state in case the client falls behind
+    private static final int OUT_SIZE = Protocol.MAX_SNAPSHOT_SIZE * 32;
+
+    private final SocketChannel mChannel;
+    private final SelectionKey mKey;
+    private final ByteBuffer mIn = ByteBuffer.allocate(64);
+
+    // Written by match workers, drained by the selector thread, guarded by itself
+    private final ByteBuffer mOut = ByteBuffer.allocate(OUT_SIZE);
+    private boolean mQueued;
+    private long mDropped;
+
+    private volatile boolean mClosed;
+
+    // Selector thread only
+    private Match mMatch;
+    private int mSeat;
+
+    Connection(SocketChannel channel, SelectionKey key){
+        mChannel = channel;
+        mKey = key;
+    }
+
+    /**
+     * This method queues a message for the client
+     * A client too slow to keep up loses the message rather than
+     * holding up the tick or growing the buffer
+     * @param message the message, from its position to its limit, left unchanged
+     * @return true if the connection now needs flushing and wasn't queued for it already
+     */
+    boolean send(ByteBuffer message){
+        synchronized (mOut){
+            if (mClosed){
+                return false;
+            }
+            if (mOut.remaining() < message.remaining()){
+                mDropped++;
+                return false;
+            }
+            int position = message.position();
+            mOut.put(message);
+            message.position(position);
+
+            boolean first = !mQueued;
+            mQueued = true;
+            return first;
+        }
+    }
+
+    /**
+     * This method writes as much queued output as the socket will take
+     * and asks to be told when it can take the rest
+     * @throws IOException if the socket failed
+     */
+    void flush() throws IOException {
+        synchronized (mOut){
+            mQueued = false;
+            if (mClosed){
+                return;
+            }
+            mOut.flip();
+            mChannel.write(mOut);
+            boolean more = mOut.hasRemaining();
+            mOut.compact();
+            if (mKey.isValid()){
+                mKey.interestOps(more ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+            }
+        }
+    }
+
+    /**
+     * This method reads what the client sent, ready to be parsed
+     * @return the buffer, flipped for reading, call compact after parsing
+     * @throws IOException if the socket failed or the client hung up
+     */
+    ByteBuffer read() throws IOException {
+        if (mChannel.read(mIn) < 0){
+            throw new IOException("client hung up");
+        }
+        mIn.flip();
+        return mIn;
+    }
+
+    /**
+     * This method closes the socket, a match the client was in sees it on its next tick
+     */
+    void close(){
+        synchronized (mOut){
+            mClosed = true;
+        }
+        mKey.cancel();
+        try {
+            mChannel.close();
+        } catch (IOException e){
+            // Closing anyway
+        }
+    }
+
+    boolean isClosed(){ return mClosed; }
+
+    /**
+     * @return how many messages were thrown away because the client fell behind
+     */
+    long getDropped(){
+        synchronized (mOut){
+            return mDropped;
+        }
+    }
+
+    void setMatch(Match match, int seat){
+        mMatch = match;
+        mSeat = seat;
+    }
+
+    Match getMatch(){ return mMatch; }
+
+    int getSeat(){ return mSeat; }
+}
@@ -0,0 +1,184 @@
+package com.example.pong.server;
+
+import com.example.pong.core.Bat;
+import com.example.pong.core.BitReader;
+import com.example.pong.core.NetSnapshot;
+import com.example.pong.core.SnapshotHistory;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * This class loads a server with simulated players over loopback
+ * and reports how long the server's ticks take
+ * Every client joins a match, decodes the snapshots, chases its own ball with the bat
+ * and sends its input every time it hears the state, then joins again when the match ends.
+ * All the clients share one selector thread
+ *
+ * Run with clients and seconds, for example
+ * java com.example.pong.server.LoadGenerator 2000 10
+ */
+public class LoadGenerator {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 100};
+    private static final String[] NAMES = {"p50", "p90", "p99", "p99.9", "max"};
+
+    // How long to play before measuring, so the JIT has settled
+    private static final long WARM_UP_MILLIS = 2000;
+
+    // Half the bat width the server uses, in fixed point
+    private static final int BAT_HALF = NetSnapshot.MAX_POSITION / 16;
+
+    private final Selector mSelector;
+    private final ByteBuffer mInput = ByteBuffer.allocate(Protocol.INPUT_SIZE);
+    private final ByteBuffer mJoin = ByteBuffer.allocate(Protocol.JOIN_SIZE);
+    private final BitReader mBits = new BitReader();
+    private long mStates;
+    private long mBytes;
+    private long mMatches;
+
+    private LoadGenerator(InetSocketAddress server, int clients) throws IOException {
+        mSelector = Selector.open();
+        mJoin.put(Protocol.JOIN).flip();
+        for (int i = 0; i < clients; i++){
+            SocketChannel channel = SocketChannel.open(server);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.configureBlocking(false);
+            channel.register(mSelector, SelectionKey.OP_READ, new Client());
+            send(channel, mJoin);
+        }
+    }
+
+    /**
+     * This method plays until the time is up
+     * @param millis how long to play for
+     */
+    private void play(long millis) throws IOException {
+        long end = System.currentTimeMillis() + millis;
+        long left;
+        while ((left = end - System.currentTimeMillis()) > 0){
+            mSelector.select(left);
+            Iterator<SelectionKey> keys = mSelector.selectedKeys().iterator();
+            while (keys.hasNext()){
+                SelectionKey key = keys.next();
+                keys.remove();
+                receive((SocketChannel) key.channel(), (Client) key.attachment());
+            }
+        }
+    }
+
+    private void receive(SocketChannel channel, Client client) throws IOException {
+        ByteBuffer in = client.mIn;
+        int read = channel.read(in);
+        if (read < 0){
+            throw new IOException("server hung up");
+        }
+        mBytes += read;
+        in.flip();
+        int size;
+        while ((size = Protocol.nextMessage(in)) > 0){
+            int start = in.position();
+            byte type = in.get();
+            if (type == Protocol.JOINED){
+                in.getInt();
+                client.mSeat = in.get();
+                client.mHistory.clear();
+                mMatches++;
+            } else if (type == Protocol.SNAPSHOT){
+                mBits.reset(in.array(), start + Protocol.SNAPSHOT_HEADER_SIZE,
+                        size - Protocol.SNAPSHOT_HEADER_SIZE);
+                NetSnapshot snapshot = client.mSnapshot;
+                if (snapshot.read(mBits, client.mHistory)){
+                    client.mHistory.put(snapshot);
+
+                    // Move toward our own ball
+                    int batCenter = snapshot.get(client.mSeat, NetSnapshot.BAT_X) + BAT_HALF;
+                    int ballX = snapshot.get(client.mSeat, NetSnapshot.BALL_X);
+                    int movement = ballX > batCenter + BAT_HALF / 2 ? Bat.RIGHT
+                            : ballX < batCenter - BAT_HALF / 2 ? Bat.LEFT : Bat.STOPPED;
+                    mInput.clear();
+                    mInput.put(Protocol.INPUT).put((byte) movement)
+                            .putInt(client.mNextInput++ & Match.MAX_INPUT)
+                            .putInt(client.mHistory.getLatestTick())
+                            .flip();
+                    send(channel, mInput);
+                    mStates++;
+                }
+            } else if (type == Protocol.OVER){
+                send(channel, mJoin);
+            }
+            in.position(start + size);
+        }
+        in.compact();
+        if (size < 0){
+            throw new IOException("server sent a bad message");
+        }
+    }
+
+    private static void send(SocketChannel channel, ByteBuffer message) throws IOException {
+        int position = message.position();
+        // The messages are tiny so the socket buffer always has room
+        channel.write(message);
+        message.position(position);
+    }
+
+    /**
+     * One simulated player
+     */
+    private static final class Client {
+        final ByteBuffer mIn = ByteBuffer.allocate(Protocol.MAX_SNAPSHOT_SIZE * 64);
+        final SnapshotHistory mHistory = new SnapshotHistory(64);
+        final NetSnapshot mSnapshot = new NetSnapshot();
+        int mSeat;
+        int mNextInput;
+    }
+
+    /**
+     * This method starts a server on loopback, loads it and prints the tick times
+     * @param args how many clients, default 2000, how many seconds, default 10,
+     *             and how many workers, default one per core
+     */
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int workers = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        try (MatchServer server = new MatchServer(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), workers)){
+            server.start();
+            LoadGenerator load = new LoadGenerator(
+                    new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()), clients);
+
+            load.play(WARM_UP_MILLIS);
+            server.resetTickTimes();
+            load.mStates = 0;
+            load.mBytes = 0;
+            load.play(seconds * 1000L);
+
+            long[] times = new long[PERCENTILES.length];
+            long ticks = server.getTickTimes(PERCENTILES, times);
+            System.out.println(String.format(Locale.US, "%d clients, %d matches, %d workers, %d ticks in %d s",
+                    clients, server.getActiveMatches(), workers, ticks, seconds));
+            System.out.println(String.format(Locale.US,
+                    "%.0f snapshots received per second, %.1f bytes each, %d matches started",
+                    load.mStates / (double) seconds, load.mBytes / (double) Math.max(1, load.mStates),
+                    load.mMatches));
+            StringBuilder header = new StringBuilder("tick us ");
+            StringBuilder row = new StringBuilder("        ");
+            for (int i = 0; i < PERCENTILES.length; i++){
+                header.append(String.format(Locale.US, "%10s", NAMES[i]));
+                row.append(String.format(Locale.US, "%10.1f", times[i] / 1000.0));
+            }
+            System.out.println(header);
+            System.out.println(row);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.pong.server;
+
+import com.example.pong.core.BitWriter;
+import com.example.pong.core.IntRingBuffer;
+import com.example.pong.core.NetSnapshot;
+import com.example.pong.core.PongSimulation;
+import com.example.pong.core.SnapshotHistory;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * This class is one head to head game on the server, which has the final say
+ * Both players get the same seed so they face the same ball and obstacle,
+ * the first to lose all their lives loses the match.
+ * The selector thread queues the inputs, a tick worker steps the games
+ * and sends each player a snapshot packed against the last one they acknowledged
+ */
+class Match {
+
+    // The play area every match uses, clients scale it to their screen
+    static final int SCREEN_X = 1000;
+    static final int SCREEN_Y = 800;
+
+    // Input numbers share an int with the movement in the input queue
+    static final int MAX_INPUT = (1 << 29) - 1;
+
+    private final int mId;
+    private final long mSeed;
+    private final Connection[] mSeats;
+    private final PongSimulation[] mGames = new PongSimulation[Protocol.SEATS];
+
+    // Inputs from each player, input number shifted up by 2 OR'd with the movement
+    private final IntRingBuffer[] mInputs = new IntRingBuffer[Protocol.SEATS];
+    // The newest snapshot tick each player has said they received
+    private final AtomicIntegerArray mAcks = new AtomicIntegerArray(Protocol.SEATS);
+    // The newest tick sent, so a player can't acknowledge one they never got
+    private volatile int mTickSent = -1;
+
+    // Connections with output waiting, written by the selector thread after the tick
+    private final Queue<Connection> mFlushes;
+
+    // Tick worker only
+    private final int[] mMovements = new int[Protocol.SEATS];
+    private final int[] mInputsUsed = new int[Protocol.SEATS];
+    private final SnapshotHistory[] mSent = new SnapshotHistory[Protocol.SEATS];
+    private final NetSnapshot mSnapshot = new NetSnapshot();
+    private final BitWriter mBits = new BitWriter(NetSnapshot.MAX_BYTES);
+    private final ByteBuffer mMessage = ByteBuffer.allocate(Protocol.MAX_SNAPSHOT_SIZE);
+    private int mTick;
+
+    private volatile boolean mOver;
+
+    /**
+     * This method creates a match for two connected players
+     * @param id which match this is
+     * @param seed seed for both games
+     * @param first the player in seat 0
+     * @param second the player in seat 1
+     * @param flushes where to queue connections that have output
+     */
+    Match(int id, long seed, Connection first, Connection second, Queue<Connection> flushes){
+        mId = id;
+        mSeed = seed;
+        mSeats = new Connection[]{first, second};
+        mFlushes = flushes;
+        for (int seat = 0; seat < Protocol.SEATS; seat++){
+            mGames[seat] = new PongSimulation(SCREEN_X, SCREEN_Y, seed);
+            mInputs[seat] = new IntRingBuffer(16);
+            mAcks.set(seat, -1);
+            mSent[seat] = new SnapshotHistory(64);
+        }
+    }
+
+    /**
+     * This method tells both players the match has started
+     */
+    void start(){
+        for (int seat = 0; seat < Protocol.SEATS; seat++){
+            mMessage.clear();
+            mMessage.put(Protocol.JOINED);
+            mMessage.putInt(mId);
+            mMessage.put((byte) seat);
+            mMessage.putLong(mSeed);
+            mMessage.putInt(SCREEN_X);
+            mMessage.putInt(SCREEN_Y);
+            mMessage.flip();
+            send(mSeats[seat]);
+        }
+    }
+
+    /**
+     * This method queues a player's input for the next tick, called by the selector thread
+     * A player sending faster than the ticks loses inputs rather than building up lag
+     * @param seat which player
+     * @param movement Bat.STOPPED, Bat.LEFT or Bat.RIGHT
+     * @param input the input's number
+     */
+    void setInput(int seat, int movement, int input){
+        if (movement >= 0 && movement <= 2 && input >= 0 && input <= MAX_INPUT){
+            mInputs[seat].offer(input << 2 | movement);
+        }
+    }
+
+    /**
+     * This method reads an INPUT message from a player, called by the selector thread
+     * @param seat which player
+     * @param in the message after its type byte, read up to its end
+     */
+    void receiveInput(int seat, ByteBuffer in){
+        int movement = in.get();
+        int input = in.getInt();
+        int ackTick = in.getInt();
+        setInput(seat, movement, input);
+        acknowledge(seat, ackTick);
+    }
+
+    /**
+     * This method records that a player has a snapshot, later ones are packed against it
+     * @param seat which player
+     * @param tick the snapshot's tick
+     */
+    void acknowledge(int seat, int tick){
+        if (tick > mAcks.get(seat) && tick <= mTickSent){
+            mAcks.set(seat, tick);
+        }
+    }
+
+    /**
+     * This method moves both games forward one tick and sends the result to both players
+     * @param dt how many seconds of game time to move forward
+     */
+    void tick(float dt){
+        if (mOver){
+            return;
+        }
+
+        // A player who left forfeits
+        for (int seat = 0; seat < Protocol.SEATS; seat++){
+            if (mSeats[seat].isClosed()){
+                finish(Protocol.SEATS - 1 - seat);
+                return;
+            }
+        }
+
+        int lost = 0;
+        for (int seat = 0; seat < Protocol.SEATS; seat++){
+            takeInput(seat);
+            mGames[seat].setBatMovement(mMovements[seat]);
+            if ((mGames[seat].step(dt) & PongSimulation.EVENT_GAME_OVER) != 0){
+                lost |= 1 << seat;
+            }
+        }
+        mTick++;
+
+        if (lost != 0){
+            // Both losing on the same tick is a draw
+            finish(lost == 1 ? 1 : lost == 2 ? 0 : Protocol.NO_WINNER);
+            return;
+        }
+
+        mSnapshot.setTick(mTick);
+        for (int seat = 0; seat < Protocol.SEATS; seat++){
+            mSnapshot.capture(seat, mGames[seat], mInputsUsed[seat]);
+        }
+        for (int seat = 0; seat < Protocol.SEATS; seat++){
+            mBits.clear();
+            mSnapshot.write(mSent[seat].get(mAcks.get(seat)), mBits);
+            mSent[seat].put(mSnapshot);
+
+            mMessage.clear();
+            mMessage.put(Protocol.SNAPSHOT);
+            mMessage.putShort((short) mBits.getByteCount());
+            mMessage.put(mBits.getBytes(), 0, mBits.getByteCount());
+            mMessage.flip();
+            send(mSeats[seat]);
+        }
+        mTickSent = mTick;
+    }
+
+    /**
+     * This method uses the next input from a player
+     * One is used each tick, like the client predicts, and one more
+     * if they have got ahead so a burst of inputs doesn't stay queued as lag
+     */
+    private void takeInput(int seat){
+        IntRingBuffer inputs = mInputs[seat];
+        for (int i = 0; i < 2 && !inputs.isEmpty(); i++){
+            int value = inputs.poll();
+            mMovements[seat] = value & 3;
+            mInputsUsed[seat] = (value >>> 2) + 1;
+        }
+    }
+
+    /**
+     * This method ends the match with no winner, after it failed
+     */
+    void abort(){
+        if (!mOver){
+            finish(Protocol.NO_WINNER);
+        }
+    }
+
+    /**
+     * This method ends the match and tells both players who won
+     * @param winner the winning seat or Protocol.NO_WINNER
+     */
+    private void finish(int winner){
+        mOver = true;
+        mMessage.clear();
+        mMessage.put(Protocol.OVER);
+        mMessage.put((byte) winner);
+        mMessage.flip();
+        for (int seat = 0; seat < Protocol.SEATS; seat++){
+            send(mSeats[seat]);
+        }
+    }
+
+    private void send(Connection connection){
+        if (connection.send(mMessage)){
+            mFlushes.offer(connection);
+        }
+    }
+
+    boolean isOver(){ return mOver; }
+
+    int getId(){ return mId; }
+
+    PongSimulation getGame(int seat){ return mGames[seat]; }
+
+    /**
+     * @return the snapshot of the last tick, tick worker only
+     */
+    NetSnapshot getSnapshot(){ return mSnapshot; }
+}
@@ -0,0 +1,259 @@
+package com.example.pong.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * This class hosts head to head matches for as many clients as connect
+ * One thread runs a selector for every socket, accepting, reading inputs
+ * and writing what the matches send. The matches themselves are stepped by
+ * the TickScheduler's workers, so a slow socket never holds up a tick
+ */
+public class MatchServer implements Runnable, Closeable {
+
+    public static final int DEFAULT_PORT = 7777;
+    public static final int TICK_RATE = 60;
+
+    private final Selector mSelector;
+    private final ServerSocketChannel mServer;
+    private final TickScheduler mScheduler;
+    private final Thread mThread;
+    private volatile boolean mRunning;
+
+    // Connections the tick queued output for, drained by the selector thread
+    private final Queue<Connection> mFlushes = new ConcurrentLinkedQueue<>();
+
+    // Selector thread only
+    private Connection mWaiting;
+    private int mNextMatch;
+    private long mNextSeed = System.nanoTime();
+
+    /**
+     * This method opens the server socket, start begins serving
+     * @param address where to listen, port 0 picks a free one
+     * @param workers how many threads step matches
+     * @throws IOException if the socket could not be opened
+     */
+    public MatchServer(InetSocketAddress address, int workers) throws IOException {
+        mSelector = Selector.open();
+        mServer = ServerSocketChannel.open();
+        mServer.bind(address, 1024);
+        mServer.configureBlocking(false);
+        mServer.register(mSelector, SelectionKey.OP_ACCEPT);
+        mScheduler = new TickScheduler(TICK_RATE, workers, mSelector::wakeup);
+        mThread = new Thread(this, "selector");
+    }
+
+    /**
+     * This method starts the selector thread and the ticks
+     */
+    public void start(){
+        mRunning = true;
+        mThread.start();
+        mScheduler.start();
+    }
+
+    /**
+     * This method stops serving and closes every socket
+     */
+    @Override
+    public void close() throws IOException {
+        mRunning = false;
+        mSelector.wakeup();
+        try {
+            mScheduler.stop();
+            mThread.join();
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * This method is the selector loop
+     */
+    @Override
+    public void run(){
+        try {
+            while (mRunning){
+                mSelector.select();
+                flushQueued();
+
+                Iterator<SelectionKey> keys = mSelector.selectedKeys().iterator();
+                while (keys.hasNext()){
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()){
+                        continue;
+                    }
+                    if (key.isAcceptable()){
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable()){
+                            receive(connection);
+                        }
+                        if (key.isValid() && key.isWritable()){
+                            connection.flush();
+                        }
+                    } catch (IOException e){
+                        disconnect(connection);
+                    }
+                }
+            }
+        } catch (IOException e){
+            e.printStackTrace();
+        } finally {
+            for (SelectionKey key : mSelector.keys()){
+                if (key.attachment() instanceof Connection){
+                    ((Connection) key.attachment()).close();
+                }
+            }
+            try {
+                mServer.close();
+                mSelector.close();
+            } catch (IOException e){
+                // Closing anyway
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = mServer.accept()) != null){
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            SelectionKey key = channel.register(mSelector, SelectionKey.OP_READ);
+            key.attach(new Connection(channel, key));
+        }
+    }
+
+    /**
+     * This method handles every whole message a client has sent
+     */
+    private void receive(Connection connection) throws IOException {
+        ByteBuffer in = connection.read();
+        int size = 0;
+        while (in.hasRemaining()){
+            // Only the server sends the other messages, and checked before waiting for
+            // the rest as a snapshot's length could ask for more than the buffer holds
+            byte type = in.get(in.position());
+            if (type != Protocol.JOIN && type != Protocol.INPUT){
+                size = -1;
+                break;
+            }
+            size = Protocol.nextMessage(in);
+            if (size == 0){
+                break;
+            }
+            in.get();
+            if (type == Protocol.JOIN){
+                join(connection);
+            } else {
+                Match match = connection.getMatch();
+                if (match != null){
+                    match.receiveInput(connection.getSeat(), in);
+                } else {
+                    in.position(in.position() + size - 1);
+                }
+            }
+        }
+        in.compact();
+        if (size < 0){
+            throw new IOException("client sent a bad message");
+        }
+        // Anything join queued goes out straight away
+        flushQueued();
+    }
+
+    /**
+     * This method pairs a client with the one waiting, or makes it wait
+     */
+    private void join(Connection connection){
+        Match current = connection.getMatch();
+        if ((current != null && !current.isOver()) || mWaiting == connection){
+            return;
+        }
+        if (mWaiting == null || mWaiting.isClosed()){
+            mWaiting = connection;
+            return;
+        }
+
+        Match match = new Match(mNextMatch++, mNextSeed++, mWaiting, connection, mFlushes);
+        mWaiting.setMatch(match, 0);
+        connection.setMatch(match, 1);
+        mWaiting = null;
+        match.start();
+        mScheduler.add(match);
+    }
+
+    private void disconnect(Connection connection){
+        connection.close();
+        if (mWaiting == connection){
+            mWaiting = null;
+        }
+    }
+
+    private void flushQueued(){
+        Connection connection;
+        while ((connection = mFlushes.poll()) != null){
+            try {
+                connection.flush();
+            } catch (IOException e){
+                disconnect(connection);
+            }
+        }
+    }
+
+    /**
+     * @return the port the server is listening on
+     */
+    public int getPort(){
+        return mServer.socket().getLocalPort();
+    }
+
+    /**
+     * @return how many matches are being played
+     */
+    public int getActiveMatches(){ return mScheduler.getActiveMatches(); }
+
+    /**
+     * This method copies the tick time percentiles out
+     * @param percentiles which percentiles to read
+     * @param out filled with the tick time in nanoseconds for each
+     * @return how many ticks have been timed
+     */
+    public long getTickTimes(double[] percentiles, long[] out){
+        return mScheduler.getTickTimes(percentiles, out);
+    }
+
+    /**
+     * This method forgets the tick times so far, for dropping the warm up
+     */
+    public void resetTickTimes(){
+        mScheduler.resetTickTimes();
+    }
+
+    /**
+     * This method runs a server until the process is killed
+     * @param args optional port to listen on
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        MatchServer server = new MatchServer(new InetSocketAddress(port),
+                Runtime.getRuntime().availableProcessors());
+        server.start();
+        System.out.println("Listening on " + server.getPort());
+    }
+}
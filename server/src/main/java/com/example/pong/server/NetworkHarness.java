@@ -0,0 +1,301 @@
+package com.example.pong.server;
+
+import com.example.pong.core.Bat;
+import com.example.pong.core.BatController;
+import com.example.pong.core.BatPrediction;
+import com.example.pong.core.BitReader;
+import com.example.pong.core.BitWriter;
+import com.example.pong.core.GameRandom;
+import com.example.pong.core.JitterBuffer;
+import com.example.pong.core.LatencyHistogram;
+import com.example.pong.core.NetSnapshot;
+import com.example.pong.core.SnapshotHistory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.PriorityQueue;
+
+/**
+ * This class plays one client against a server over a pretend network
+ * and measures what the snapshot protocol costs and how it copes
+ * The network is simulated in game time, each packet is delayed, jittered
+ * and maybe lost by a seeded random, so a run takes a moment and is repeatable.
+ * The server side is a real Match reading and writing through the links,
+ * the client side uses the JitterBuffer and BatPrediction a real client would
+ *
+ * Run with seconds of play and one way latency in milliseconds, for example
+ * java com.example.pong.server.NetworkHarness 60 50
+ */
+public class NetworkHarness {
+
+    private static final int TICK_RATE = MatchServer.TICK_RATE;
+    private static final long TICK_NANOS = 1000000000L / TICK_RATE;
+    private static final float DT = 1f / TICK_RATE;
+    private static final long NANOS_IN_MILLI = 1000000;
+
+    // How far behind the server the client draws the other things
+    private static final float INTERPOLATION_TICKS = 2;
+
+    // The client's frames don't line up with the server's ticks
+    private static final long CLIENT_OFFSET_NANOS = 7 * NANOS_IN_MILLI;
+
+    /**
+     * What a run measured
+     */
+    public static final class Result {
+        // Bytes per second sent each way, and what the snapshots would be sent whole
+        public double downBytesPerSecond;
+        public double fullBytesPerSecond;
+        public double upBytesPerSecond;
+        // From an input being sent to the client hearing the server used it
+        public final LatencyHistogram inputLatency = new LatencyHistogram();
+        // Share of frames the jitter buffer had nothing newer to move towards
+        public double holdFraction;
+        // How far reconciling moved the predicted bat on average, in pixels
+        public double meanCorrection;
+        public long snapshotsLost;
+        public long snapshotsUndecodable;
+    }
+
+    /**
+     * A one way link that delays, reorders and loses packets
+     */
+    private static final class Link {
+        private final PriorityQueue<Packet> mInFlight = new PriorityQueue<>();
+        private final GameRandom mRandom;
+        private final float mLoss;
+        private final long mLatency;
+        private final long mJitter;
+        long mBytes;
+        long mLost;
+
+        Link(GameRandom random, float loss, long latency, long jitter){
+            mRandom = random;
+            mLoss = loss;
+            mLatency = latency;
+            mJitter = jitter;
+        }
+
+        void send(ByteBuffer packet, long now){
+            mBytes += packet.remaining();
+            if (mRandom.nextFloat() < mLoss){
+                mLost++;
+                return;
+            }
+            long delay = mLatency + (mJitter > 0 ? mRandom.nextInt((int) mJitter) : 0);
+            mInFlight.add(new Packet(now + delay,
+                    Arrays.copyOfRange(packet.array(), packet.position(), packet.limit())));
+        }
+
+        ByteBuffer poll(long now){
+            Packet next = mInFlight.peek();
+            if (next == null || next.mArrival > now){
+                return null;
+            }
+            mInFlight.poll();
+            return ByteBuffer.wrap(next.mBytes);
+        }
+    }
+
+    /**
+     * A Match seat whose messages go straight onto a link instead of a socket
+     */
+    private static final class LinkConnection extends Connection {
+        private final Link mLink;
+        // The game time the match is ticking at
+        long mNow;
+
+        LinkConnection(Link link){
+            super(null, null);
+            mLink = link;
+        }
+
+        @Override
+        boolean send(ByteBuffer message){
+            if (mLink != null){
+                int position = message.position();
+                mLink.send(message, mNow);
+                message.position(position);
+            }
+            // Nothing is left waiting for a flush
+            return false;
+        }
+    }
+
+    /**
+     * A packet on its way, jitter can make them overtake each other
+     */
+    private static final class Packet implements Comparable<Packet> {
+        final long mArrival;
+        final byte[] mBytes;
+
+        Packet(long arrival, byte[] bytes){
+            mArrival = arrival;
+            mBytes = bytes;
+        }
+
+        @Override
+        public int compareTo(Packet other){
+            return Long.compare(mArrival, other.mArrival);
+        }
+    }
+
+    /**
+     * This method plays one run
+     * @param seconds how long to play, in game time
+     * @param loss the chance each packet is lost, both ways
+     * @param latencyMillis the one way delay
+     * @param jitterMillis the most extra random delay on top
+     * @param seed seed for the game and the network
+     * @return what was measured
+     */
+    public static Result run(int seconds, float loss, int latencyMillis, int jitterMillis, long seed){
+        GameRandom random = new GameRandom(seed);
+        Link down = new Link(random, loss, latencyMillis * NANOS_IN_MILLI, jitterMillis * NANOS_IN_MILLI);
+        Link up = new Link(random, loss, latencyMillis * NANOS_IN_MILLI, jitterMillis * NANOS_IN_MILLI);
+        Result result = new Result();
+
+        // The server, seat 0 is the client being measured, seat 1 plays itself
+        LinkConnection client = new LinkConnection(down);
+        Match match = new Match(0, seed, client, new LinkConnection(null), new ArrayDeque<Connection>());
+        BatController opponent = new BatController();
+        int opponentInput = 0;
+        BitWriter fullBits = new BitWriter(NetSnapshot.MAX_BYTES);
+        long fullBytes = 0;
+        match.start();
+
+        // The client
+        SnapshotHistory received = new SnapshotHistory(64);
+        NetSnapshot clientSnapshot = new NetSnapshot();
+        BitReader reader = new BitReader();
+        JitterBuffer jitter = new JitterBuffer(TICK_RATE, INTERPOLATION_TICKS);
+        float batWidth = match.getGame(0).getBat().getRect().width();
+        BatPrediction prediction = new BatPrediction(Match.SCREEN_X, batWidth,
+                match.getGame(0).getBat().getRect().left);
+        long[] inputSent = new long[1024];
+        int lastInputAck = -1;
+        ByteBuffer input = ByteBuffer.allocate(Protocol.INPUT_SIZE);
+        long frames = 0;
+        long corrections = 0;
+        double correctionTotal = 0;
+
+        long end = seconds * 1000000000L;
+        long nextTick = TICK_NANOS;
+        long nextFrame = CLIENT_OFFSET_NANOS;
+        while (nextTick <= end || nextFrame <= end){
+            if (nextTick <= nextFrame){
+                long now = nextTick;
+                nextTick += TICK_NANOS;
+
+                // The server reads whatever inputs have arrived
+                ByteBuffer packet;
+                while ((packet = up.poll(now)) != null){
+                    packet.get();
+                    match.receiveInput(0, packet);
+                }
+                match.setInput(1, opponent.chooseMovement(match.getGame(1)), opponentInput++);
+
+                client.mNow = now;
+                match.tick(DT);
+                if (match.isOver()){
+                    end = now;
+                    break;
+                }
+
+                fullBits.clear();
+                match.getSnapshot().write(null, fullBits);
+                fullBytes += Protocol.SNAPSHOT_HEADER_SIZE + fullBits.getByteCount();
+            } else {
+                long now = nextFrame;
+                nextFrame += TICK_NANOS;
+                frames++;
+
+                // The client reads whatever snapshots have arrived
+                ByteBuffer packet;
+                while ((packet = down.poll(now)) != null){
+                    if (packet.get(0) != Protocol.SNAPSHOT){
+                        continue;
+                    }
+                    reader.reset(packet.array(), Protocol.SNAPSHOT_HEADER_SIZE,
+                            packet.limit() - Protocol.SNAPSHOT_HEADER_SIZE);
+                    if (!clientSnapshot.read(reader, received)){
+                        result.snapshotsUndecodable++;
+                        continue;
+                    }
+                    // One that arrives after a newer one can still be drawn but is too old to correct with
+                    boolean newest = clientSnapshot.getTick() > received.getLatestTick();
+                    received.put(clientSnapshot);
+                    jitter.add(clientSnapshot, now);
+
+                    int inputAck = clientSnapshot.get(0, NetSnapshot.INPUTS_USED) - 1;
+                    if (newest && inputAck > lastInputAck){
+                        for (int i = lastInputAck + 1; i <= inputAck; i++){
+                            result.inputLatency.record(now - inputSent[i & 1023]);
+                        }
+                        lastInputAck = inputAck;
+                        prediction.reconcile(inputAck,
+                                NetSnapshot.toPixels(clientSnapshot.get(0, NetSnapshot.BAT_X), Match.SCREEN_X));
+                        correctionTotal += Math.abs(prediction.getLastCorrection());
+                        corrections++;
+                    }
+                }
+
+                // Chase the ball where the client sees it
+                int movement = Bat.STOPPED;
+                if (jitter.sample(now)){
+                    float ballX = NetSnapshot.toPixels(jitter.get(0, NetSnapshot.BALL_X), Match.SCREEN_X);
+                    float batCenter = prediction.getX() + batWidth / 2;
+                    if (ballX > batCenter + batWidth / 4){
+                        movement = Bat.RIGHT;
+                    } else if (ballX < batCenter - batWidth / 4){
+                        movement = Bat.LEFT;
+                    }
+                }
+
+                int number = prediction.apply(movement, DT);
+                inputSent[number & 1023] = now;
+                input.clear();
+                input.put(Protocol.INPUT).put((byte) movement).putInt(number)
+                        .putInt(received.getLatestTick()).flip();
+                up.send(input, now);
+            }
+        }
+
+        // A match can end early if the client loses
+        double played = end / 1e9;
+        result.downBytesPerSecond = down.mBytes / played;
+        result.fullBytesPerSecond = fullBytes / played;
+        result.upBytesPerSecond = up.mBytes / played;
+        result.holdFraction = jitter.getHolds() / (double) Math.max(1, frames);
+        result.meanCorrection = correctionTotal / Math.max(1, corrections);
+        result.snapshotsLost = down.mLost;
+        return result;
+    }
+
+    /**
+     * This method prints a table of runs at increasing packet loss
+     * @param args seconds to play, default 60, one way latency in milliseconds, default 50,
+     *             and jitter in milliseconds, default 20
+     */
+    public static void main(String[] args){
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 60;
+        int latency = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int jitter = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        float[] losses = {0, 0.01f, 0.05f, 0.1f, 0.2f};
+
+        System.out.println(String.format(Locale.US, "%d s, %d ms one way, up to %d ms jitter, %d Hz",
+                seconds, latency, jitter, TICK_RATE));
+        System.out.println(String.format(Locale.US, "%6s %10s %10s %10s %10s %10s %10s %10s",
+                "loss", "down B/s", "full B/s", "up B/s", "p50 ms", "p99 ms", "held", "fix px"));
+        for (float loss : losses){
+            Result result = run(seconds, loss, latency, jitter, 1);
+            System.out.println(String.format(Locale.US, "%5.0f%% %10.0f %10.0f %10.0f %10.1f %10.1f %9.1f%% %10.2f",
+                    loss * 100, result.downBytesPerSecond, result.fullBytesPerSecond, result.upBytesPerSecond,
+                    result.inputLatency.getValueAtPercentile(50) / (double) NANOS_IN_MILLI,
+                    result.inputLatency.getValueAtPercentile(99) / (double) NANOS_IN_MILLI,
+                    result.holdFraction * 100, result.meanCorrection));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.pong.server;
+
+import com.example.pong.core.NetSnapshot;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class holds the messages clients and the server send each other
+ * Every message is a type byte followed by a fixed layout, big endian,
+ * so a message's size is known from its first byte, or for a snapshot from its length
+ *
+ * Client to server
+ * JOIN, ask to be put in the next match
+ * INPUT, byte Bat.STOPPED, Bat.LEFT or Bat.RIGHT, int input number,
+ * int tick of the newest snapshot received
+ *
+ * Server to client
+ * JOINED, int match id, byte seat, long seed, int screenX, int screenY
+ * SNAPSHOT, u16 length, then a NetSnapshot packed against the last one acknowledged
+ * OVER, byte winning seat or NO_WINNER
+ */
+public final class Protocol {
+
+    public static final byte JOIN = 1;
+    public static final byte INPUT = 2;
+    public static final byte JOINED = 3;
+    public static final byte SNAPSHOT = 4;
+    public static final byte OVER = 5;
+
+    // Every match has two players
+    public static final int SEATS = NetSnapshot.SEATS;
+    public static final byte NO_WINNER = -1;
+
+    public static final int JOIN_SIZE = 1;
+    public static final int INPUT_SIZE = 1 + 1 + 4 + 4;
+    public static final int JOINED_SIZE = 1 + 4 + 1 + 8 + 4 + 4;
+    public static final int SNAPSHOT_HEADER_SIZE = 1 + 2;
+    public static final int MAX_SNAPSHOT_SIZE = SNAPSHOT_HEADER_SIZE + NetSnapshot.MAX_BYTES;
+    public static final int OVER_SIZE = 2;
+
+    private Protocol(){
+    }
+
+    /**
+     * This method works out how long a message is from its type
+     * @param type the first byte of the message
+     * @return the size including the type, SNAPSHOT_HEADER_SIZE for a snapshot
+     * which is followed by its length, or -1 if the type is unknown
+     */
+    public static int sizeOf(byte type){
+        switch (type){
+            case JOIN: return JOIN_SIZE;
+            case INPUT: return INPUT_SIZE;
+            case JOINED: return JOINED_SIZE;
+            case SNAPSHOT: return SNAPSHOT_HEADER_SIZE;
+            case OVER: return OVER_SIZE;
+            default: return -1;
+        }
+    }
+
+    /**
+     * This method checks whether a whole message is waiting in a buffer
+     * @param in a buffer ready for reading
+     * @return the size of the next message, 0 if it has not all arrived
+     * or -1 if it is not a message
+     */
+    public static int nextMessage(ByteBuffer in){
+        if (!in.hasRemaining()){
+            return 0;
+        }
+        byte type = in.get(in.position());
+        int size = sizeOf(type);
+        if (size < 0){
+            return -1;
+        }
+        if (in.remaining() < size){
+            return 0;
+        }
+        if (type == SNAPSHOT){
+            size += in.getShort(in.position() + 1) & 0xFFFF;
+        }
+        return in.remaining() >= size ? size : 0;
+    }
+}
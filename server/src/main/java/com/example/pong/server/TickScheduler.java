@@ -0,0 +1,199 @@
+package com.example.pong.server;
+
+import com.example.pong.core.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class ticks every match at a fixed rate
+ * Each tick the active matches are split into one batch per worker,
+ * like VectorEnv does with games, and the batches run on a ForkJoinPool.
+ * A tick that overruns delays the next one rather than overlapping it
+ */
+class TickScheduler {
+
+    private final int mTickRate;
+    private final float mDt;
+    private final ForkJoinPool mPool;
+    private final ScheduledExecutorService mTimer;
+    private final Runnable mAfterTick;
+
+    // New matches, handed over from the selector thread
+    private final Queue<Match> mAdded = new ConcurrentLinkedQueue<>();
+
+    // Tick thread only
+    private final ArrayList<Match> mMatches = new ArrayList<>();
+    private final Batch[] mBatches;
+    private final Tick mTick = new Tick();
+
+    // How long each tick took, guarded by itself
+    private final LatencyHistogram mTickTimes = new LatencyHistogram();
+    private volatile int mActive;
+    private long mTicks;
+
+    /**
+     * This method creates a scheduler, start begins ticking
+     * @param tickRate ticks per second
+     * @param workers how many threads step matches
+     * @param afterTick run on the tick thread after every tick, to send what the tick produced
+     */
+    TickScheduler(int tickRate, int workers, Runnable afterTick){
+        mTickRate = tickRate;
+        mDt = 1f / tickRate;
+        mPool = new ForkJoinPool(workers);
+        mAfterTick = afterTick;
+        mBatches = new Batch[workers];
+        for (int b = 0; b < workers; b++){
+            mBatches[b] = new Batch(b, workers);
+        }
+        mTimer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "tick");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void start(){
+        mTimer.scheduleAtFixedRate(this::tick, 0, 1000000000L / mTickRate, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * This method stops ticking and waits for the current tick to finish
+     */
+    void stop() throws InterruptedException {
+        mTimer.shutdown();
+        mTimer.awaitTermination(1, TimeUnit.SECONDS);
+        mPool.shutdown();
+    }
+
+    /**
+     * This method adds a match, it is ticked from the next tick on
+     * @param match the match to add
+     */
+    void add(Match match){
+        mAdded.offer(match);
+    }
+
+    /**
+     * This method ticks every match once
+     * Nothing may escape it, the timer would never run it again
+     */
+    private void tick(){
+        try {
+            tickMatches();
+        } catch (RuntimeException e){
+            e.printStackTrace();
+        }
+    }
+
+    private void tickMatches(){
+        long start = System.nanoTime();
+
+        Match match;
+        while ((match = mAdded.poll()) != null){
+            mMatches.add(match);
+        }
+
+        mTick.reinitialize();
+        mPool.invoke(mTick);
+
+        // Finished matches are dropped, swapping the last one into the gap
+        for (int i = mMatches.size() - 1; i >= 0; i--){
+            if (mMatches.get(i).isOver()){
+                int last = mMatches.size() - 1;
+                mMatches.set(i, mMatches.get(last));
+                mMatches.remove(last);
+            }
+        }
+        mActive = mMatches.size();
+
+        mAfterTick.run();
+
+        long elapsed = System.nanoTime() - start;
+        synchronized (mTickTimes){
+            mTickTimes.record(elapsed);
+            mTicks++;
+        }
+    }
+
+    /**
+     * @return how many matches were being played at the end of the last tick
+     */
+    int getActiveMatches(){ return mActive; }
+
+    /**
+     * This method copies the tick time percentiles out
+     * @param percentiles which percentiles to read
+     * @param out filled with the tick time in nanoseconds for each
+     * @return how many ticks have been timed
+     */
+    long getTickTimes(double[] percentiles, long[] out){
+        synchronized (mTickTimes){
+            for (int i = 0; i < percentiles.length; i++){
+                out[i] = mTickTimes.getValueAtPercentile(percentiles[i]);
+            }
+            return mTicks;
+        }
+    }
+
+    /**
+     * This method forgets the tick times so far, for dropping the warm up
+     */
+    void resetTickTimes(){
+        synchronized (mTickTimes){
+            mTickTimes.reset();
+            mTicks = 0;
+        }
+    }
+
+    /**
+     * Ticks one worker's share of the matches
+     */
+    private final class Batch extends RecursiveAction {
+        private final int mIndex;
+        private final int mCount;
+
+        Batch(int index, int count){
+            mIndex = index;
+            mCount = count;
+        }
+
+        @Override
+        protected void compute(){
+            int size = mMatches.size();
+            int from = size * mIndex / mCount;
+            int to = size * (mIndex + 1) / mCount;
+            for (int i = from; i < to; i++){
+                Match match = mMatches.get(i);
+                try {
+                    match.tick(mDt);
+                } catch (RuntimeException e){
+                    // A broken match ends so it can't take the others down with it
+                    System.err.println("match " + match.getId() + " failed");
+                    e.printStackTrace();
+                    match.abort();
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs every batch and waits for them all
+     */
+    private final class Tick extends RecursiveAction {
+        @Override
+        protected void compute(){
+            for (Batch batch : mBatches){
+                batch.reinitialize();
+            }
+            invokeAll(mBatches);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.pong.server;
+
+import com.example.pong.core.BitReader;
+import com.example.pong.core.NetSnapshot;
+import com.example.pong.core.PongSimulation;
+import com.example.pong.core.SnapshotHistory;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+import static org.junit.Assert.*;
+
+public class MatchServerTest {
+
+    private static ByteBuffer readMessage(SocketChannel channel) throws IOException {
+        ByteBuffer type = ByteBuffer.allocate(1);
+        while (type.hasRemaining()) {
+            assertTrue(channel.read(type) >= 0);
+        }
+        ByteBuffer message = ByteBuffer.allocate(Protocol.MAX_SNAPSHOT_SIZE);
+        message.put(type.get(0));
+        message.limit(Protocol.sizeOf(type.get(0)));
+        while (message.hasRemaining()) {
+            assertTrue(channel.read(message) >= 0);
+        }
+        if (type.get(0) == Protocol.SNAPSHOT) {
+            message.limit(Protocol.SNAPSHOT_HEADER_SIZE + (message.getShort(1) & 0xFFFF));
+            while (message.hasRemaining()) {
+                assertTrue(channel.read(message) >= 0);
+            }
+        }
+        message.flip();
+        return message;
+    }
+
+    private static SocketChannel join(MatchServer server) throws IOException {
+        SocketChannel channel = SocketChannel.open(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()));
+        channel.write(ByteBuffer.wrap(new byte[]{Protocol.JOIN}));
+        return channel;
+    }
+
+    @Test
+    public void twoClients_arePairedAndGetState() throws Exception {
+        try (MatchServer server = new MatchServer(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2)) {
+            server.start();
+            SocketChannel first = join(server);
+            SocketChannel second = join(server);
+
+            ByteBuffer joined = readMessage(first);
+            assertEquals(Protocol.JOINED, joined.get());
+            int match = joined.getInt();
+            int seat = joined.get();
+            long seed = joined.getLong();
+            assertEquals(Match.SCREEN_X, joined.getInt());
+
+            joined = readMessage(second);
+            assertEquals(Protocol.JOINED, joined.get());
+            assertEquals(match, joined.getInt());
+            // Whichever joined first gets seat 0
+            assertEquals(1 - seat, joined.get());
+            assertEquals(seed, joined.getLong());
+
+            // Snapshots keep coming, in order, and match a game played from the same seed
+            SnapshotHistory history = new SnapshotHistory(64);
+            NetSnapshot snapshot = new NetSnapshot();
+            BitReader bits = new BitReader();
+            PongSimulation local = new PongSimulation(Match.SCREEN_X, Match.SCREEN_Y, seed);
+            int full = 0;
+            for (int tick = 1; tick <= 30; tick++) {
+                ByteBuffer message = readMessage(second);
+                assertEquals(Protocol.SNAPSHOT, message.get(0));
+                if (tick == 1) {
+                    full = message.limit();
+                } else if (tick > 10) {
+                    // Acknowledged, so later ones are deltas
+                    assertTrue(message.limit() < full);
+                }
+                bits.reset(message.array(), Protocol.SNAPSHOT_HEADER_SIZE,
+                        message.limit() - Protocol.SNAPSHOT_HEADER_SIZE);
+                assertTrue(snapshot.read(bits, history));
+                history.put(snapshot);
+                assertEquals(tick, snapshot.getTick());
+
+                local.step(1f / MatchServer.TICK_RATE);
+                assertEquals(NetSnapshot.quantize(local.getBall().getRect().left, Match.SCREEN_X),
+                        snapshot.get(seat, NetSnapshot.BALL_X));
+                assertEquals(3, snapshot.get(1 - seat, NetSnapshot.LIVES));
+
+                ByteBuffer input = ByteBuffer.allocate(Protocol.INPUT_SIZE);
+                input.put(Protocol.INPUT).put((byte) 0).putInt(tick).putInt(tick).flip();
+                second.write(input);
+            }
+
+            // Leaving forfeits the match
+            first.close();
+            ByteBuffer message;
+            do {
+                message = readMessage(second);
+            } while (message.get(0) == Protocol.SNAPSHOT);
+            assertEquals(Protocol.OVER, message.get());
+            assertEquals(1 - seat, message.get());
+            second.close();
+        }
+    }
+
+    @Test
+    public void clientSendingAServerMessage_isDisconnected() throws Exception {
+        try (MatchServer server = new MatchServer(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1)) {
+            server.start();
+            SocketChannel channel = SocketChannel.open(
+                    new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()));
+
+            // A snapshot longer than the server ever buffers for a client
+            ByteBuffer message = ByteBuffer.allocate(Protocol.SNAPSHOT_HEADER_SIZE);
+            message.put(Protocol.SNAPSHOT).putShort((short) 0xFFFF).flip();
+            channel.write(message);
+
+            channel.socket().setSoTimeout(2000);
+            assertEquals(-1, channel.socket().getInputStream().read());
+            channel.close();
+        }
+    }
+}
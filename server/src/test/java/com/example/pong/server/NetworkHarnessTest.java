@@ -0,0 +1,25 @@
+package com.example.pong.server;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NetworkHarnessTest {
+
+    @Test
+    public void lossyLink_staysPlayableAndDeltasSaveBandwidth() {
+        NetworkHarness.Result clean = NetworkHarness.run(20, 0, 30, 0, 3);
+        NetworkHarness.Result lossy = NetworkHarness.run(20, 0.1f, 30, 10, 3);
+
+        assertTrue(clean.downBytesPerSecond < clean.fullBytesPerSecond * 0.8);
+        assertTrue(lossy.downBytesPerSecond < lossy.fullBytesPerSecond);
+        // Every snapshot could be decoded, baselines are only ones the client acknowledged
+        assertEquals(0, lossy.snapshotsUndecodable);
+
+        // The round trip is 60 ms plus waiting for a tick
+        long cleanP50 = clean.inputLatency.getValueAtPercentile(50) / 1000000;
+        assertTrue(cleanP50 >= 60 && cleanP50 <= 100);
+        assertTrue(lossy.inputLatency.getValueAtPercentile(99) > clean.inputLatency.getValueAtPercentile(99));
+        assertTrue(lossy.holdFraction < 0.05);
+    }
+}
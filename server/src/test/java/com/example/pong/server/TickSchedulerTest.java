@@ -0,0 +1,36 @@
+package com.example.pong.server;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TickSchedulerTest {
+
+    @Test
+    public void failingMatch_isEndedAndTheTicksCarryOn() throws Exception {
+        AtomicInteger ticks = new AtomicInteger();
+        TickScheduler scheduler = new TickScheduler(200, 1, ticks::incrementAndGet);
+        ArrayDeque<Connection> flushes = new ArrayDeque<>();
+        Match broken = new Match(0, 1, new Connection(null, null), new Connection(null, null), flushes) {
+            @Override
+            void tick(float dt) {
+                throw new IllegalStateException("broken");
+            }
+        };
+
+        scheduler.start();
+        scheduler.add(broken);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (ticks.get() < 20 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        scheduler.stop();
+
+        assertTrue(ticks.get() >= 20);
+        assertTrue(broken.isOver());
+        assertEquals(0, scheduler.getActiveMatches());
+    }
+}